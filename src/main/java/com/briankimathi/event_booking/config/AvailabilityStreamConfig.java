@@ -0,0 +1,22 @@
+package com.briankimathi.event_booking.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.availability-stream")
+@Getter
+@Setter
+public class AvailabilityStreamConfig {
+    private long publishIntervalMs = 500;
+    private Duration heartbeatInterval = Duration.ofSeconds(15);
+    private Duration timeout = Duration.ofMinutes(30);
+    private int maxSubscribers = 50_000;
+    private int fanOutThreads = 4;
+    private int fanOutQueueCapacity = 1_000;
+    private long retryAfterSeconds = 5;
+}
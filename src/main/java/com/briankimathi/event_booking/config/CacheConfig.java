@@ -0,0 +1,38 @@
+package com.briankimathi.event_booking.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.cache")
+@Getter
+@Setter
+public class CacheConfig {
+
+    private Users users = new Users();
+    private Events events = new Events();
+
+    @Getter
+    @Setter
+    public static class Users {
+        private long maxSize = 10_000;
+        private Duration ttl = Duration.ofMinutes(5);
+    }
+
+    @Getter
+    @Setter
+    public static class Events {
+        private long maxDetails = 10_000;
+        private long maxListingPages = 1_000;
+        private Duration ttl = Duration.ofMinutes(5);
+        // Longest a cached response may show an out-of-date ticket count
+        private Duration availabilityStaleness = Duration.ofSeconds(5);
+        // Serialized public responses, bounded by their total size
+        private DataSize maxResponseSize = DataSize.ofMegabytes(64);
+    }
+}
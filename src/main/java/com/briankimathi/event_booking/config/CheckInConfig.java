@@ -0,0 +1,19 @@
+package com.briankimathi.event_booking.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.check-in")
+@Getter
+@Setter
+public class CheckInConfig {
+    private long flushIntervalMs = 500;
+    private int flushBatchSize = 1_000;
+    private int maxEvents = 100;
+    private Duration idleTimeout = Duration.ofHours(12);
+}
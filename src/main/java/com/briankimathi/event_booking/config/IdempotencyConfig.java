@@ -0,0 +1,27 @@
+package com.briankimathi.event_booking.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.util.unit.DataSize;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.idempotency")
+@Getter
+@Setter
+public class IdempotencyConfig {
+    private boolean enabled = true;
+    private List<String> paths = new ArrayList<>(List.of("/api/users/purchase", "/api/public/purchase/guest"));
+    private Duration ttl = Duration.ofHours(24);
+    private Duration inProgressLease = Duration.ofMinutes(2);
+    private DataSize maxBodySize = DataSize.ofKilobytes(16);
+    private long maxCachedKeys = 10_000;
+    private int maxKeyLength = 255;
+    private long purgeIntervalMs = 600_000;
+    private long retryAfterSeconds = 1;
+}
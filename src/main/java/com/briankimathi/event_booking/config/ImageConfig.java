@@ -0,0 +1,24 @@
+package com.briankimathi.event_booking.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.image")
+@Getter
+@Setter
+public class ImageConfig {
+    private String storageDir = System.getProperty("java.io.tmpdir") + "/event-booking/images";
+    private long maxPixels = 40_000_000;
+    private float jpegQuality = 0.85f;
+    private int threads = 2;
+    private int queueCapacity = 32;
+    private long retryAfterSeconds = 5;
+    private Duration maxAge = Duration.ofDays(365);
+    private Duration supersededRetention = Duration.ofHours(1);
+    private long sweepIntervalMs = 600_000;
+}
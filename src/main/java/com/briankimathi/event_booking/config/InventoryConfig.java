@@ -0,0 +1,25 @@
+package com.briankimathi.event_booking.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.inventory")
+@Getter
+@Setter
+public class InventoryConfig {
+    private Mode mode = Mode.DATABASE;
+    private long flushIntervalMs = 500;
+    private int flushBatchSize = 1_000;
+    private int maxShards = 64;
+    private long shardRollupIntervalMs = 5_000;
+
+    public enum Mode {
+        /** Conditional decrements on event_ticket_types; safe with any number of nodes */
+        DATABASE,
+        /** In-memory counters with write-behind; only for a single node selling an event */
+        MEMORY
+    }
+}
@@ -5,6 +5,10 @@ import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
 @Configuration
 @ConfigurationProperties(prefix = "jwt")
 @Getter
@@ -12,4 +16,24 @@ import org.springframework.context.annotation.Configuration;
 public class JwtConfig {
     private String secret;
     private Long expiration;
+    private boolean stateless = true;
+    private String activeKid;
+    private List<SigningKey> keys = new ArrayList<>();
+    private long verifiedCacheSize = 10_000;
+    private Revocation revocation = new Revocation();
+
+    @Getter
+    @Setter
+    public static class SigningKey {
+        private String kid;
+        private String secret;
+    }
+
+    @Getter
+    @Setter
+    public static class Revocation {
+        private long expectedInsertions = 100_000;
+        private double falsePositiveRate = 0.001;
+        private Duration syncOverlap = Duration.ofMinutes(1);
+    }
 }
@@ -0,0 +1,20 @@
+package com.briankimathi.event_booking.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.auth.password-hashing")
+@Getter
+@Setter
+public class PasswordHashingConfig {
+    private int bcryptStrength = 10;
+    private int threads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+    private int queueCapacity = 64;
+    private Duration waitTimeout = Duration.ofSeconds(5);
+    private long retryAfterSeconds = 2;
+}
@@ -0,0 +1,19 @@
+package com.briankimathi.event_booking.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.purchase-code")
+@Getter
+@Setter
+public class PurchaseCodeConfig {
+    private String prefix = "EVT-";
+    private int length = 10;
+    private int tagLength = 4;
+    private int nodeId = 0;
+    private int nodeBits = 6;
+    private String secret;
+}
@@ -0,0 +1,38 @@
+package com.briankimathi.event_booking.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.purchase")
+@Getter
+@Setter
+public class PurchaseConfig {
+
+    private Hold hold = new Hold();
+    private Batch batch = new Batch();
+
+    @Getter
+    @Setter
+    public static class Hold {
+        private Duration timeout = Duration.ofMinutes(15);
+        private long tickMs = 1_000;
+        private int batchSize = 500;
+    }
+
+    @Getter
+    @Setter
+    public static class Batch {
+        private boolean enabled = true;
+        private int maxSize = 64;
+        private Duration maxDelay = Duration.ofMillis(2);
+        private int workers = 2;
+        private int queueCapacity = 2_048;
+        private Duration waitTimeout = Duration.ofSeconds(5);
+        private long retryAfterSeconds = 1;
+    }
+}
@@ -0,0 +1,22 @@
+package com.briankimathi.event_booking.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.qr-code")
+@Getter
+@Setter
+public class QrCodeConfig {
+    private int defaultSize = 256;
+    private int minSize = 64;
+    private int maxSize = 1024;
+    private int margin = 2;
+    private DataSize cacheSize = DataSize.ofMegabytes(32);
+    private Duration maxAge = Duration.ofDays(1);
+}
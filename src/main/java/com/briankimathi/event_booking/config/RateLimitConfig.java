@@ -0,0 +1,37 @@
+package com.briankimathi.event_booking.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.rate-limit")
+@Getter
+@Setter
+public class RateLimitConfig {
+    private boolean enabled = true;
+    private int stripes = 16;
+    private int maxEntriesPerStripe = 8_192;
+    private Duration idleTimeout = Duration.ofMinutes(10);
+    private List<Route> routes = new ArrayList<>();
+
+    public enum KeyType {
+        IP,
+        USER
+    }
+
+    @Getter
+    @Setter
+    public static class Route {
+        private String pattern;
+        private String method;
+        private int capacity;
+        private Duration period = Duration.ofMinutes(1);
+        private KeyType key = KeyType.IP;
+    }
+}
@@ -0,0 +1,21 @@
+package com.briankimathi.event_booking.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.receipt")
+@Getter
+@Setter
+public class ReceiptConfig {
+    private String cacheDir = System.getProperty("java.io.tmpdir") + "/event-booking/receipts";
+    private Duration cacheTtl = Duration.ofDays(7);
+    private long sweepIntervalMs = 3_600_000;
+    private int maxConcurrentRenders = 8;
+    private Duration renderWaitTimeout = Duration.ofSeconds(2);
+    private long retryAfterSeconds = 1;
+}
@@ -0,0 +1,25 @@
+package com.briankimathi.event_booking.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.search")
+@Getter
+@Setter
+public class SearchConfig {
+    private long rebuildIntervalMs = 600_000;
+    private int maxPrefixExpansions = 50;
+    private int maxResults = 1_000;
+    private int maxQueryLength = 200;
+    // Upper bounds of the price bands an event's cheapest ticket falls into, ascending
+    private List<BigDecimal> priceBands = new ArrayList<>(List.of(new BigDecimal("1000"), new BigDecimal("5000")));
+    private Duration dateBucketRefresh = Duration.ofMinutes(1);
+}
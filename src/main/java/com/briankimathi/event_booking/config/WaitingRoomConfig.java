@@ -0,0 +1,21 @@
+package com.briankimathi.event_booking.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.waiting-room")
+@Getter
+@Setter
+public class WaitingRoomConfig {
+    private String secret;
+    private Duration admissionTtl = Duration.ofMinutes(10);
+    private long refreshIntervalMs = 30_000;
+    private long minPollSeconds = 2;
+    private long maxPollSeconds = 30;
+    private long purgeIntervalMs = 600_000;
+}
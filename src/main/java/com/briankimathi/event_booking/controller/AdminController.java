@@ -1,4 +1,87 @@
 package com.briankimathi.event_booking.controller;
 
+import com.briankimathi.event_booking.dto.common.ApiResponse;
+import com.briankimathi.event_booking.dto.request.InventoryShardsRequest;
+import com.briankimathi.event_booking.dto.request.WaitingRoomRequest;
+import com.briankimathi.event_booking.dto.response.EventResponse;
+import com.briankimathi.event_booking.dto.response.InventoryShardsResponse;
+import com.briankimathi.event_booking.dto.response.UserStatusResponse;
+import com.briankimathi.event_booking.dto.response.WaitingRoomResponse;
+import com.briankimathi.event_booking.service.EventService;
+import com.briankimathi.event_booking.service.UserService;
+import com.briankimathi.event_booking.service.inventory.InventoryShardingService;
+import com.briankimathi.event_booking.service.waitingroom.WaitingRoomService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/admin")
+@RequiredArgsConstructor
 public class AdminController {
+
+    private final UserService userService;
+    private final EventService eventService;
+    private final WaitingRoomService waitingRoomService;
+    private final InventoryShardingService inventoryShardingService;
+
+    @PutMapping("/users/{userId}/suspend")
+    public ResponseEntity<ApiResponse<UserStatusResponse>> suspendUser(@PathVariable Long userId) {
+        return ResponseEntity.ok(ApiResponse.<UserStatusResponse>builder()
+                .data(userService.suspendUser(userId))
+                .message("User suspended successfully.")
+                .build());
+    }
+
+    @PutMapping("/users/{userId}/activate")
+    public ResponseEntity<ApiResponse<UserStatusResponse>> activateUser(@PathVariable Long userId) {
+        return ResponseEntity.ok(ApiResponse.<UserStatusResponse>builder()
+                .data(userService.activateUser(userId))
+                .message("User activated successfully.")
+                .build());
+    }
+
+    @PutMapping("/creators/{userId}/verify")
+    public ResponseEntity<ApiResponse<UserStatusResponse>> verifyCreator(@PathVariable Long userId) {
+        return ResponseEntity.ok(ApiResponse.<UserStatusResponse>builder()
+                .data(userService.verifyCreator(userId))
+                .message("Creator verified successfully.")
+                .build());
+    }
+
+    @PutMapping("/events/{eventId}/publish")
+    public ResponseEntity<ApiResponse<EventResponse>> publishEvent(@PathVariable Long eventId) {
+        return ResponseEntity.ok(ApiResponse.<EventResponse>builder()
+                .data(eventService.publishEvent(eventId))
+                .message("Event published successfully.")
+                .build());
+    }
+
+    @PutMapping("/events/{eventId}/waiting-room")
+    public ResponseEntity<ApiResponse<WaitingRoomResponse>> configureWaitingRoom(
+            @PathVariable Long eventId,
+            @Valid @RequestBody WaitingRoomRequest request
+    ) {
+        return ResponseEntity.ok(ApiResponse.<WaitingRoomResponse>builder()
+                .data(waitingRoomService.configure(eventId, request))
+                .message("Waiting room updated successfully.")
+                .build());
+    }
+
+    @PutMapping("/events/{eventId}/inventory-shards")
+    public ResponseEntity<ApiResponse<InventoryShardsResponse>> shardInventory(
+            @PathVariable Long eventId,
+            @Valid @RequestBody InventoryShardsRequest request
+    ) {
+        return ResponseEntity.ok(ApiResponse.<InventoryShardsResponse>builder()
+                .data(inventoryShardingService.reshard(eventId, request.getShards()))
+                .message("Inventory shards updated successfully.")
+                .build());
+    }
+
 }
@@ -5,13 +5,16 @@ import com.briankimathi.event_booking.dto.common.ApiResponse;
 import com.briankimathi.event_booking.dto.request.LoginRequest;
 import com.briankimathi.event_booking.dto.request.RegisterRequest;
 import com.briankimathi.event_booking.dto.response.AuthResponse;
+import com.briankimathi.event_booking.exception.ValidationException;
 import com.briankimathi.event_booking.service.AuthService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -41,4 +44,16 @@ public class AuthController {
                 .build());
     }
 
+    @PostMapping("/logout")
+    public ResponseEntity<ApiResponse<Void>> logout(@RequestHeader(HttpHeaders.AUTHORIZATION) String authorization) {
+        if(!authorization.startsWith("Bearer ")) {
+            throw new ValidationException("Bearer token is required");
+        }
+
+        authService.logout(authorization.substring(7));
+        return ResponseEntity.ok(ApiResponse.<Void>builder()
+                .message("Logout successful")
+                .build());
+    }
+
 }
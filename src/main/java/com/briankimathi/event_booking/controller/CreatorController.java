@@ -1,4 +1,105 @@
 package com.briankimathi.event_booking.controller;
 
+import com.briankimathi.event_booking.dto.common.ApiResponse;
+import com.briankimathi.event_booking.dto.request.CheckInRequest;
+import com.briankimathi.event_booking.dto.request.UpdateEventRequest;
+import com.briankimathi.event_booking.dto.response.CheckInResponse;
+import com.briankimathi.event_booking.dto.response.EventImageResponse;
+import com.briankimathi.event_booking.dto.response.EventResponse;
+import com.briankimathi.event_booking.security.SecurityUser;
+import com.briankimathi.event_booking.service.EventService;
+import com.briankimathi.event_booking.service.checkin.CheckInService;
+import com.briankimathi.event_booking.service.checkin.CheckInSnapshot;
+import com.briankimathi.event_booking.service.image.EventImageService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+@RestController
+@RequestMapping("/api/creators")
+@RequiredArgsConstructor
 public class CreatorController {
+
+    private final EventService eventService;
+    private final CheckInService checkInService;
+    private final EventImageService eventImageService;
+
+    @PutMapping("/events/{eventId}")
+    public ResponseEntity<ApiResponse<EventResponse>> updateEvent(
+            @PathVariable Long eventId,
+            @Valid @RequestBody UpdateEventRequest request,
+            @AuthenticationPrincipal SecurityUser user
+    ) {
+        return ResponseEntity.ok(ApiResponse.<EventResponse>builder()
+                .data(eventService.updateEvent(eventId, request, user))
+                .message("Event updated successfully")
+                .build());
+    }
+
+    @PostMapping("/events/{eventId}/cancel")
+    public ResponseEntity<ApiResponse<EventResponse>> cancelEvent(
+            @PathVariable Long eventId,
+            @AuthenticationPrincipal SecurityUser user
+    ) {
+        return ResponseEntity.ok(ApiResponse.<EventResponse>builder()
+                .data(eventService.cancelEvent(eventId, user))
+                .message("Event cancelled successfully")
+                .build());
+    }
+
+    @PostMapping(value = "/events/{eventId}/image", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ApiResponse<EventImageResponse>> uploadImage(
+            @PathVariable Long eventId,
+            @RequestParam("file") MultipartFile file,
+            @AuthenticationPrincipal SecurityUser user
+    ) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(ApiResponse.<EventImageResponse>builder()
+                        .data(eventImageService.upload(eventId, file, user))
+                        .message("Image uploaded. The event shows it once its sizes are ready.")
+                        .build());
+    }
+
+    @PostMapping("/events/{eventId}/check-ins")
+    public ResponseEntity<ApiResponse<CheckInResponse>> checkIn(
+            @PathVariable Long eventId,
+            @Valid @RequestBody CheckInRequest request,
+            @AuthenticationPrincipal SecurityUser user
+    ) {
+        CheckInResponse response = checkInService.checkIn(eventId, request.getPurchaseCode(), user);
+        return ResponseEntity.ok(ApiResponse.<CheckInResponse>builder()
+                .data(response)
+                .message(switch(response.getResult()) {
+                    case ADMITTED -> "Ticket checked in";
+                    case ALREADY_CHECKED_IN -> "Ticket was already checked in";
+                    case NOT_FOUND -> "No completed purchase with this code for the event";
+                })
+                .build());
+    }
+
+    @GetMapping("/events/{eventId}/check-in-snapshot")
+    public ResponseEntity<StreamingResponseBody> checkInSnapshot(
+            @PathVariable Long eventId,
+            @AuthenticationPrincipal SecurityUser user
+    ) {
+        CheckInSnapshot snapshot = checkInService.exportSnapshot(eventId, user);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"event-" + eventId + "-check-in.bin\"")
+                .body(out -> snapshot.writeTo(out, System.currentTimeMillis()));
+    }
 }
@@ -1,4 +1,178 @@
 package com.briankimathi.event_booking.controller;
 
+import com.briankimathi.event_booking.dto.common.ApiResponse;
+import com.briankimathi.event_booking.dto.common.CursorPage;
+import com.briankimathi.event_booking.dto.request.PurchaseRequest;
+import com.briankimathi.event_booking.dto.response.EventResponse;
+import com.briankimathi.event_booking.dto.response.PurchaseResponse;
+import com.briankimathi.event_booking.dto.response.QueueStatusResponse;
+import com.briankimathi.event_booking.security.SecurityUser;
+import com.briankimathi.event_booking.service.AvailabilityStream;
+import com.briankimathi.event_booking.service.EventService;
+import com.briankimathi.event_booking.service.QrCodeService;
+import com.briankimathi.event_booking.service.ResponseBytesCache;
+import com.briankimathi.event_booking.service.TicketService;
+import com.briankimathi.event_booking.service.image.EventImageService;
+import com.briankimathi.event_booking.service.receipt.ReceiptService;
+import com.briankimathi.event_booking.service.search.EventFilter;
+import com.briankimathi.event_booking.service.waitingroom.WaitingRoomService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+
+@RestController
+@RequestMapping("/api/public")
+@RequiredArgsConstructor
 public class PublicController {
+
+    private final EventService eventService;
+    private final TicketService ticketService;
+    private final QrCodeService qrCodeService;
+    private final ReceiptService receiptService;
+    private final WaitingRoomService waitingRoomService;
+    private final ResponseBytesCache responseBytesCache;
+    private final AvailabilityStream availabilityStream;
+    private final EventImageService eventImageService;
+
+    @GetMapping("/events")
+    public ResponseEntity<byte[]> listEvents(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String date,
+            @RequestParam(required = false) String price,
+            @RequestParam(required = false) Boolean available,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+    ) {
+        EventFilter filter = eventService.filter(category, date, price, available);
+        CursorPage<EventResponse> page = eventService.listPublishedEvents(cursor, size, q, filter);
+        // Only the plain first pages are requested often enough to keep serialized
+        String key = cursor == null && (q == null || q.isBlank()) && filter.isEmpty()
+                ? "events:" + page.getPageSize()
+                : null;
+        return responseBytesCache.respond(key, EventService.version(page), ifNoneMatch, acceptEncoding,
+                () -> ApiResponse.<CursorPage<EventResponse>>builder()
+                        .data(page)
+                        .message("Events retrieved successfully")
+                        .build());
+    }
+
+    @GetMapping("/events/{eventId}")
+    public ResponseEntity<byte[]> getEvent(
+            @PathVariable Long eventId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+    ) {
+        EventResponse event = eventService.getPublishedEvent(eventId);
+        return responseBytesCache.respond("event:" + eventId, EventService.version(event), ifNoneMatch, acceptEncoding,
+                () -> ApiResponse.<EventResponse>builder()
+                        .data(event)
+                        .message("Event retrieved successfully")
+                        .build());
+    }
+
+    @GetMapping(value = "/events/{eventId}/availability", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamAvailability(@PathVariable Long eventId) {
+        return availabilityStream.subscribe(eventId);
+    }
+
+    @GetMapping("/events/{eventId}/images/{version}/{variant}")
+    public void getImage(
+            @PathVariable Long eventId,
+            @PathVariable String version,
+            @PathVariable String variant,
+            HttpServletRequest request,
+            HttpServletResponse response
+    ) throws IOException {
+        eventImageService.serve(eventId, version, variant, request, response);
+    }
+
+    @PostMapping("/purchase/guest")
+    public ResponseEntity<ApiResponse<PurchaseResponse>> guestPurchase(@Valid @RequestBody PurchaseRequest request) {
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(ApiResponse.<PurchaseResponse>builder()
+                        .data(ticketService.purchase(request, null))
+                        .message("Tickets reserved. Use the code to access your tickets once payment completes.")
+                        .build());
+    }
+
+    @GetMapping("/purchase/{purchaseCode}")
+    public ResponseEntity<ApiResponse<PurchaseResponse>> getPurchase(@PathVariable String purchaseCode) {
+        return ResponseEntity.ok(ApiResponse.<PurchaseResponse>builder()
+                .data(ticketService.getPurchaseByCode(purchaseCode))
+                .message("Purchase retrieved successfully")
+                .build());
+    }
+
+    @GetMapping("/purchase/{purchaseCode}/qr")
+    public ResponseEntity<byte[]> getQrCode(
+            @PathVariable String purchaseCode,
+            @RequestParam(defaultValue = "png") String format,
+            @RequestParam(required = false) Integer size,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
+        QrCodeService.Format imageFormat = QrCodeService.Format.parse(format);
+        String etag = qrCodeService.etag(purchaseCode, imageFormat, size);
+        if(etag.equals(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(qrCodeService.cacheControl())
+                    .build();
+        }
+
+        return ResponseEntity.ok()
+                .contentType(imageFormat.mediaType())
+                .eTag(etag)
+                .cacheControl(qrCodeService.cacheControl())
+                .body(qrCodeService.render(purchaseCode, imageFormat, size));
+    }
+
+    @GetMapping("/purchase/{purchaseCode}/receipt")
+    public void getReceipt(@PathVariable String purchaseCode, HttpServletResponse response) throws IOException {
+        receiptService.send(purchaseCode, response);
+    }
+
+    @PostMapping("/events/{eventId}/queue")
+    public ResponseEntity<ApiResponse<QueueStatusResponse>> joinQueue(
+            @PathVariable Long eventId,
+            @RequestParam(required = false) String email,
+            @AuthenticationPrincipal SecurityUser user
+    ) {
+        // Registered buyers queue under their account email, guests under the one they will buy with
+        return ResponseEntity.ok(ApiResponse.<QueueStatusResponse>builder()
+                .data(waitingRoomService.join(eventId, user != null ? user.getEmail() : email))
+                .message("Joined the queue")
+                .build());
+    }
+
+    @GetMapping("/events/{eventId}/queue")
+    public ResponseEntity<ApiResponse<QueueStatusResponse>> queueStatus(
+            @PathVariable Long eventId,
+            @RequestParam String ticket
+    ) {
+        return ResponseEntity.ok(ApiResponse.<QueueStatusResponse>builder()
+                .data(waitingRoomService.status(eventId, ticket))
+                .message("Queue status retrieved successfully")
+                .build());
+    }
+
 }
@@ -1,4 +1,37 @@
 package com.briankimathi.event_booking.controller;
 
+import com.briankimathi.event_booking.dto.common.ApiResponse;
+import com.briankimathi.event_booking.dto.request.PurchaseRequest;
+import com.briankimathi.event_booking.dto.response.PurchaseResponse;
+import com.briankimathi.event_booking.security.SecurityUser;
+import com.briankimathi.event_booking.service.TicketService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/users")
+@RequiredArgsConstructor
 public class UserController {
+
+    private final TicketService ticketService;
+
+    @PostMapping("/purchase")
+    public ResponseEntity<ApiResponse<PurchaseResponse>> purchase(
+            @Valid @RequestBody PurchaseRequest request,
+            @AuthenticationPrincipal SecurityUser user
+    ) {
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(ApiResponse.<PurchaseResponse>builder()
+                        .data(ticketService.purchase(request, user))
+                        .message("Tickets reserved. Complete payment to confirm your purchase.")
+                        .build());
+    }
+
 }
@@ -18,8 +18,8 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-@ToString
-@EqualsAndHashCode
+@ToString(exclude = "event")
+@EqualsAndHashCode(exclude = "event")
 public class Commission {
 
     @Id
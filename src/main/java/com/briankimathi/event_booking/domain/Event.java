@@ -24,8 +24,8 @@ import java.util.Set;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-@ToString(exclude = {"eventTicketTypes", "purchases"})
-@EqualsAndHashCode(exclude = {"eventTicketTypes", "purchases"})
+@ToString(exclude = {"creator", "eventTicketTypes", "purchases", "commission"})
+@EqualsAndHashCode(exclude = {"creator", "eventTicketTypes", "purchases", "commission"})
 public class Event {
 
     @Id
@@ -68,8 +68,21 @@ public class Event {
     @Column(name = "available_tickets", nullable = false)
     private Integer availableTickets;
 
+    // Slot rows each ticket type's quantity is split across; 1 means unsharded
+    @Min(value = 1, message = "Inventory shards must be at least 1")
+    @Column(name = "inventory_shards", nullable = false)
+    @Builder.Default
+    private Integer inventoryShards = 1;
+
+    // Buyers admitted per second while the waiting room is enabled; null when disabled
+    @Column(name = "waiting_room_rate")
+    private Integer waitingRoomRate;
+
+    @Column(name = "waiting_room_opened_at")
+    private LocalDateTime waitingRoomOpenedAt;
+
     @NotNull(message = "Creator is required")
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "creator_id", nullable = false)
     private User creator;
 
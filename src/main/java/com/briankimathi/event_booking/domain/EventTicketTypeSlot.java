@@ -0,0 +1,41 @@
+package com.briankimathi.event_booking.domain;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.Min;
+import lombok.*;
+
+/**
+ * One share of an event ticket type's available quantity. Only sharded events have slots,
+ * and they are read and written through native statements, never loaded as entities.
+ */
+@Entity
+@Table(name = "event_ticket_type_slots", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_event_ticket_type_slot", columnNames = {"event_id", "ticket_type_id", "slot"})
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString
+@EqualsAndHashCode
+public class EventTicketTypeSlot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "event_id", nullable = false)
+    private Long eventId;
+
+    @Column(name = "ticket_type_id", nullable = false)
+    private Long ticketTypeId;
+
+    @Column(name = "slot", nullable = false)
+    private Integer slot;
+
+    @Min(value = 0, message = "Available quantity cannot be negative")
+    @Column(name = "available_quantity", nullable = false)
+    @Builder.Default
+    private Integer availableQuantity = 0;
+}
@@ -22,8 +22,8 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-@ToString
-@EqualsAndHashCode
+@ToString(exclude = "ticketPurchase")
+@EqualsAndHashCode(exclude = "ticketPurchase")
 public class PaymentTransaction {
 
     @Id
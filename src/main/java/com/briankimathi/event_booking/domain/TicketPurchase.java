@@ -24,12 +24,14 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-@ToString(exclude = "qrCodeData")
-@EqualsAndHashCode
+@ToString(exclude = {"user", "event", "ticketType", "paymentTransaction"})
+@EqualsAndHashCode(exclude = {"user", "event", "ticketType", "paymentTransaction"})
 public class TicketPurchase {
 
+    // Sequence ids (pooled, see V8) let batched purchases go out as one JDBC insert batch
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ticket_purchases_seq")
+    @SequenceGenerator(name = "ticket_purchases_seq", sequenceName = "ticket_purchases_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -37,11 +39,11 @@ public class TicketPurchase {
     private User user; // Nullable for guest purchases
 
     @NotNull(message = "Event is required")
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "event_id", nullable = false)
     private Event event;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "ticket_type_id", nullable = false)
     private TicketType ticketType;
 
@@ -53,12 +55,15 @@ public class TicketPurchase {
     @Column(name = "total_amount", nullable = false, precision = 10, scale = 2)
     private BigDecimal totalAmount;
 
+    @Column(name = "buyer_email", length = 255)
+    private String buyerEmail;
+
+    @Column(name = "buyer_phone", length = 20)
+    private String buyerPhone;
+
     @Column(name = "purchase_code", nullable = false, unique = true, length = 50)
     private String purchaseCode;
 
-    @Column(name = "qr_code_data", columnDefinition = "TEXT")
-    private String qrCodeData;
-
     @Enumerated(EnumType.STRING)
     @Column(name = "status", nullable = false, length = 50)
     @Builder.Default
@@ -67,6 +72,13 @@ public class TicketPurchase {
     @Column(name = "purchase_date", nullable = false)
     private LocalDateTime purchaseDate;
 
+    @Column(name = "inventory_synced", nullable = false)
+    @Builder.Default
+    private Boolean inventorySynced = true;
+
+    @Column(name = "checked_in_at")
+    private LocalDateTime checkedInAt;
+
     @OneToOne(mappedBy = "ticketPurchase", cascade = CascadeType.ALL, orphanRemoval = true)
     private PaymentTransaction paymentTransaction;
 
@@ -0,0 +1,30 @@
+package com.briankimathi.event_booking.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "used_admissions", indexes = {
+        @Index(name = "idx_used_admissions_expires", columnList = "expires_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString
+@EqualsAndHashCode
+public class UsedAdmission {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "signature", nullable = false, unique = true, length = 32)
+    private String signature;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
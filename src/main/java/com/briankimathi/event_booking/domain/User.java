@@ -65,6 +65,10 @@ public class User {
     @Builder.Default
     private Boolean isSuspended = false;
 
+    @Column(name = "suspension_epoch", nullable = false)
+    @Builder.Default
+    private Integer suspensionEpoch = 0;
+
     @Enumerated(EnumType.STRING)
     @Column(name = "creator_verification_status", nullable = false, length = 50)
     @Builder.Default
@@ -4,4 +4,5 @@ public enum EventStatus {
     DRAFT,
     PENDING_APPROVAL,
     PUBLISHED,
+    CANCELLED
 }
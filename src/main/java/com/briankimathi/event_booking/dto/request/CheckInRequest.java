@@ -0,0 +1,16 @@
+package com.briankimathi.event_booking.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CheckInRequest {
+    @NotBlank(message = "Purchase code is required")
+    private String purchaseCode;
+}
@@ -0,0 +1,19 @@
+package com.briankimathi.event_booking.dto.request;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryShardsRequest {
+    // Slot rows per ticket type; 1 keeps the quantity on event_ticket_types
+    @NotNull(message = "Shard count is required")
+    @Min(value = 1, message = "Shard count must be at least 1")
+    private Integer shards;
+}
@@ -1,4 +1,40 @@
 package com.briankimathi.event_booking.dto.request;
 
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
 public class PurchaseRequest {
+    @NotNull(message = "Event is required")
+    private Long eventId;
+
+    @NotNull(message = "Ticket type is required")
+    private Long eventTicketTypeId;
+
+    @NotNull(message = "Quantity is required")
+    @Min(value = 1, message = "Quantity must be at least 1")
+    @Max(value = 10, message = "Quantity cannot exceed 10 per purchase")
+    private Integer quantity;
+
+    // Required for guest purchases; registered users buy under their account email
+    @Email(message = "Email should be valid")
+    private String buyerEmail;
+
+    private String buyerPhone;
+
+    private String paymentMethod;
+
+    private String paymentToken;
+
+    // Required while the event's waiting room is enabled
+    private String admissionToken;
 }
@@ -0,0 +1,34 @@
+package com.briankimathi.event_booking.dto.request;
+
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Fields left null keep their current value
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UpdateEventRequest {
+    @Size(min = 1, max = 255, message = "Event title must be between 1 and 255 characters")
+    private String title;
+
+    private String description;
+
+    @Size(max = 255, message = "Venue must be at most 255 characters")
+    private String venue;
+
+    private LocalDateTime startDate;
+
+    private LocalDateTime endDate;
+
+    @Size(max = 100, message = "Category must be at most 100 characters")
+    private String category;
+
+    @Size(max = 500, message = "Image URL must be at most 500 characters")
+    private String imageUrl;
+}
@@ -0,0 +1,21 @@
+package com.briankimathi.event_booking.dto.request;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WaitingRoomRequest {
+    @NotNull(message = "Enabled flag is required")
+    private Boolean enabled;
+
+    // Buyers admitted per second by each node
+    @Min(value = 1, message = "Admission rate must be at least 1 per second")
+    private Integer admitPerSecond;
+}
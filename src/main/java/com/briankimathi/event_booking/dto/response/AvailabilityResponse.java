@@ -0,0 +1,18 @@
+package com.briankimathi.event_booking.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AvailabilityResponse {
+    private Long eventId;
+    private Integer totalTicketsAvailable;
+    private Map<Long, Integer> ticketTypes;   // Tickets left by ticket type id, as in EventResponse.ticketTypes
+}
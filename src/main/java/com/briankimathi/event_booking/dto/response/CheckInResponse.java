@@ -0,0 +1,21 @@
+package com.briankimathi.event_booking.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CheckInResponse {
+    private String purchaseCode;
+    private Result result;
+
+    public enum Result {
+        ADMITTED,
+        ALREADY_CHECKED_IN,
+        NOT_FOUND
+    }
+}
@@ -0,0 +1,17 @@
+package com.briankimathi.event_booking.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventImageResponse {
+    private String imageUrl;              // Becomes the event's imageUrl once the variants are rendered
+    private Map<String, String> variants; // URL by variant: hero, card, thumbnail
+}
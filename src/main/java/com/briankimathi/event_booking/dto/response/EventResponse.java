@@ -1,4 +1,41 @@
 package com.briankimathi.event_booking.dto.response;
 
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
 public class EventResponse {
+    private Long id;
+    private String title;
+    private String description;     // Details only
+    private LocalDateTime eventDate;
+    private LocalDateTime eventEndDate;
+    private String venueName;
+    private String imageUrl;
+    private String category;
+    private String status;
+    private Integer totalCapacity;
+    private Integer totalTicketsAvailable;
+    private List<TicketTypeSummary> ticketTypes;  // Details only
+    private LocalDateTime updatedAt;
+
+    @Data
+    @Builder(toBuilder = true)
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class TicketTypeSummary {
+        private Long id;
+        private String name;
+        private BigDecimal price;
+        private Integer quantityAvailable;
+    }
 }
@@ -0,0 +1,16 @@
+package com.briankimathi.event_booking.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryShardsResponse {
+    private Long eventId;
+    private Integer shards;
+    private Integer availableTickets;
+}
@@ -1,4 +1,44 @@
 package com.briankimathi.event_booking.dto.response;
 
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
 public class PurchaseResponse {
+    private String purchaseCode;
+    private EventSummary event;
+    private TicketTypeSummary ticketType;
+    private Integer quantity;
+    private BigDecimal totalAmount;
+    private String buyerEmail;
+    private LocalDateTime purchaseDate;
+    private String purchaseStatus;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class EventSummary {
+        private Long id;
+        private String title;
+        private LocalDateTime eventDate;
+        private String venueName;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class TicketTypeSummary {
+        private String name;
+        private BigDecimal price;
+    }
 }
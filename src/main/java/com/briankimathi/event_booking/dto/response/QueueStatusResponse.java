@@ -0,0 +1,23 @@
+package com.briankimathi.event_booking.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class QueueStatusResponse {
+    private Long eventId;
+    private String ticket;
+    private Long position;
+    private Long estimatedWaitSeconds;
+    private Long pollAfterSeconds;
+    private boolean admitted;
+    private String admissionToken;
+    private Instant admissionExpiresAt;
+}
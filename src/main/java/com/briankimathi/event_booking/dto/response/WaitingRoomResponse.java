@@ -0,0 +1,19 @@
+package com.briankimathi.event_booking.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WaitingRoomResponse {
+    private Long eventId;
+    private boolean enabled;
+    private Integer admitPerSecond;
+    private LocalDateTime openedAt;
+}
@@ -0,0 +1,7 @@
+package com.briankimathi.event_booking.exception;
+
+public class AdmissionRequiredException extends RuntimeException {
+    public AdmissionRequiredException(String message) {
+        super(message);
+    }
+}
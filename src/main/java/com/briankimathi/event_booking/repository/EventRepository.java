@@ -3,20 +3,154 @@ package com.briankimathi.event_booking.repository;
 
 import com.briankimathi.event_booking.domain.Event;
 import com.briankimathi.event_booking.domain.enums.EventStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface EventRepository extends JpaRepository<Event, Long> {
+    // Commission is the inverse side of a one-to-one and cannot be a lazy proxy; joining it
+    // saves the select Hibernate would otherwise issue for every event loaded
+    @EntityGraph(attributePaths = "commission")
     List<Event> findByCreatorId(Long creatorId);
+    @EntityGraph(attributePaths = "commission")
     List<Event> findByStatus(EventStatus status);
+    @EntityGraph(attributePaths = "commission")
     List<Event> findByStatusAndStartDateAfter(EventStatus status, LocalDateTime date);
 
-    @Query("SELECT e FROM Event e WHERE e.status = :status AND e.startDate >= :startDate ORDER BY e.startDate ASC")
-    List<Event> findPublishedUpcomingEvents(@Param("status") EventStatus status, @Param("startDate") LocalDateTime startDate);
+    /** An event about to be changed; the creator stays a proxy, as only its id is checked. */
+    @EntityGraph(attributePaths = "commission")
+    Optional<Event> findForChangeById(Long id);
+
+    /** An event about to be (re)indexed, with the ticket types its facets are built from. */
+    @EntityGraph(attributePaths = {"commission", "eventTicketTypes"})
+    Optional<Event> findForIndexById(Long id);
+
+    /** An event locked for a change that must not interleave with another, such as an image swap. */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM Event e WHERE e.id = :id")
+    Optional<Event> lockById(@Param("id") Long id);
+
+    @Query("SELECT e.id AS id, e.imageUrl AS imageUrl FROM Event e WHERE e.id IN :ids")
+    List<ImageUrlView> findImageUrls(@Param("ids") Collection<Long> ids);
+
+    String LISTING_COLUMNS = "e.id AS \"id\", e.title AS \"title\", e.start_date AS \"startDate\", " +
+            "e.end_date AS \"endDate\", e.venue AS \"venue\", e.image_url AS \"imageUrl\", e.category AS \"category\", " +
+            "e.status AS \"status\", e.total_capacity AS \"totalCapacity\", e.available_tickets AS \"availableTickets\", " +
+            "e.updated_at AS \"updatedAt\"";
+
+    /**
+     * One page of upcoming events with the given status, in (start_date, id) order,
+     * starting after (afterStartDate, afterId). The row comparison seeks straight into
+     * idx_event_status_start_id, so a deep page costs the same as the first.
+     */
+    @Query(value = "SELECT " + LISTING_COLUMNS + " FROM events e " +
+            "WHERE e.status = :status AND e.start_date >= :from " +
+            "AND (e.start_date, e.id) > (:afterStartDate, :afterId) " +
+            "ORDER BY e.start_date, e.id LIMIT :limit",
+            nativeQuery = true)
+    List<EventListingView> findListingPage(
+            @Param("status") String status,
+            @Param("from") LocalDateTime from,
+            @Param("afterStartDate") LocalDateTime afterStartDate,
+            @Param("afterId") Long afterId,
+            @Param("limit") int limit
+    );
+
+    @Query(value = "SELECT " + LISTING_COLUMNS + ", e.description AS \"description\" FROM events e " +
+            "WHERE e.id = :eventId AND e.status = :status",
+            nativeQuery = true)
+    Optional<EventDetailView> findDetailById(@Param("eventId") Long eventId, @Param("status") String status);
+
+    @Query(value = "SELECT " + LISTING_COLUMNS + ", e.description AS \"description\" FROM events e " +
+            "WHERE e.status = :status AND e.start_date >= :from",
+            nativeQuery = true)
+    List<EventDetailView> findSearchRows(@Param("status") String status, @Param("from") LocalDateTime from);
+
+    @Query(value = "SELECT e.id AS \"id\", e.available_tickets AS \"available\" FROM events e WHERE e.id IN (:eventIds)",
+            nativeQuery = true)
+    List<AvailabilityView> findAvailableTickets(@Param("eventIds") Collection<Long> eventIds);
+
+    // A sharded event's total is left to the roll-up. The shard count is read here, under the
+    // row lock resharding also takes, so a caller's cached count cannot make it skip or double up
+    @Modifying
+    @Query("UPDATE Event e SET e.availableTickets = CASE WHEN e.inventoryShards > 1 THEN e.availableTickets " +
+            "ELSE e.availableTickets - :quantity END " +
+            "WHERE e.id = :eventId AND (e.inventoryShards > 1 OR e.availableTickets >= :quantity)")
+    int decrementAvailableTickets(@Param("eventId") Long eventId, @Param("quantity") int quantity);
+
+    @Modifying
+    @Query("UPDATE Event e SET e.availableTickets = e.availableTickets + :delta WHERE e.id = :eventId")
+    int adjustAvailableTickets(@Param("eventId") Long eventId, @Param("delta") int delta);
+
+    @Query("SELECT e.creator.id FROM Event e WHERE e.id = :eventId")
+    Optional<Long> findCreatorId(@Param("eventId") Long eventId);
+
+    @Query("SELECT e.inventoryShards FROM Event e WHERE e.id = :eventId")
+    Optional<Integer> findInventoryShards(@Param("eventId") Long eventId);
+
+    @Modifying
+    @Query("UPDATE Event e SET e.inventoryShards = :shards, e.availableTickets = :availableTickets WHERE e.id = :eventId")
+    int updateInventoryShards(@Param("eventId") Long eventId, @Param("shards") int shards, @Param("availableTickets") int availableTickets);
+
+    /**
+     * Sales on a sharded event only touch its slot rows, so its available_tickets is
+     * brought up to date here from the aggregate instead of on every purchase.
+     */
+    @Modifying
+    @Query(value = "UPDATE events e SET available_tickets = t.total FROM (" +
+            "SELECT ev.id AS id, " +
+            "CAST((SELECT COALESCE(SUM(ett.available_quantity), 0) FROM event_ticket_types ett WHERE ett.event_id = ev.id) + " +
+            "(SELECT COALESCE(SUM(s.available_quantity), 0) FROM event_ticket_type_slots s WHERE s.event_id = ev.id) AS INTEGER) AS total " +
+            "FROM events ev WHERE ev.inventory_shards > 1) t " +
+            "WHERE e.id = t.id AND e.available_tickets <> t.total",
+            nativeQuery = true)
+    int rollUpShardedAvailableTickets();
+
+    @Query("SELECT e.id AS id, e.waitingRoomRate AS rate, e.waitingRoomOpenedAt AS openedAt FROM Event e WHERE e.waitingRoomRate IS NOT NULL")
+    List<WaitingRoomView> findWaitingRooms();
+
+    interface EventListingView {
+        Long getId();
+        String getTitle();
+        LocalDateTime getStartDate();
+        LocalDateTime getEndDate();
+        String getVenue();
+        String getImageUrl();
+        String getCategory();
+        String getStatus();
+        Integer getTotalCapacity();
+        Integer getAvailableTickets();
+        LocalDateTime getUpdatedAt();
+    }
+
+    interface EventDetailView extends EventListingView {
+        String getDescription();
+    }
+
+    interface AvailabilityView {
+        Long getId();
+        Integer getAvailable();
+    }
+
+    interface WaitingRoomView {
+        Long getId();
+        Integer getRate();
+        LocalDateTime getOpenedAt();
+    }
+
+    interface ImageUrlView {
+        Long getId();
+        String getImageUrl();
+    }
 }
@@ -0,0 +1,128 @@
+package com.briankimathi.event_booking.repository;
+
+import com.briankimathi.event_booking.domain.EventTicketType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface EventTicketTypeRepository extends JpaRepository<EventTicketType, Long> {
+
+    // Quantity held in a sharded event's slot rows, added to available_quantity for the total
+    String SLOT_TOTAL = "COALESCE((SELECT SUM(s.available_quantity) FROM event_ticket_type_slots s " +
+            "WHERE s.event_id = ett.event_id AND s.ticket_type_id = ett.ticket_type_id), 0)";
+
+    // The event's commission is fetched too: as the inverse side of a one-to-one it would
+    // otherwise cost a select of its own on every purchase
+    @Query("SELECT ett FROM EventTicketType ett JOIN FETCH ett.event e LEFT JOIN FETCH e.commission JOIN FETCH ett.ticketType " +
+            "WHERE ett.id = :id AND e.id = :eventId")
+    Optional<EventTicketType> findForPurchase(@Param("id") Long id, @Param("eventId") Long eventId);
+
+    /**
+     * Available quantity, slot rows included, with purchases not yet written back
+     * (inventory_synced = FALSE) already applied, read in one statement so the result is a
+     * consistent snapshot.
+     */
+    @Query(value = "SELECT ett.event_id AS \"eventId\", ett.ticket_type_id AS \"ticketTypeId\", " +
+            "CAST(ett.available_quantity + " + SLOT_TOTAL + " - COALESCE(SUM(CASE WHEN tp.status = 'CANCELLED' THEN -tp.quantity ELSE tp.quantity END), 0) AS INTEGER) AS \"available\" " +
+            "FROM event_ticket_types ett " +
+            "JOIN events e ON e.id = ett.event_id " +
+            "LEFT JOIN ticket_purchases tp ON tp.event_id = ett.event_id AND tp.ticket_type_id = ett.ticket_type_id AND tp.inventory_synced = FALSE " +
+            "WHERE e.status = :status " +
+            "GROUP BY ett.id, ett.event_id, ett.ticket_type_id, ett.available_quantity",
+            nativeQuery = true)
+    List<InventoryView> findInventoryByEventStatus(@Param("status") String status);
+
+    @Query(value = "SELECT ett.event_id AS \"eventId\", ett.ticket_type_id AS \"ticketTypeId\", " +
+            "CAST(ett.available_quantity + " + SLOT_TOTAL + " - COALESCE(SUM(CASE WHEN tp.status = 'CANCELLED' THEN -tp.quantity ELSE tp.quantity END), 0) AS INTEGER) AS \"available\" " +
+            "FROM event_ticket_types ett " +
+            "LEFT JOIN ticket_purchases tp ON tp.event_id = ett.event_id AND tp.ticket_type_id = ett.ticket_type_id AND tp.inventory_synced = FALSE " +
+            "WHERE ett.event_id = :eventId AND ett.ticket_type_id = :ticketTypeId " +
+            "GROUP BY ett.id, ett.event_id, ett.ticket_type_id, ett.available_quantity",
+            nativeQuery = true)
+    Optional<InventoryView> findInventory(@Param("eventId") Long eventId, @Param("ticketTypeId") Long ticketTypeId);
+
+    /**
+     * Takes tickets only if enough are left; the row lock is held for a single statement
+     * and a zero row count means sold out (or, for a sharded event, that the quantity lives
+     * in its slot rows).
+     */
+    @Modifying
+    @Query("UPDATE EventTicketType ett SET ett.availableQuantity = ett.availableQuantity - :quantity " +
+            "WHERE ett.event.id = :eventId AND ett.ticketType.id = :ticketTypeId AND ett.availableQuantity >= :quantity")
+    int decrementAvailableQuantity(@Param("eventId") Long eventId, @Param("ticketTypeId") Long ticketTypeId, @Param("quantity") int quantity);
+
+    @Query(value = "SELECT ett.available_quantity + " + SLOT_TOTAL + " FROM event_ticket_types ett " +
+            "WHERE ett.event_id = :eventId AND ett.ticket_type_id = :ticketTypeId",
+            nativeQuery = true)
+    Optional<Integer> findAvailableQuantity(@Param("eventId") Long eventId, @Param("ticketTypeId") Long ticketTypeId);
+
+    @Modifying
+    @Query("UPDATE EventTicketType ett SET ett.availableQuantity = ett.availableQuantity + :delta " +
+            "WHERE ett.event.id = :eventId AND ett.ticketType.id = :ticketTypeId")
+    int adjustAvailableQuantity(@Param("eventId") Long eventId, @Param("ticketTypeId") Long ticketTypeId, @Param("delta") int delta);
+
+    @Query(value = "SELECT event_id AS \"eventId\", ticket_type_id AS \"ticketTypeId\", available_quantity AS \"available\" " +
+            "FROM event_ticket_types WHERE event_id = :eventId ORDER BY ticket_type_id FOR UPDATE",
+            nativeQuery = true)
+    List<InventoryView> lockByEventId(@Param("eventId") Long eventId);
+
+    @Modifying
+    @Query("UPDATE EventTicketType ett SET ett.availableQuantity = :quantity " +
+            "WHERE ett.event.id = :eventId AND ett.ticketType.id = :ticketTypeId")
+    int setAvailableQuantity(@Param("eventId") Long eventId, @Param("ticketTypeId") Long ticketTypeId, @Param("quantity") int quantity);
+
+    @Query(value = "SELECT ett.id AS \"id\", tt.name AS \"name\", ett.price AS \"price\", " +
+            "CAST(ett.available_quantity + " + SLOT_TOTAL + " AS INTEGER) AS \"available\" " +
+            "FROM event_ticket_types ett JOIN ticket_types tt ON tt.id = ett.ticket_type_id " +
+            "WHERE ett.event_id = :eventId ORDER BY ett.price, ett.id",
+            nativeQuery = true)
+    List<TicketTypeView> findTicketTypesByEventId(@Param("eventId") Long eventId);
+
+    @Query(value = "SELECT ett.event_id AS \"eventId\", ett.id AS \"id\", " +
+            "CAST(ett.available_quantity + " + SLOT_TOTAL + " AS INTEGER) AS \"available\" " +
+            "FROM event_ticket_types ett WHERE ett.event_id IN (:eventIds)",
+            nativeQuery = true)
+    List<TicketTypeAvailabilityView> findAvailabilityByEventIds(@Param("eventIds") Collection<Long> eventIds);
+
+    interface TicketTypeView {
+        Long getId();
+        String getName();
+        BigDecimal getPrice();
+        Integer getAvailable();
+    }
+
+    @Query(value = "SELECT ett.event_id AS \"eventId\", ett.ticket_type_id AS \"ticketTypeId\", ett.price AS \"price\", " +
+            "CAST(ett.available_quantity + " + SLOT_TOTAL + " AS INTEGER) AS \"available\" " +
+            "FROM event_ticket_types ett JOIN events e ON e.id = ett.event_id " +
+            "WHERE e.status = :status AND e.start_date >= :from",
+            nativeQuery = true)
+    List<FacetView> findFacetRows(@Param("status") String status, @Param("from") LocalDateTime from);
+
+    interface FacetView {
+        Long getEventId();
+        Long getTicketTypeId();
+        BigDecimal getPrice();
+        Integer getAvailable();
+    }
+
+    interface TicketTypeAvailabilityView {
+        Long getEventId();
+        Long getId();
+        Integer getAvailable();
+    }
+
+    interface InventoryView {
+        Long getEventId();
+        Long getTicketTypeId();
+        Integer getAvailable();
+    }
+}
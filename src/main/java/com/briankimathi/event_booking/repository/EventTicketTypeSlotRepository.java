@@ -0,0 +1,88 @@
+package com.briankimathi.event_booking.repository;
+
+import com.briankimathi.event_booking.domain.EventTicketTypeSlot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface EventTicketTypeSlotRepository extends JpaRepository<EventTicketTypeSlot, Long> {
+
+    /**
+     * Takes tickets from the first slot that has enough, starting at {@code offset} and
+     * skipping slots other buyers hold locked, so concurrent buyers spread over the slots.
+     * Zero rows means every slot was short or busy, not necessarily sold out.
+     */
+    @Modifying
+    @Query(value = "UPDATE event_ticket_type_slots SET available_quantity = available_quantity - :quantity " +
+            "WHERE id = (SELECT id FROM event_ticket_type_slots " +
+            "WHERE event_id = :eventId AND ticket_type_id = :ticketTypeId AND available_quantity >= :quantity " +
+            "ORDER BY (slot + :offset) % :shards LIMIT 1 FOR UPDATE SKIP LOCKED) " +
+            "AND available_quantity >= :quantity",
+            nativeQuery = true)
+    int decrementAnySlot(@Param("eventId") Long eventId, @Param("ticketTypeId") Long ticketTypeId,
+                         @Param("quantity") int quantity, @Param("offset") int offset, @Param("shards") int shards);
+
+    @Modifying
+    @Query(value = "UPDATE event_ticket_type_slots SET available_quantity = available_quantity - :quantity " +
+            "WHERE event_id = :eventId AND ticket_type_id = :ticketTypeId AND slot = :slot AND available_quantity >= :quantity",
+            nativeQuery = true)
+    int decrementSlot(@Param("eventId") Long eventId, @Param("ticketTypeId") Long ticketTypeId,
+                      @Param("slot") int slot, @Param("quantity") int quantity);
+
+    @Query(value = "SELECT slot AS \"slot\", available_quantity AS \"available\" FROM event_ticket_type_slots " +
+            "WHERE event_id = :eventId AND ticket_type_id = :ticketTypeId ORDER BY slot FOR UPDATE",
+            nativeQuery = true)
+    List<SlotView> lockSlots(@Param("eventId") Long eventId, @Param("ticketTypeId") Long ticketTypeId);
+
+    @Query(value = "SELECT ticket_type_id AS \"ticketTypeId\", slot AS \"slot\", available_quantity AS \"available\" " +
+            "FROM event_ticket_type_slots WHERE event_id = :eventId ORDER BY ticket_type_id, slot FOR UPDATE",
+            nativeQuery = true)
+    List<EventSlotView> lockEventSlots(@Param("eventId") Long eventId);
+
+    /**
+     * Spreads {@code total} evenly over slots 0..shards-1 of a ticket type; the first
+     * {@code total % shards} slots get one extra ticket. Slots must already be locked.
+     */
+    @Modifying
+    @Query(value = "UPDATE event_ticket_type_slots " +
+            "SET available_quantity = :total / :shards + CASE WHEN slot < :total % :shards THEN 1 ELSE 0 END " +
+            "WHERE event_id = :eventId AND ticket_type_id = :ticketTypeId",
+            nativeQuery = true)
+    int redistribute(@Param("eventId") Long eventId, @Param("ticketTypeId") Long ticketTypeId,
+                     @Param("total") int total, @Param("shards") int shards);
+
+    @Modifying
+    @Query(value = "INSERT INTO event_ticket_type_slots (event_id, ticket_type_id, slot, available_quantity) " +
+            "SELECT :eventId, :ticketTypeId, g, :total / :shards + CASE WHEN g < :total % :shards THEN 1 ELSE 0 END " +
+            "FROM generate_series(0, :shards - 1) AS g",
+            nativeQuery = true)
+    int createSlots(@Param("eventId") Long eventId, @Param("ticketTypeId") Long ticketTypeId,
+                    @Param("total") int total, @Param("shards") int shards);
+
+    @Modifying
+    @Query(value = "UPDATE event_ticket_type_slots SET available_quantity = available_quantity + :quantity " +
+            "WHERE event_id = :eventId AND ticket_type_id = :ticketTypeId AND slot = :slot",
+            nativeQuery = true)
+    int incrementSlot(@Param("eventId") Long eventId, @Param("ticketTypeId") Long ticketTypeId,
+                      @Param("slot") int slot, @Param("quantity") int quantity);
+
+    @Modifying
+    @Query("DELETE FROM EventTicketTypeSlot s WHERE s.eventId = :eventId")
+    int deleteByEventId(@Param("eventId") Long eventId);
+
+    interface SlotView {
+        Integer getSlot();
+        Integer getAvailable();
+    }
+
+    interface EventSlotView {
+        Long getTicketTypeId();
+        Integer getSlot();
+        Integer getAvailable();
+    }
+}
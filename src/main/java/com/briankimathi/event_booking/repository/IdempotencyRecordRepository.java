@@ -0,0 +1,49 @@
+package com.briankimathi.event_booking.repository;
+
+import com.briankimathi.event_booking.domain.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, Long> {
+
+    Optional<IdempotencyRecord> findByIdempotencyKey(String idempotencyKey);
+
+    /**
+     * Claims the key for a new request. A row left behind by an expired key, or by a claim
+     * whose lease ran out without an answer, is taken over; a live one is left alone and 0
+     * is returned.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO idempotency_keys (idempotency_key, request_hash, expires_at, in_progress_until, created_at) " +
+            "VALUES (:key, :requestHash, :expiresAt, :inProgressUntil, CURRENT_TIMESTAMP) " +
+            "ON CONFLICT (idempotency_key) DO UPDATE SET request_hash = EXCLUDED.request_hash, " +
+            "status_code = NULL, content_type = NULL, response_body = NULL, " +
+            "expires_at = EXCLUDED.expires_at, in_progress_until = EXCLUDED.in_progress_until, created_at = EXCLUDED.created_at " +
+            "WHERE idempotency_keys.expires_at <= :now " +
+            "OR (idempotency_keys.status_code IS NULL AND idempotency_keys.in_progress_until <= :now)",
+            nativeQuery = true)
+    int claim(@Param("key") String key, @Param("requestHash") String requestHash,
+              @Param("expiresAt") LocalDateTime expiresAt, @Param("inProgressUntil") LocalDateTime inProgressUntil,
+              @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.statusCode = :statusCode, r.contentType = :contentType, " +
+            "r.responseBody = :responseBody WHERE r.idempotencyKey = :key AND r.statusCode IS NULL")
+    int complete(@Param("key") String key, @Param("statusCode") int statusCode,
+                 @Param("contentType") String contentType, @Param("responseBody") String responseBody);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.idempotencyKey = :key AND r.statusCode IS NULL")
+    int release(@Param("key") String key);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt <= :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -0,0 +1,39 @@
+package com.briankimathi.event_booking.repository;
+
+import com.briankimathi.event_booking.domain.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, Long> {
+    boolean existsByTokenKey(String tokenKey);
+
+    @Query("SELECT r.id AS id, r.tokenKey AS tokenKey, r.createdAt AS createdAt FROM RevokedToken r WHERE r.expiresAt > :now")
+    List<RevokedKeyView> findActiveKeys(@Param("now") LocalDateTime now);
+
+    @Query("SELECT r.id AS id, r.tokenKey AS tokenKey, r.createdAt AS createdAt FROM RevokedToken r " +
+            "WHERE r.expiresAt > :now AND r.createdAt >= :since")
+    List<RevokedKeyView> findActiveKeysCreatedSince(@Param("now") LocalDateTime now, @Param("since") LocalDateTime since);
+
+    @Modifying
+    @Query(value = "INSERT INTO revoked_tokens (token_key, user_id, expires_at, created_at) " +
+            "VALUES (:tokenKey, :userId, :expiresAt, CURRENT_TIMESTAMP) ON CONFLICT (token_key) DO NOTHING",
+            nativeQuery = true)
+    int insertIfAbsent(@Param("tokenKey") String tokenKey, @Param("userId") Long userId, @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Modifying
+    @Query("DELETE FROM RevokedToken r WHERE r.expiresAt <= :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+
+    interface RevokedKeyView {
+        Long getId();
+        String getTokenKey();
+        LocalDateTime getCreatedAt();
+    }
+}
@@ -2,17 +2,132 @@ package com.briankimathi.event_booking.repository;
 
 import com.briankimathi.event_booking.domain.TicketPurchase;
 import com.briankimathi.event_booking.domain.enums.PurchaseStatus;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface TicketPurchaseRepository extends JpaRepository<TicketPurchase, Long> {
+    // Fetch plans: a purchase is shown with its event and ticket type, and the inverse
+    // one-to-ones (payment transaction, the event's commission) are joined rather than
+    // selected once per row. A creator's view of one event already has the event.
+    @EntityGraph(attributePaths = {"event", "event.commission", "ticketType", "paymentTransaction"})
     Optional<TicketPurchase> findByPurchaseCode(String purchaseCode);
+    boolean existsByPurchaseCode(String purchaseCode);
+    @EntityGraph(attributePaths = {"event", "event.commission", "ticketType", "paymentTransaction"})
     List<TicketPurchase> findByUserId(Long userId);
+    @EntityGraph(attributePaths = {"ticketType", "paymentTransaction"})
     List<TicketPurchase> findByEventId(Long eventId);
+    @EntityGraph(attributePaths = {"event", "event.commission", "ticketType", "paymentTransaction"})
     List<TicketPurchase> findByUserIdAndStatus(Long userId, PurchaseStatus status);
+    @EntityGraph(attributePaths = {"ticketType", "paymentTransaction"})
     List<TicketPurchase> findByEventIdAndStatus(Long eventId, PurchaseStatus status);
+
+    /**
+     * Locks a batch of purchases whose inventory effect has not been written back yet.
+     * SKIP LOCKED lets concurrent flushes take disjoint batches.
+     */
+    @Query(value = "SELECT id AS \"id\", event_id AS \"eventId\", ticket_type_id AS \"ticketTypeId\", " +
+            "quantity AS \"quantity\", status AS \"status\" " +
+            "FROM ticket_purchases WHERE inventory_synced = FALSE ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<UnsyncedInventoryView> lockUnsyncedInventory(@Param("limit") int limit);
+
+    @Modifying
+    @Query("UPDATE TicketPurchase p SET p.inventorySynced = true WHERE p.id IN :ids")
+    int markInventorySynced(@Param("ids") List<Long> ids);
+
+    @Query("SELECT p.id AS id, p.purchaseDate AS purchaseDate FROM TicketPurchase p WHERE p.status = :status")
+    List<PendingHoldView> findHoldsByStatus(@Param("status") PurchaseStatus status);
+
+    @Query(value = "SELECT id AS \"id\", event_id AS \"eventId\", ticket_type_id AS \"ticketTypeId\", quantity AS \"quantity\" " +
+            "FROM ticket_purchases WHERE id IN (:ids) AND status = 'PENDING' ORDER BY id FOR UPDATE",
+            nativeQuery = true)
+    List<HoldView> lockPendingHolds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Cancels the given PENDING purchases. With a write-behind inventory the sync flag is
+     * flipped: an unflushed purchase cancels out, a flushed one now owes a release.
+     */
+    @Modifying
+    @Query(value = "UPDATE ticket_purchases SET status = 'CANCELLED', updated_at = CURRENT_TIMESTAMP, " +
+            "inventory_synced = CASE WHEN :writeBehind THEN NOT inventory_synced ELSE inventory_synced END " +
+            "WHERE id IN (:ids) AND status = 'PENDING'",
+            nativeQuery = true)
+    int cancelPending(@Param("ids") Collection<Long> ids, @Param("writeBehind") boolean writeBehind);
+
+    @Query(value = "SELECT id AS \"id\", purchase_code AS \"purchaseCode\", checked_in_at IS NOT NULL AS \"checkedIn\" " +
+            "FROM ticket_purchases WHERE event_id = :eventId AND status = 'COMPLETED'",
+            nativeQuery = true)
+    List<CheckInView> findCheckInRows(@Param("eventId") Long eventId);
+
+    @Modifying
+    @Query(value = "UPDATE ticket_purchases SET checked_in_at = :checkedInAt " +
+            "WHERE id IN (:ids) AND checked_in_at IS NULL",
+            nativeQuery = true)
+    int markCheckedIn(@Param("ids") Collection<Long> ids, @Param("checkedInAt") LocalDateTime checkedInAt);
+
+    @Modifying
+    @Query(value = "UPDATE ticket_purchases SET checked_in_at = CURRENT_TIMESTAMP " +
+            "WHERE purchase_code = :purchaseCode AND event_id = :eventId AND status = 'COMPLETED' AND checked_in_at IS NULL",
+            nativeQuery = true)
+    int checkInByCode(@Param("eventId") Long eventId, @Param("purchaseCode") String purchaseCode);
+
+    boolean existsByPurchaseCodeAndEventIdAndStatus(String purchaseCode, Long eventId, PurchaseStatus status);
+
+    @Query("SELECT p.purchaseCode AS purchaseCode, p.status AS status, p.quantity AS quantity, " +
+            "p.totalAmount AS totalAmount, p.buyerEmail AS buyerEmail, p.purchaseDate AS purchaseDate, " +
+            "p.updatedAt AS updatedAt, e.title AS eventTitle, e.startDate AS eventDate, e.venue AS venue, " +
+            "t.name AS ticketTypeName " +
+            "FROM TicketPurchase p JOIN p.event e JOIN p.ticketType t WHERE p.purchaseCode = :purchaseCode")
+    Optional<ReceiptView> findReceiptByPurchaseCode(@Param("purchaseCode") String purchaseCode);
+
+    interface ReceiptView {
+        String getPurchaseCode();
+        PurchaseStatus getStatus();
+        Integer getQuantity();
+        BigDecimal getTotalAmount();
+        String getBuyerEmail();
+        LocalDateTime getPurchaseDate();
+        LocalDateTime getUpdatedAt();
+        String getEventTitle();
+        LocalDateTime getEventDate();
+        String getVenue();
+        String getTicketTypeName();
+    }
+
+    interface CheckInView {
+        Long getId();
+        String getPurchaseCode();
+        Boolean getCheckedIn();
+    }
+
+    interface PendingHoldView {
+        Long getId();
+        LocalDateTime getPurchaseDate();
+    }
+
+    interface HoldView {
+        Long getId();
+        Long getEventId();
+        Long getTicketTypeId();
+        Integer getQuantity();
+    }
+
+    interface UnsyncedInventoryView {
+        Long getId();
+        Long getEventId();
+        Long getTicketTypeId();
+        Integer getQuantity();
+        String getStatus();
+    }
 }
@@ -0,0 +1,35 @@
+package com.briankimathi.event_booking.repository;
+
+import com.briankimathi.event_booking.domain.UsedAdmission;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface UsedAdmissionRepository extends JpaRepository<UsedAdmission, Long> {
+
+    // Purchases run outside a transaction (they are group-committed), so these carry their own
+
+    /** Spends an admission; 0 means it was spent already. */
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO used_admissions (signature, expires_at) VALUES (:signature, :expiresAt) " +
+            "ON CONFLICT (signature) DO NOTHING",
+            nativeQuery = true)
+    int markUsed(@Param("signature") String signature, @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM UsedAdmission a WHERE a.signature = :signature")
+    int release(@Param("signature") String signature);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM UsedAdmission a WHERE a.expiresAt <= :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -6,6 +6,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
@@ -16,15 +17,32 @@ import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
+    private final UserDetailsCache userDetailsCache;
 
     @Override
-    @Transactional(readOnly = true)
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found with email: {}" + email));
+        return userDetailsCache.get(email, this::loadFromDatabase);
+    }
+
+    // Called by the authentication provider when the stored hash needs re-encoding
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userRepository.updatePassword(user.getUsername(), newPassword);
+        userDetailsCache.evict(user.getUsername());
+
+        SecurityUser securityUser = (SecurityUser) user;
+        securityUser.setPassword(newPassword);
+        return securityUser;
+    }
+
+    private SecurityUser loadFromDatabase(String email) {
+        // Roles are fetched in the same query, so no transaction is needed to walk them
+        User user = userRepository.findByEmailWithRoles(email)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
 
         return SecurityUser.builder()
                 .id(user.getId())
@@ -35,6 +53,7 @@ public class CustomUserDetailsService implements UserDetailsService {
                 .accountNonLocked(!user.getIsSuspended())
                 .credentialsNonExpired(true)
                 .enabled(user.getIsActive() && !user.getIsSuspended())
+                .suspensionEpoch(user.getSuspensionEpoch())
                 .build();
 
     }
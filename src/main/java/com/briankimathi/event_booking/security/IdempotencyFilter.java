@@ -0,0 +1,270 @@
+package com.briankimathi.event_booking.security;
+
+import com.briankimathi.event_booking.config.IdempotencyConfig;
+import com.briankimathi.event_booking.service.IdempotencyService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Makes POSTs to the {@code app.idempotency.paths} endpoints safe to retry. A request that
+ * carries an {@code Idempotency-Key} header runs once per caller and key; a retry gets the
+ * stored response back (marked {@code Idempotent-Replayed: true}) without running again.
+ * Requests without the header are untouched.
+ *
+ * Runs after authentication so keys are scoped to the signed-in user. Responses that may
+ * change on retry (401, 403, 408, 409, 429 and 5xx) are not kept; a request that timed out
+ * waiting for the purchase batch withdrew its purchase, so its 503 releases the key too.
+ * Bodies are fingerprinted in memory and capped at {@code app.idempotency.max-body-size}.
+ */
+@Slf4j
+@Component
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final byte[] IN_PROGRESS_BODY =
+            "{\"message\":\"A request with this Idempotency-Key is still being processed\"}".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] TOO_LARGE_BODY =
+            "{\"message\":\"Request body is too large\"}".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] MISMATCH_BODY =
+            "{\"message\":\"Idempotency-Key was already used for a different request\"}".getBytes(StandardCharsets.UTF_8);
+
+    private final IdempotencyService idempotencyService;
+    private final IdempotencyConfig idempotencyConfig;
+    private final List<PathPattern> paths;
+    private final byte[] invalidKeyBody;
+
+    public IdempotencyFilter(IdempotencyService idempotencyService, IdempotencyConfig idempotencyConfig) {
+        this.idempotencyService = idempotencyService;
+        this.idempotencyConfig = idempotencyConfig;
+
+        PathPatternParser parser = new PathPatternParser();
+        this.paths = idempotencyConfig.getPaths().stream().map(parser::parse).toList();
+        this.invalidKeyBody = ("{\"message\":\"" + HEADER + " must be 1 to " + idempotencyConfig.getMaxKeyLength()
+                + " characters\"}").getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if(!idempotencyConfig.isEnabled()
+                || !HttpMethod.POST.matches(request.getMethod())
+                || request.getHeader(HEADER) == null) {
+            return true;
+        }
+
+        PathContainer path = PathContainer.parsePath(request.getRequestURI().substring(request.getContextPath().length()));
+        return paths.stream().noneMatch(pattern -> pattern.matches(path));
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain
+    ) throws ServletException, IOException {
+
+        String clientKey = request.getHeader(HEADER).trim();
+        if(clientKey.isEmpty() || clientKey.length() > idempotencyConfig.getMaxKeyLength()) {
+            write(response, HttpServletResponse.SC_BAD_REQUEST, invalidKeyBody);
+            return;
+        }
+
+        long maxBodySize = idempotencyConfig.getMaxBodySize().toBytes();
+        if(request.getContentLengthLong() > maxBodySize) {
+            write(response, HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE, TOO_LARGE_BODY);
+            return;
+        }
+        // Chunked bodies carry no length, so the cap is also applied while reading
+        byte[] body = request.getInputStream().readNBytes((int) maxBodySize + 1);
+        if(body.length > maxBodySize) {
+            write(response, HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE, TOO_LARGE_BODY);
+            return;
+        }
+        String key = scope() + ":" + clientKey;
+        String requestHash = fingerprint(request, body);
+
+        IdempotencyService.Claim claim = idempotencyService.claim(key, requestHash);
+        switch(claim.outcome()) {
+            case REPLAY -> replay(response, claim.response());
+            case IN_PROGRESS -> {
+                response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(idempotencyConfig.getRetryAfterSeconds()));
+                write(response, HttpServletResponse.SC_CONFLICT, IN_PROGRESS_BODY);
+            }
+            case MISMATCH -> write(response, 422, MISMATCH_BODY);
+            case PROCEED -> proceed(new CachedBodyRequest(request, body), response, filterChain, key, requestHash);
+        }
+    }
+
+    private void proceed(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain,
+            String key,
+            String requestHash
+    ) throws ServletException, IOException {
+
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        boolean answered = false;
+        try {
+            filterChain.doFilter(request, wrapper);
+            answered = true;
+        } finally {
+            try {
+                int status = wrapper.getStatus();
+                if(answered && isFinal(status)) {
+                    idempotencyService.complete(key, requestHash, status, wrapper.getContentType(), wrapper.getContentAsByteArray());
+                } else {
+                    idempotencyService.release(key);
+                }
+            } catch (RuntimeException ex) {
+                // The outcome is unknown to the key: a retry is turned away until the claim's
+                // lease runs out rather than for the key's whole lifetime
+                log.error("Could not record the response for idempotency key {}", key, ex);
+                idempotencyService.forget(key);
+            } finally {
+                wrapper.copyBodyToResponse();
+            }
+        }
+    }
+
+    private static boolean isFinal(int status) {
+        return status >= 200 && status < 500
+                && status != HttpServletResponse.SC_UNAUTHORIZED
+                && status != HttpServletResponse.SC_FORBIDDEN
+                && status != HttpServletResponse.SC_REQUEST_TIMEOUT
+                && status != HttpServletResponse.SC_CONFLICT
+                && status != 429;
+    }
+
+    private static String scope() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if(authentication != null && authentication.getPrincipal() instanceof SecurityUser user) {
+            return "user:" + user.getId();
+        }
+        return "guest";
+    }
+
+    private static String fingerprint(HttpServletRequest request, byte[] body) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((request.getMethod() + " " + request.getRequestURI() + "\n").getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest(body));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static void replay(HttpServletResponse response, IdempotencyService.StoredResponse stored) throws IOException {
+        response.setStatus(stored.statusCode());
+        response.setHeader(REPLAYED_HEADER, "true");
+        if(stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        response.setContentLength(stored.body().length);
+        response.getOutputStream().write(stored.body());
+    }
+
+    private static void write(HttpServletResponse response, int status, byte[] body) throws IOException {
+        response.setStatus(status);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    /** Replays the body read for fingerprinting to the controller. */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    // Everything is already in memory, so it is all available at once
+                    try {
+                        if(!isFinished()) {
+                            listener.onDataAvailable();
+                        }
+                        if(isFinished()) {
+                            listener.onAllDataRead();
+                        }
+                    } catch (IOException ex) {
+                        listener.onError(ex);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                    encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.briankimathi.event_booking.security;
 
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -23,6 +24,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenProvider tokenProvider;
     private final UserDetailsService userDetailsService;
+    private final TokenRevocationService tokenRevocationService;
 
     @Override
     protected void doFilterInternal(
@@ -34,22 +36,21 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String jwt = getJwtFromRequest(request);
 
-            if(
-                    StringUtils.hasText(jwt) && tokenProvider.validateToken(
-                            jwt, userDetailsService.loadUserByUsername(tokenProvider.extractUsername(jwt))
-                    )
-            ) {
-                String username = tokenProvider.extractUsername(jwt);
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-
-                UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(
-                        userDetails,
-                        null,
-                        userDetails.getAuthorities()
-                );
-
-                authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(authenticationToken);
+            if(StringUtils.hasText(jwt)) {
+                // Parsing verifies signature and expiry, so the token is only read once per request
+                Claims claims = tokenProvider.extractAllClaims(jwt);
+                UserDetails userDetails = resolveUser(claims);
+
+                if(userDetails.isEnabled() && !tokenRevocationService.isRevoked(claims)) {
+                    UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(
+                            userDetails,
+                            null,
+                            userDetails.getAuthorities()
+                    );
+
+                    authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                    SecurityContextHolder.getContext().setAuthentication(authenticationToken);
+                }
             }
         } catch (Exception ex) {
             logger.error("Could not set user authentication in security context: {}", ex);
@@ -59,6 +60,14 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     }
 
+    private UserDetails resolveUser(Claims claims) {
+        if(tokenProvider.isStateless() && tokenProvider.hasPrincipalClaims(claims)) {
+            return tokenProvider.toSecurityUser(claims);
+        }
+
+        return userDetailsService.loadUserByUsername(claims.getSubject());
+    }
+
     private String getJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
 
@@ -0,0 +1,96 @@
+package com.briankimathi.event_booking.security;
+
+import com.briankimathi.event_booking.config.JwtConfig;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.security.Keys;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Signing keys and their verifying parsers, built once from configuration and selected
+ * by the token's {@code kid} header. {@code jwt.secret} stays registered as the
+ * {@value #DEFAULT_KID} key so tokens minted before rotation keep verifying.
+ */
+@Component
+public class JwtKeyring {
+
+    public static final String DEFAULT_KID = "default";
+
+    private final Map<String, Entry> entries;
+    private final Entry signingEntry;
+
+    public JwtKeyring(JwtConfig jwtConfig) {
+        Map<String, Entry> built = new HashMap<>();
+        built.put(DEFAULT_KID, Entry.of(DEFAULT_KID, jwtConfig.getSecret()));
+
+        for(JwtConfig.SigningKey key : jwtConfig.getKeys()) {
+            built.put(key.getKid(), Entry.of(key.getKid(), key.getSecret()));
+        }
+
+        String activeKid = StringUtils.hasText(jwtConfig.getActiveKid()) ? jwtConfig.getActiveKid() : DEFAULT_KID;
+        if(!built.containsKey(activeKid)) {
+            throw new IllegalStateException("jwt.active-kid '" + activeKid + "' has no matching entry in jwt.keys");
+        }
+
+        this.entries = Collections.unmodifiableMap(built);
+        this.signingEntry = built.get(activeKid);
+    }
+
+    public Entry signingEntry() {
+        return signingEntry;
+    }
+
+    public Entry entryFor(String token) {
+        if(entries.size() == 1) {
+            return signingEntry;
+        }
+
+        String kid = readKid(token);
+        Entry entry = entries.get(kid != null ? kid : DEFAULT_KID);
+
+        if(entry == null) {
+            throw new MalformedJwtException("Unknown signing key id: " + kid);
+        }
+
+        return entry;
+    }
+
+    // Only the kid is needed to pick a parser; the header is verified with the rest of the token
+    private static String readKid(String token) {
+        int dot = token.indexOf('.');
+        if(dot <= 0) {
+            throw new MalformedJwtException("JWT is missing its header");
+        }
+
+        String header = new String(Base64.getUrlDecoder().decode(token.substring(0, dot)), StandardCharsets.UTF_8);
+        int field = header.indexOf("\"kid\"");
+        if(field < 0) {
+            return null;
+        }
+
+        int start = header.indexOf('"', header.indexOf(':', field) + 1);
+        int end = start < 0 ? -1 : header.indexOf('"', start + 1);
+        if(end < 0) {
+            throw new MalformedJwtException("Malformed kid header");
+        }
+
+        return header.substring(start + 1, end);
+    }
+
+    public record Entry(String kid, SecretKey key, JwtParser parser) {
+
+        static Entry of(String kid, String secret) {
+            SecretKey key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+            return new Entry(kid, key, Jwts.parser().verifyWith(key).build());
+        }
+    }
+}
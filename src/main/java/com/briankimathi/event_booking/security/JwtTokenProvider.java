@@ -2,27 +2,57 @@ package com.briankimathi.event_booking.security;
 
 import com.briankimathi.event_booking.config.JwtConfig;
 import io.jsonwebtoken.Claims;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.security.Keys;
-import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
-import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 
 @Component
-@RequiredArgsConstructor
 public class JwtTokenProvider {
 
-    private final JwtConfig jwtConfig;
+    public static final String CLAIM_USER_ID = "userId";
+    public static final String CLAIM_EMAIL = "email";
+    public static final String CLAIM_ROLES = "roles";
+    public static final String CLAIM_SUSPENSION_EPOCH = "sep";
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    });
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtConfig.getSecret().getBytes(StandardCharsets.UTF_8));
+    private final JwtConfig jwtConfig;
+    private final JwtKeyring keyring;
+
+    // Token digest -> verified claims, kept no longer than the token itself is valid
+    private final Cache<String, Claims> verifiedTokens;
+
+    public JwtTokenProvider(JwtConfig jwtConfig, JwtKeyring keyring) {
+        this.jwtConfig = jwtConfig;
+        this.keyring = keyring;
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(jwtConfig.getVerifiedCacheSize())
+                .expireAfter(Expiry.<String, Claims>creating((digest, claims) -> timeToExpiry(claims)))
+                .build();
     }
 
     public String extractUsername(String token) {
@@ -39,13 +69,36 @@ public class JwtTokenProvider {
     }
 
     public Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
+        String digest = digest(token);
+        Claims cached = verifiedTokens.getIfPresent(digest);
+        if(cached != null) {
+            return cached;
+        }
+
+        Claims claims = verify(token);
+        verifiedTokens.put(digest, claims);
+        return claims;
+    }
+
+    private Claims verify(String token) {
+        return keyring.entryFor(token)
+                .parser()
                 .parseSignedClaims(token)
                 .getPayload();
     }
 
+    private static Duration timeToExpiry(Claims claims) {
+        Date expiration = claims.getExpiration();
+        return expiration == null
+                ? Duration.ZERO
+                : Duration.ofMillis(Math.max(0, expiration.getTime() - System.currentTimeMillis()));
+    }
+
+    private static String digest(String token) {
+        byte[] hash = SHA_256.get().digest(token.getBytes(StandardCharsets.UTF_8));
+        return Base64.getEncoder().encodeToString(hash);
+    }
+
     private Boolean isTokenExpired(String token) {
         return extractExpiration(token).before(new Date());
     }
@@ -64,15 +117,61 @@ public class JwtTokenProvider {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + jwtConfig.getExpiration());
 
+        JwtKeyring.Entry signingEntry = keyring.signingEntry();
+
         return Jwts.builder()
-                .setClaims(claims)
+                .header().keyId(signingEntry.kid()).and()
+                .claims(claims)
                 .subject(subject)
+                .id(UUID.randomUUID().toString())
                 .issuedAt(now)
                 .expiration(expiryDate)
-                .signWith(getSigningKey())
+                .signWith(signingEntry.key())
                 .compact();
     }
 
+    public Map<String, Object> buildPrincipalClaims(SecurityUser user) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(CLAIM_USER_ID, user.getId());
+        claims.put(CLAIM_EMAIL, user.getEmail());
+        claims.put(CLAIM_ROLES, user.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList());
+        claims.put(CLAIM_SUSPENSION_EPOCH, user.getSuspensionEpoch());
+        return claims;
+    }
+
+    /**
+     * Tokens minted before roles were embedded cannot be trusted on their own,
+     * so callers fall back to loading the user for those.
+     */
+    public boolean hasPrincipalClaims(Claims claims) {
+        return claims.get(CLAIM_USER_ID) != null && claims.get(CLAIM_ROLES) instanceof Collection<?>;
+    }
+
+    public SecurityUser toSecurityUser(Claims claims) {
+        Collection<?> roles = claims.get(CLAIM_ROLES, Collection.class);
+        List<SimpleGrantedAuthority> authorities = roles.stream()
+                .map(role -> new SimpleGrantedAuthority(role.toString()))
+                .toList();
+        Number epoch = claims.get(CLAIM_SUSPENSION_EPOCH, Number.class);
+
+        return SecurityUser.builder()
+                .id(claims.get(CLAIM_USER_ID, Number.class).longValue())
+                .email(claims.getSubject())
+                .authorities(authorities)
+                .suspensionEpoch(epoch != null ? epoch.intValue() : 0)
+                .accountNonExpired(true)
+                .accountNonLocked(true)
+                .credentialsNonExpired(true)
+                .enabled(true)
+                .build();
+    }
+
+    public boolean isStateless() {
+        return jwtConfig.isStateless();
+    }
+
     public Boolean validateToken(String token, UserDetails userDetails) {
         final String username = extractUsername(token);
         return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
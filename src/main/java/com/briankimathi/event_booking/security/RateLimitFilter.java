@@ -0,0 +1,151 @@
+package com.briankimathi.event_booking.security;
+
+import com.briankimathi.event_booking.config.RateLimitConfig;
+import io.jsonwebtoken.JwtException;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies the first matching {@code app.rate-limit.routes} limit before any authentication
+ * work is done. Rejections are written directly from a pre-encoded body. USER routes are
+ * keyed on the subject of a verified token (verification results are cached by the token
+ * provider, so this is normally a lookup); anything else falls back to the client address.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final byte[] REJECTED_BODY =
+            "{\"message\":\"Too many requests, please retry later\"}".getBytes(StandardCharsets.UTF_8);
+
+    private final boolean enabled;
+    private final List<CompiledRoute> routes;
+    private final TokenBucketTable buckets;
+    private final JwtTokenProvider tokenProvider;
+
+    public RateLimitFilter(RateLimitConfig rateLimitConfig, JwtTokenProvider tokenProvider) {
+        this.tokenProvider = tokenProvider;
+        this.enabled = rateLimitConfig.isEnabled();
+        this.buckets = new TokenBucketTable(
+                rateLimitConfig.getStripes(),
+                rateLimitConfig.getMaxEntriesPerStripe(),
+                rateLimitConfig.getIdleTimeout().toNanos()
+        );
+
+        PathPatternParser parser = new PathPatternParser();
+        List<CompiledRoute> compiled = new ArrayList<>();
+        List<RateLimitConfig.Route> configured = rateLimitConfig.getRoutes();
+        for(int i = 0; i < configured.size(); i++) {
+            RateLimitConfig.Route route = configured.get(i);
+            compiled.add(new CompiledRoute(
+                    i + ":",
+                    parser.parse(route.getPattern()),
+                    route.getMethod(),
+                    route.getCapacity(),
+                    Math.max(1, route.getPeriod().toNanos() / route.getCapacity()),
+                    route.getKey()
+            ));
+        }
+        this.routes = List.copyOf(compiled);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || routes.isEmpty();
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain
+    ) throws ServletException, IOException {
+
+        CompiledRoute route = match(request);
+        if(route == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long result = buckets.tryAcquire(
+                route.keyPrefix() + clientKey(request, route.key()),
+                route.capacity(),
+                route.emissionIntervalNanos(),
+                System.nanoTime()
+        );
+
+        response.setHeader("X-RateLimit-Limit", Integer.toString(route.capacity()));
+
+        if(result < 0) {
+            long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(-result - 1 + 999_999_999L));
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader("X-RateLimit-Remaining", "0");
+            response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.setContentLength(REJECTED_BODY.length);
+            response.getOutputStream().write(REJECTED_BODY);
+            return;
+        }
+
+        response.setHeader("X-RateLimit-Remaining", Long.toString(result));
+        filterChain.doFilter(request, response);
+    }
+
+    @Scheduled(fixedDelayString = "${app.rate-limit.sweep-interval-ms:60000}")
+    public void evictIdleBuckets() {
+        buckets.evictIdle(System.nanoTime());
+    }
+
+    private CompiledRoute match(HttpServletRequest request) {
+        PathContainer path = PathContainer.parsePath(request.getRequestURI().substring(request.getContextPath().length()));
+        String method = request.getMethod();
+
+        for(CompiledRoute route : routes) {
+            if((route.method() == null || route.method().equalsIgnoreCase(method)) && route.pattern().matches(path)) {
+                return route;
+            }
+        }
+        return null;
+    }
+
+    private String clientKey(HttpServletRequest request, RateLimitConfig.KeyType keyType) {
+        if(keyType == RateLimitConfig.KeyType.USER) {
+            // Only a verified token names a user: anything a client can vary freely would
+            // hand it a fresh bucket per request
+            String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+            if(header != null && header.startsWith("Bearer ")) {
+                try {
+                    return "u:" + tokenProvider.extractAllClaims(header.substring(7)).getSubject();
+                } catch (JwtException | IllegalArgumentException ex) {
+                    // Invalid or expired: limited by address like any anonymous caller
+                }
+            }
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private record CompiledRoute(
+            String keyPrefix,
+            PathPattern pattern,
+            String method,
+            int capacity,
+            long emissionIntervalNanos,
+            RateLimitConfig.KeyType key
+    ) {}
+}
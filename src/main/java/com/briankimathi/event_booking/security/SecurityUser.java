@@ -24,6 +24,7 @@ public class SecurityUser implements UserDetails {
     private boolean accountNonLocked;
     private boolean credentialsNonExpired;
     private boolean enabled;
+    private Integer suspensionEpoch;
 
     @Override
     public String getUsername() {
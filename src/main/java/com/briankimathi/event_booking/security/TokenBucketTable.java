@@ -0,0 +1,109 @@
+package com.briankimathi.event_booking.security;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token buckets stored as a single "theoretical arrival time" per key (GCRA), so taking a
+ * token is one CAS and a bucket costs one AtomicLong. Keys are spread over independent
+ * stripes, each capped in size; idle buckets (fully refilled for longer than the idle
+ * timeout) are swept out. A stripe that is full of active buckets makes room by evicting the
+ * most refilled of a small sample, so a flood of new keys can never switch limiting off.
+ */
+class TokenBucketTable {
+
+    private static final int EVICTION_SAMPLE = 8;
+
+    private final ConcurrentHashMap<String, AtomicLong>[] stripes;
+    private final int maxEntriesPerStripe;
+    private final long idleNanos;
+
+    @SuppressWarnings("unchecked")
+    TokenBucketTable(int stripeCount, int maxEntriesPerStripe, long idleNanos) {
+        this.stripes = new ConcurrentHashMap[stripeCount];
+        for(int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ConcurrentHashMap<>();
+        }
+        this.maxEntriesPerStripe = maxEntriesPerStripe;
+        this.idleNanos = idleNanos;
+    }
+
+    /**
+     * @return remaining tokens (>= 0) when allowed, otherwise the negated nanoseconds
+     *         until the next token, minus one so that zero is never a rejection
+     */
+    long tryAcquire(String key, int capacity, long emissionIntervalNanos, long now) {
+        AtomicLong bucket = bucketFor(key, now);
+        long burst = capacity * emissionIntervalNanos;
+        while(true) {
+            long tat = bucket.get();
+            long newTat = Math.max(tat, now) + emissionIntervalNanos;
+            long allowAt = newTat - burst;
+
+            if(now < allowAt) {
+                return -(allowAt - now) - 1;
+            }
+
+            if(bucket.compareAndSet(tat, newTat)) {
+                return (now - allowAt) / emissionIntervalNanos;
+            }
+        }
+    }
+
+    void evictIdle(long now) {
+        for(ConcurrentHashMap<String, AtomicLong> stripe : stripes) {
+            evictIdle(stripe, now);
+        }
+    }
+
+    int size() {
+        int size = 0;
+        for(ConcurrentHashMap<String, AtomicLong> stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    private AtomicLong bucketFor(String key, long now) {
+        ConcurrentHashMap<String, AtomicLong> stripe = stripes[(key.hashCode() & Integer.MAX_VALUE) % stripes.length];
+        AtomicLong bucket = stripe.get(key);
+        if(bucket != null) {
+            return bucket;
+        }
+
+        if(stripe.size() >= maxEntriesPerStripe) {
+            evictIdle(stripe, now);
+            while(stripe.size() >= maxEntriesPerStripe) {
+                evictOldest(stripe);
+            }
+        }
+
+        return stripe.computeIfAbsent(key, k -> new AtomicLong(now));
+    }
+
+    private void evictIdle(ConcurrentHashMap<String, AtomicLong> stripe, long now) {
+        stripe.entrySet().removeIf(entry -> now - entry.getValue().get() > idleNanos);
+    }
+
+    // The bucket with the earliest arrival time has the most tokens back, so forgetting it
+    // gives its client the least it did not already have
+    private void evictOldest(ConcurrentHashMap<String, AtomicLong> stripe) {
+        String oldest = null;
+        long oldestTat = Long.MAX_VALUE;
+        int sampled = 0;
+        for(Map.Entry<String, AtomicLong> entry : stripe.entrySet()) {
+            long tat = entry.getValue().get();
+            if(tat < oldestTat) {
+                oldest = entry.getKey();
+                oldestTat = tat;
+            }
+            if(++sampled == EVICTION_SAMPLE) {
+                break;
+            }
+        }
+        if(oldest != null) {
+            stripe.remove(oldest);
+        }
+    }
+}
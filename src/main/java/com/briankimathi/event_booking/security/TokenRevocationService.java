@@ -0,0 +1,181 @@
+package com.briankimathi.event_booking.security;
+
+import com.briankimathi.event_booking.config.JwtConfig;
+import com.briankimathi.event_booking.repository.RevokedTokenRepository;
+import com.briankimathi.event_booking.util.BloomFilter;
+import io.jsonwebtoken.Claims;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Denylist of tokens revoked before their expiry. Every authenticated request asks
+ * {@link #isRevoked}; the Bloom filter answers "definitely not" without touching the
+ * database, and only a (rare) positive is confirmed against revoked_tokens.
+ *
+ * Revocations made on other nodes reach this node's filter on the next sync. created_at is
+ * the inserting transaction's start time, so a row can commit after rows stamped later than
+ * it; each sync therefore re-reads jwt.revocation.sync-overlap behind the newest created_at
+ * it has seen, and skips the rows it already added.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TokenRevocationService {
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final JwtConfig jwtConfig;
+
+    // Replaced whole by rebuild(), so readers never see a filter that is still being filled
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${jwt.revocation.rebuild-interval-ms:3600000}", initialDelayString = "${jwt.revocation.rebuild-interval-ms:3600000}")
+    @Transactional
+    public void rebuild() {
+        LocalDateTime now = LocalDateTime.now();
+        revokedTokenRepository.deleteExpired(now);
+
+        List<RevokedTokenRepository.RevokedKeyView> active = revokedTokenRepository.findActiveKeys(now);
+        BloomFilter rebuilt = BloomFilter.create(
+                Math.max(jwtConfig.getRevocation().getExpectedInsertions(), active.size() * 2L),
+                jwtConfig.getRevocation().getFalsePositiveRate()
+        );
+
+        Map<Long, LocalDateTime> recent = new ConcurrentHashMap<>();
+        LocalDateTime syncedThrough = add(rebuilt, recent, active, null);
+        snapshot.set(new Snapshot(rebuilt, syncedThrough, recent));
+        log.info("Token revocation filter rebuilt with {} active entries", active.size());
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.sync-interval-ms:10000}")
+    @Transactional(readOnly = true)
+    public void sync() {
+        Snapshot current = snapshot.get();
+        if(current == null) {
+            return;
+        }
+
+        LocalDateTime through = current.syncedThrough();
+        LocalDateTime now = LocalDateTime.now();
+        List<RevokedTokenRepository.RevokedKeyView> rows = through == null
+                ? revokedTokenRepository.findActiveKeys(now)
+                : revokedTokenRepository.findActiveKeysCreatedSince(now, through.minus(jwtConfig.getRevocation().getSyncOverlap()));
+        LocalDateTime synced = add(current.filter(), current.recent(), rows, through);
+        // A rebuild that finished meanwhile already covers these rows; keep its snapshot
+        snapshot.compareAndSet(current, new Snapshot(current.filter(), synced, current.recent()));
+    }
+
+    /**
+     * Puts the rows not seen yet into the filter and returns the newest created_at among
+     * them and {@code through}. Rows that fall behind the overlap window are forgotten.
+     */
+    private LocalDateTime add(BloomFilter target, Map<Long, LocalDateTime> recent,
+                              List<RevokedTokenRepository.RevokedKeyView> rows, LocalDateTime through) {
+        for(RevokedTokenRepository.RevokedKeyView row : rows) {
+            if(recent.putIfAbsent(row.getId(), row.getCreatedAt()) == null) {
+                target.put(row.getTokenKey());
+            }
+            if(through == null || row.getCreatedAt().isAfter(through)) {
+                through = row.getCreatedAt();
+            }
+        }
+        if(through != null) {
+            LocalDateTime horizon = through.minus(jwtConfig.getRevocation().getSyncOverlap());
+            recent.values().removeIf(createdAt -> createdAt.isBefore(horizon));
+        }
+        return through;
+    }
+
+    public boolean isRevoked(Claims claims) {
+        Snapshot loaded = snapshot.get();
+        String tokenKey = tokenKey(claims.getId());
+        String userKey = userKey(claims);
+
+        if(loaded == null) {
+            // Not loaded yet: answer exactly rather than let revoked tokens through
+            return (tokenKey != null && revokedTokenRepository.existsByTokenKey(tokenKey))
+                    || (userKey != null && revokedTokenRepository.existsByTokenKey(userKey));
+        }
+
+        BloomFilter current = loaded.filter();
+        if(tokenKey != null && current.mightContain(tokenKey) && revokedTokenRepository.existsByTokenKey(tokenKey)) {
+            return true;
+        }
+
+        return userKey != null && current.mightContain(userKey) && revokedTokenRepository.existsByTokenKey(userKey);
+    }
+
+    @Transactional
+    public void revokeToken(Claims claims) {
+        String tokenKey = tokenKey(claims.getId());
+        if(tokenKey == null) {
+            return;
+        }
+
+        Number userId = claims.get(JwtTokenProvider.CLAIM_USER_ID, Number.class);
+        record(tokenKey, userId != null ? userId.longValue() : null,
+                LocalDateTime.ofInstant(claims.getExpiration().toInstant(), ZoneId.systemDefault()));
+    }
+
+    /**
+     * Revokes every token issued to the user under the given suspension epoch. Tokens live
+     * at most jwt.expiration, so the entry can be dropped after that.
+     */
+    @Transactional
+    public void revokeUserTokens(Long userId, Integer suspensionEpoch) {
+        record(userKey(userId, suspensionEpoch), userId, LocalDateTime.now().plus(Duration.ofMillis(jwtConfig.getExpiration())));
+    }
+
+    private void record(String key, Long userId, LocalDateTime expiresAt) {
+        revokedTokenRepository.insertIfAbsent(key, userId, expiresAt);
+
+        // Also into a filter a rebuild swaps in meanwhile, which may have been read without it
+        Snapshot current;
+        do {
+            current = snapshot.get();
+            if(current == null) {
+                return;
+            }
+            current.filter().put(key);
+        } while(current != snapshot.get());
+    }
+
+    /**
+     * A filter with the sync position and recently added rows that go with it. recent holds
+     * the rows inside the overlap window that are already in the filter, by id;
+     * syncedThrough is the newest created_at seen, null until a row has been seen, when sync
+     * reads every active row.
+     */
+    private record Snapshot(BloomFilter filter, LocalDateTime syncedThrough, Map<Long, LocalDateTime> recent) {}
+
+    private static String tokenKey(String jti) {
+        return jti == null ? null : "jti:" + jti;
+    }
+
+    private static String userKey(Claims claims) {
+        Number userId = claims.get(JwtTokenProvider.CLAIM_USER_ID, Number.class);
+        if(userId == null) {
+            return null;
+        }
+
+        Number epoch = claims.get(JwtTokenProvider.CLAIM_SUSPENSION_EPOCH, Number.class);
+        return userKey(userId.longValue(), epoch != null ? epoch.intValue() : 0);
+    }
+
+    private static String userKey(Long userId, Integer suspensionEpoch) {
+        return "user:" + userId + ":" + suspensionEpoch;
+    }
+}
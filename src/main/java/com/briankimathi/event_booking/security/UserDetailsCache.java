@@ -0,0 +1,53 @@
+package com.briankimathi.event_booking.security;
+
+import com.briankimathi.event_booking.config.CacheConfig;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Function;
+
+@Component
+public class UserDetailsCache {
+
+    private final Cache<String, SecurityUser> cache;
+
+    public UserDetailsCache(CacheConfig cacheConfig, MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(cacheConfig.getUsers().getMaxSize())
+                .expireAfterWrite(cacheConfig.getUsers().getTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "userDetails");
+    }
+
+    public SecurityUser get(String email, Function<String, SecurityUser> loader) {
+        return cache.get(email, loader);
+    }
+
+    /**
+     * Evicts straight away and, when called inside a transaction, once more after commit
+     * so a concurrent load cannot re-cache the pre-commit state.
+     */
+    public void evict(String email) {
+        cache.invalidate(email);
+
+        if(TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidate(email);
+                }
+            });
+        }
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+}
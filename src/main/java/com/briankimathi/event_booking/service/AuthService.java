@@ -10,30 +10,32 @@ import com.briankimathi.event_booking.dto.request.LoginRequest;
 import com.briankimathi.event_booking.dto.request.RegisterRequest;
 import com.briankimathi.event_booking.dto.response.AuthResponse;
 import com.briankimathi.event_booking.exception.ValidationException;
-import com.briankimathi.event_booking.repository.RoleRepository;
 import com.briankimathi.event_booking.repository.UserRepository;
 import com.briankimathi.event_booking.security.JwtTokenProvider;
 import com.briankimathi.event_booking.security.SecurityUser;
+import com.briankimathi.event_booking.security.TokenRevocationService;
+import io.jsonwebtoken.JwtException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.List;
 
 @Service
 @RequiredArgsConstructor
 public class AuthService {
 
     private final UserRepository userRepository;
-    private final RoleRepository roleRepository;
+    private final RoleRegistry roleRegistry;
     private final PasswordEncoder passwordEncoder;
     private final AuthenticationManager authenticationManager;
     private final JwtTokenProvider jwtTokenProvider;
+    private final TokenRevocationService tokenRevocationService;
 
     @Transactional
     public AuthResponse register(RegisterRequest request) {
@@ -58,8 +60,7 @@ public class AuthService {
         user = userRepository.save(user);
 
         // Assign USER role
-        Role userRole = roleRepository.findByName(UserRoleEnum.USER)
-                .orElseThrow(() -> new RuntimeException("USER role not found"));
+        Role userRole = roleRegistry.get(UserRoleEnum.USER);
 
         UserRole userRoleEntity = UserRole.builder()
                 .user(user)
@@ -78,13 +79,11 @@ public class AuthService {
                 .accountNonLocked(true)
                 .accountNonExpired(true)
                 .credentialsNonExpired(true)
+                .authorities(List.of(new SimpleGrantedAuthority("ROLE_" + UserRoleEnum.USER.name())))
+                .suspensionEpoch(user.getSuspensionEpoch())
                 .build();
 
-        Map<String, Object> claims = new HashMap<>();
-        claims.put("userId", user.getId());
-        claims.put("email", user.getEmail());
-
-        String token = jwtTokenProvider.generateToken(securityUser, claims);
+        String token = jwtTokenProvider.generateToken(securityUser, jwtTokenProvider.buildPrincipalClaims(securityUser));
 
         return AuthResponse.builder()
                 .token(token)
@@ -111,11 +110,7 @@ public class AuthService {
             throw new ValidationException("Account is suspended or inactive");
         }
 
-        Map<String, Object> claims = new HashMap<>();
-        claims.put("userId", user.getId());
-        claims.put("email", user.getEmail());
-
-        String token = jwtTokenProvider.generateToken(securityUser, claims);
+        String token = jwtTokenProvider.generateToken(securityUser, jwtTokenProvider.buildPrincipalClaims(securityUser));
 
         return AuthResponse.builder()
                 .token(token)
@@ -124,4 +119,12 @@ public class AuthService {
                 .build();
     }
 
+    public void logout(String token) {
+        try {
+            tokenRevocationService.revokeToken(jwtTokenProvider.extractAllClaims(token));
+        } catch (JwtException ex) {
+            throw new ValidationException("Invalid or expired token");
+        }
+    }
+
 }
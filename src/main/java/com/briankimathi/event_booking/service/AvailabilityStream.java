@@ -0,0 +1,259 @@
+package com.briankimathi.event_booking.service;
+
+import com.briankimathi.event_booking.config.AvailabilityStreamConfig;
+import com.briankimathi.event_booking.dto.response.AvailabilityResponse;
+import com.briankimathi.event_booking.dto.response.EventResponse;
+import com.briankimathi.event_booking.exception.ServiceUnavailableException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes ticket counts to clients watching an event, so on-sale pages stop polling the
+ * event endpoint. Streams are Server-Sent Events over async requests: an open stream holds
+ * a connection but no thread. Every app.availability-stream.publish-interval-ms the counts
+ * of all watched events are read in one query, and each event whose counts changed is
+ * serialized once and sent to all its subscribers. An event gets at most one update per
+ * interval however fast it sells, and sales on other nodes show up like local ones.
+ *
+ * Sends run on app.availability-stream.fan-out-threads threads, a chunk of subscribers per
+ * task. A subscriber still busy with an earlier send is skipped and catches up with the
+ * latest counts on a later round, so a slow client only delays its own chunk. Sends block
+ * on a stalled client, so an event whose previous round is still queued or sending gets no
+ * new one, and rounds that do not fit in the bounded queue are dropped; either way the
+ * event is fanned out again on the next publish.
+ */
+@Slf4j
+@Component
+public class AvailabilityStream implements DisposableBean {
+
+    static final String EVENT_NAME = "availability";
+    private static final String BUSY_MESSAGE = "Too many live availability streams, please retry shortly";
+    private static final int CHUNK_SIZE = 500;
+
+    private final EventService eventService;
+    private final JsonMapper jsonMapper;
+    private final AvailabilityStreamConfig streamConfig;
+    private final ThreadPoolExecutor fanOut;
+
+    private final Map<Long, Topic> topics = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private long lastHeartbeat = System.nanoTime();
+
+    public AvailabilityStream(EventService eventService, JsonMapper jsonMapper, AvailabilityStreamConfig streamConfig) {
+        this.eventService = eventService;
+        this.jsonMapper = jsonMapper;
+        this.streamConfig = streamConfig;
+        AtomicInteger threads = new AtomicInteger();
+        this.fanOut = new ThreadPoolExecutor(
+                streamConfig.getFanOutThreads(),
+                streamConfig.getFanOutThreads(),
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(streamConfig.getFanOutQueueCapacity()),
+                task -> {
+                    Thread thread = new Thread(task, "availability-fan-out-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+
+    /**
+     * Opens a stream of the published event's counts, starting with the latest known. Throws
+     * a {@link ServiceUnavailableException} when this node has as many streams as it takes.
+     */
+    public SseEmitter subscribe(Long eventId) {
+        EventResponse event = eventService.getPublishedEvent(eventId);
+        if(subscriberCount.incrementAndGet() > streamConfig.getMaxSubscribers()) {
+            subscriberCount.decrementAndGet();
+            throw new ServiceUnavailableException(BUSY_MESSAGE, streamConfig.getRetryAfterSeconds());
+        }
+
+        Subscriber subscriber = new Subscriber(newEmitter(streamConfig.getTimeout().toMillis()));
+        Topic topic = topics.compute(eventId, (id, existing) -> {
+            Topic joined = existing != null ? existing : new Topic();
+            joined.subscribers.add(subscriber);
+            return joined;
+        });
+        Runnable leave = () -> {
+            if(topic.subscribers.remove(subscriber)) {
+                subscriberCount.decrementAndGet();
+            }
+        };
+        subscriber.emitter.onCompletion(leave);
+        subscriber.emitter.onTimeout(leave);
+        subscriber.emitter.onError(error -> leave.run());
+
+        Message latest = topic.latest;
+        subscriber.offer(latest != null ? latest : message(eventId, 0, event.getTotalTicketsAvailable(), ticketTypes(event)), false);
+        return subscriber.emitter;
+    }
+
+    @Scheduled(fixedDelayString = "${app.availability-stream.publish-interval-ms:500}")
+    public void publish() {
+        Set<Long> watched = new HashSet<>();
+        for(Long eventId : topics.keySet()) {
+            // Dropped atomically with respect to subscribe(), which adds under the same key
+            if(topics.computeIfPresent(eventId, (id, topic) -> topic.subscribers.isEmpty() ? null : topic) != null) {
+                watched.add(eventId);
+            }
+        }
+
+        long now = System.nanoTime();
+        boolean heartbeat = now - lastHeartbeat >= streamConfig.getHeartbeatInterval().toNanos();
+        if(heartbeat) {
+            lastHeartbeat = now;
+        }
+        if(watched.isEmpty()) {
+            return;
+        }
+
+        Map<Long, EventCache.Availability> counts;
+        try {
+            counts = eventService.loadAvailability(watched);
+        } catch (RuntimeException ex) {
+            log.warn("Could not read availability for {} watched events", watched.size(), ex);
+            counts = Map.of();
+        }
+
+        for(Long eventId : watched) {
+            Topic topic = topics.get(eventId);
+            if(topic == null) {
+                continue;
+            }
+            EventCache.Availability current = counts.get(eventId);
+            if(current != null && !current.equals(topic.counts)) {
+                Message previous = topic.latest;
+                topic.counts = current;
+                topic.latest = message(eventId, previous == null ? 1 : previous.id() + 1, current.total(), current.ticketTypes());
+                fanOut(topic, false);
+            } else if(heartbeat || topic.missed) {
+                fanOut(topic, heartbeat);
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        fanOut.shutdownNow();
+        topics.values().forEach(topic -> topic.subscribers.forEach(subscriber -> subscriber.emitter.complete()));
+    }
+
+    SseEmitter newEmitter(long timeoutMs) {
+        return new SseEmitter(timeoutMs);
+    }
+
+    private void fanOut(Topic topic, boolean heartbeat) {
+        // Only publish() starts rounds, so the check and the increments below do not race
+        if(topic.pending.get() > 0) {
+            topic.missed = true;
+            return;
+        }
+        topic.missed = false;
+
+        Message message = topic.latest;
+        List<Subscriber> subscribers = List.copyOf(topic.subscribers);
+        for(int from = 0; from < subscribers.size(); from += CHUNK_SIZE) {
+            List<Subscriber> chunk = subscribers.subList(from, Math.min(from + CHUNK_SIZE, subscribers.size()));
+            topic.pending.incrementAndGet();
+            try {
+                fanOut.execute(() -> {
+                    try {
+                        chunk.forEach(subscriber -> subscriber.offer(message, heartbeat));
+                    } finally {
+                        topic.pending.decrementAndGet();
+                    }
+                });
+            } catch (RejectedExecutionException ex) {
+                // Subscribers already sent this message skip it on the retry
+                topic.pending.decrementAndGet();
+                topic.missed = true;
+                log.debug("Availability fan-out queue full, retrying next round");
+                return;
+            }
+        }
+    }
+
+    private Message message(Long eventId, long id, Integer total, Map<Long, Integer> ticketTypes) {
+        AvailabilityResponse response = AvailabilityResponse.builder()
+                .eventId(eventId)
+                .totalTicketsAvailable(total)
+                .ticketTypes(ticketTypes)
+                .build();
+        return new Message(id, jsonMapper.writeValueAsString(response));
+    }
+
+    private static Map<Long, Integer> ticketTypes(EventResponse event) {
+        Map<Long, Integer> ticketTypes = new HashMap<>();
+        if(event.getTicketTypes() != null) {
+            event.getTicketTypes().forEach(ticketType -> ticketTypes.put(ticketType.getId(), ticketType.getQuantityAvailable()));
+        }
+        return ticketTypes;
+    }
+
+    // The counts of one event as serialized for its subscribers; ids increase per event
+    private record Message(long id, String json) {}
+
+    private static final class Topic {
+        private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+        // Written only by publish()
+        private volatile EventCache.Availability counts;
+        private volatile Message latest;
+        // Set when a round was skipped or dropped, so the next publish sends it
+        private volatile boolean missed;
+        // Chunks of this topic queued or being sent
+        private final AtomicInteger pending = new AtomicInteger();
+    }
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private final AtomicBoolean sending = new AtomicBoolean();
+        private long sentId = -1;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        /** Sends the message unless already sent, or a keep-alive comment when asked to. */
+        void offer(Message message, boolean heartbeat) {
+            if(!sending.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                if(message != null && message.id() != sentId) {
+                    emitter.send(SseEmitter.event()
+                            .id(String.valueOf(message.id()))
+                            .name(EVENT_NAME)
+                            .data(message.json()));
+                    sentId = message.id();
+                } else if(heartbeat) {
+                    emitter.send(SseEmitter.event().comment("keep-alive"));
+                }
+            } catch (IOException | IllegalStateException ex) {
+                // Closed by the client; the container completes the emitter, which unsubscribes it
+                log.debug("Availability stream send failed: {}", ex.getMessage());
+            } finally {
+                sending.set(false);
+            }
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.briankimathi.event_booking.service;
+
+import com.briankimathi.event_booking.config.CacheConfig;
+import com.briankimathi.event_booking.dto.common.CursorPage;
+import com.briankimathi.event_booking.dto.response.EventResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache for the public event reads. Details and listing pages live for
+ * app.cache.events.ttl unless an event change evicts them first. Ticket counts are kept in
+ * a separate tier that expires after app.cache.events.availability-staleness and are laid
+ * over the cached responses on the way out, so a long-lived page never shows old counts.
+ */
+@Component
+public class EventCache {
+
+    private final Cache<Long, EventResponse> details;
+    private final Cache<ListingKey, CursorPage<EventResponse>> listings;
+    private final Cache<Long, Availability> availability;
+
+    public EventCache(CacheConfig cacheConfig, MeterRegistry meterRegistry) {
+        CacheConfig.Events config = cacheConfig.getEvents();
+        this.details = Caffeine.newBuilder()
+                .maximumSize(config.getMaxDetails())
+                .expireAfterWrite(config.getTtl())
+                .recordStats()
+                .build();
+        this.listings = Caffeine.newBuilder()
+                .maximumSize(config.getMaxListingPages())
+                .expireAfterWrite(config.getTtl())
+                .recordStats()
+                .build();
+        this.availability = Caffeine.newBuilder()
+                .maximumSize(config.getMaxDetails())
+                .expireAfterWrite(config.getAvailabilityStaleness())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, details, "eventDetails");
+        CaffeineCacheMetrics.monitor(meterRegistry, listings, "eventListings");
+        CaffeineCacheMetrics.monitor(meterRegistry, availability, "eventAvailability");
+    }
+
+    public EventResponse getDetail(Long eventId, Function<Long, EventResponse> loader) {
+        return details.get(eventId, loader);
+    }
+
+    public CursorPage<EventResponse> getListing(String cursor, int size, Supplier<CursorPage<EventResponse>> loader) {
+        return listings.get(new ListingKey(cursor, size), key -> loader.get());
+    }
+
+    /** Counts for the given events, loading all the missing or expired ones in one call. */
+    public Map<Long, Availability> getAvailability(
+            Collection<Long> eventIds,
+            Function<Set<? extends Long>, Map<Long, Availability>> loader
+    ) {
+        return availability.getAll(eventIds, loader);
+    }
+
+    /**
+     * Drops the event's details, counts and every listing page that shows it. Like
+     * {@link com.briankimathi.event_booking.security.UserDetailsCache#evict}, repeated after
+     * commit when called inside a transaction.
+     */
+    public void evict(Long eventId) {
+        afterCommitToo(() -> {
+            details.invalidate(eventId);
+            availability.invalidate(eventId);
+            listings.asMap().values().removeIf(page -> page.getContent().stream()
+                    .anyMatch(event -> eventId.equals(event.getId())));
+        });
+    }
+
+    /** For changes that move an event into, out of or within the listing order. */
+    public void evictListings() {
+        afterCommitToo(listings::invalidateAll);
+    }
+
+    private static void afterCommitToo(Runnable eviction) {
+        eviction.run();
+
+        if(TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eviction.run();
+                }
+            });
+        }
+    }
+
+    private record ListingKey(String cursor, int size) {}
+
+    /** Tickets left for an event in total and per event ticket type id. */
+    public record Availability(Integer total, Map<Long, Integer> ticketTypes) {}
+}
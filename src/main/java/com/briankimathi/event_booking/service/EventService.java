@@ -1,4 +1,493 @@
 package com.briankimathi.event_booking.service;
 
+import com.briankimathi.event_booking.config.SearchConfig;
+import com.briankimathi.event_booking.domain.Event;
+import com.briankimathi.event_booking.domain.enums.EventStatus;
+import com.briankimathi.event_booking.dto.common.CursorPage;
+import com.briankimathi.event_booking.dto.request.UpdateEventRequest;
+import com.briankimathi.event_booking.dto.response.EventResponse;
+import com.briankimathi.event_booking.exception.ResourceNotFoundException;
+import com.briankimathi.event_booking.exception.ValidationException;
+import com.briankimathi.event_booking.repository.EventRepository;
+import com.briankimathi.event_booking.repository.EventTicketTypeRepository;
+import com.briankimathi.event_booking.security.SecurityUser;
+import com.briankimathi.event_booking.service.inventory.InventoryKey;
+import com.briankimathi.event_booking.service.inventory.TicketInventory;
+import com.briankimathi.event_booking.service.search.EventFilter;
+import com.briankimathi.event_booking.service.search.EventSearchIndex;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Public event reads. Listings page by keyset on (start_date, id): the cursor names the
+ * last event of the previous page, so paging never counts or skips rows. Reads go through
+ * projections and never load Event entities or their creator, and are served from
+ * {@link EventCache}; every change made here evicts what it affects. Text search, facet
+ * filters and facet counts are answered by {@link EventSearchIndex}, which is updated here
+ * once a change commits.
+ */
+@Service
+@RequiredArgsConstructor
 public class EventService {
+
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private final EventRepository eventRepository;
+    private final EventTicketTypeRepository eventTicketTypeRepository;
+    private final EventCache eventCache;
+    private final EventSearchIndex eventSearchIndex;
+    private final SearchConfig searchConfig;
+    private final TicketInventory ticketInventory;
+
+    /**
+     * Upcoming events matching the filter, by start date or, when query is given, ranked by
+     * how well they match it, with facet counts for the filter.
+     */
+    public CursorPage<EventResponse> listPublishedEvents(String cursor, Integer size, String query, EventFilter filter) {
+        int pageSize = size == null ? DEFAULT_PAGE_SIZE : size;
+        if(pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new ValidationException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        CursorPage<EventResponse> page;
+        if(query != null && !query.isBlank()) {
+            page = search(query, filter, cursor, pageSize);
+        } else if(filter.isEmpty()) {
+            page = eventCache.getListing(cursor, pageSize, () -> loadListing(cursor, pageSize));
+        } else {
+            page = browse(filter, cursor, pageSize);
+        }
+        return page.toBuilder()
+                .content(withAvailability(page.getContent()))
+                .facets(eventSearchIndex.facets(filter, LocalDateTime.now()))
+                .build();
+    }
+
+    /** Builds a filter from request parameters, any of which may be null. */
+    public EventFilter filter(String category, String date, String price, Boolean available) {
+        EventFilter.DateBucket dateBucket = null;
+        if(date != null) {
+            dateBucket = EventFilter.DateBucket.parse(date);
+            if(dateBucket == null) {
+                throw new ValidationException("Unknown date filter: " + date);
+            }
+        }
+        if(price != null && !eventSearchIndex.isPriceBand(price)) {
+            throw new ValidationException("Unknown price band: " + price);
+        }
+        return new EventFilter(category, dateBucket, price, available);
+    }
+
+    public EventResponse getPublishedEvent(Long eventId) {
+        EventResponse event = eventCache.getDetail(eventId, this::loadDetail);
+        return withAvailability(event, availability(List.of(eventId)).get(eventId));
+    }
+
+    /**
+     * Changes whenever the response would: the event's content through its updated_at, its
+     * ticket counts through the availability snapshot it was given. The field hash also
+     * covers summaries from the search index, whose updated_at can predate the last edit.
+     */
+    public static String version(EventResponse event) {
+        return "e" + event.getId() + "-" + Long.toUnsignedString(hash(17, event), 36);
+    }
+
+    /** Like {@link #version(EventResponse)}, over every event of the page and its facet counts. */
+    public static String version(CursorPage<EventResponse> page) {
+        long hash = 17;
+        for(EventResponse event : page.getContent()) {
+            hash = hash(hash, event);
+        }
+        hash = 31 * hash + Objects.hashCode(page.getNextCursor());
+        hash = 31 * hash + Objects.hashCode(page.getFacets());
+        return "l" + page.getPageSize() + "-" + Long.toUnsignedString(hash, 36);
+    }
+
+    private static long hash(long hash, EventResponse event) {
+        hash = 31 * hash + event.getId();
+        hash = 31 * hash + (event.getUpdatedAt() == null ? 0 : event.getUpdatedAt().toInstant(ZoneOffset.UTC).toEpochMilli());
+        hash = 31 * hash + event.hashCode();
+        hash = 31 * hash + Objects.hashCode(event.getTotalTicketsAvailable());
+        if(event.getTicketTypes() != null) {
+            for(EventResponse.TicketTypeSummary ticketType : event.getTicketTypes()) {
+                hash = 31 * hash + ticketType.getId();
+                hash = 31 * hash + Objects.hashCode(ticketType.getQuantityAvailable());
+            }
+        }
+        return hash;
+    }
+
+    @Transactional
+    public EventResponse updateEvent(Long eventId, UpdateEventRequest request, SecurityUser user) {
+        Event event = findForChange(eventId, user);
+        if(event.getStatus() == EventStatus.CANCELLED) {
+            throw new ValidationException("A cancelled event cannot be changed");
+        }
+
+        LocalDateTime startDate = request.getStartDate() != null ? request.getStartDate() : event.getStartDate();
+        LocalDateTime endDate = request.getEndDate() != null ? request.getEndDate() : event.getEndDate();
+        if(!endDate.isAfter(startDate)) {
+            throw new ValidationException("End date must be after start date");
+        }
+        boolean rescheduled = !startDate.equals(event.getStartDate());
+
+        if(request.getTitle() != null) {
+            event.setTitle(request.getTitle());
+        }
+        if(request.getDescription() != null) {
+            event.setDescription(request.getDescription());
+        }
+        if(request.getVenue() != null) {
+            event.setVenue(request.getVenue());
+        }
+        if(request.getCategory() != null) {
+            event.setCategory(request.getCategory());
+        }
+        if(request.getImageUrl() != null) {
+            event.setImageUrl(request.getImageUrl());
+        }
+        event.setStartDate(startDate);
+        event.setEndDate(endDate);
+
+        // A new start date moves the event within the listing order
+        if(rescheduled) {
+            eventCache.evictListings();
+        }
+        eventCache.evict(eventId);
+        if(event.getStatus() == EventStatus.PUBLISHED) {
+            index(event);
+        }
+        return toResponse(event);
+    }
+
+    /** Throws unless the user may change the event, for changes prepared outside a transaction. */
+    @Transactional(readOnly = true)
+    public void checkCanChange(Long eventId, SecurityUser user) {
+        Event event = findForChange(eventId, user);
+        if(event.getStatus() == EventStatus.CANCELLED) {
+            throw new ValidationException("A cancelled event cannot be changed");
+        }
+    }
+
+    /**
+     * Points the event at a newly rendered image if {@code replaces} accepts its current
+     * one. The row is locked while deciding, so renders that finish together are applied
+     * one at a time. Returns whether the image was replaced.
+     */
+    @Transactional
+    public boolean replaceImage(Long eventId, String imageUrl, Predicate<String> replaces) {
+        Event event = eventRepository.lockById(eventId)
+                .orElseThrow(() -> new ResourceNotFoundException("Event not found with id: " + eventId));
+        if(!replaces.test(event.getImageUrl())) {
+            return false;
+        }
+        event.setImageUrl(imageUrl);
+
+        eventCache.evict(eventId);
+        if(event.getStatus() == EventStatus.PUBLISHED) {
+            index(event);
+        }
+        return true;
+    }
+
+    /** Current image URLs of the given events; events without an image are left out. */
+    @Transactional(readOnly = true)
+    public Map<Long, String> imageUrls(Collection<Long> eventIds) {
+        Map<Long, String> imageUrls = new HashMap<>();
+        for(EventRepository.ImageUrlView row : eventRepository.findImageUrls(eventIds)) {
+            if(row.getImageUrl() != null) {
+                imageUrls.put(row.getId(), row.getImageUrl());
+            }
+        }
+        return imageUrls;
+    }
+
+    @Transactional
+    public EventResponse publishEvent(Long eventId) {
+        Event event = eventRepository.findForIndexById(eventId)
+                .orElseThrow(() -> new ResourceNotFoundException("Event not found with id: " + eventId));
+        if(event.getStatus() != EventStatus.DRAFT && event.getStatus() != EventStatus.PENDING_APPROVAL) {
+            throw new ValidationException("Only draft or pending events can be published");
+        }
+
+        event.setStatus(EventStatus.PUBLISHED);
+        eventCache.evictListings();
+        eventCache.evict(eventId);
+        index(event);
+        return toResponse(event);
+    }
+
+    @Transactional
+    public EventResponse cancelEvent(Long eventId, SecurityUser user) {
+        Event event = findForChange(eventId, user);
+        if(event.getStatus() == EventStatus.CANCELLED) {
+            throw new ValidationException("Event is already cancelled");
+        }
+
+        event.setStatus(EventStatus.CANCELLED);
+        eventCache.evictListings();
+        eventCache.evict(eventId);
+        afterCommit(() -> eventSearchIndex.remove(eventId));
+        return toResponse(event);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.search.rebuild-interval-ms:600000}", initialDelayString = "${app.search.rebuild-interval-ms:600000}")
+    public void rebuildSearchIndex() {
+        eventSearchIndex.rebuild(() -> {
+            LocalDateTime now = LocalDateTime.now();
+            Map<Long, List<EventSearchIndex.TicketTypeFacet>> ticketTypes = new HashMap<>();
+            for(EventTicketTypeRepository.FacetView row : eventTicketTypeRepository.findFacetRows(EventStatus.PUBLISHED.name(), now)) {
+                ticketTypes.computeIfAbsent(row.getEventId(), id -> new ArrayList<>())
+                        .add(new EventSearchIndex.TicketTypeFacet(row.getTicketTypeId(), row.getPrice(), row.getAvailable() > 0));
+            }
+            return eventRepository.findSearchRows(EventStatus.PUBLISHED.name(), now).stream()
+                    .map(row -> new EventSearchIndex.Document(
+                            toResponse(row),
+                            row.getDescription(),
+                            ticketTypes.getOrDefault(row.getId(), List.of())))
+                    .toList();
+        });
+    }
+
+    private CursorPage<EventResponse> search(String query, EventFilter filter, String cursor, int pageSize) {
+        if(query.length() > searchConfig.getMaxQueryLength()) {
+            throw new ValidationException("Search query must be at most " + searchConfig.getMaxQueryLength() + " characters");
+        }
+        int offset = cursor == null ? 0 : decodeOffset(cursor);
+        if(offset + pageSize > searchConfig.getMaxResults()) {
+            throw new ValidationException("Search results are limited to the first " + searchConfig.getMaxResults());
+        }
+
+        EventSearchIndex.SearchResult result = eventSearchIndex.search(query, filter, LocalDateTime.now(), offset, pageSize);
+        int next = offset + pageSize;
+        boolean last = next >= Math.min(result.total(), searchConfig.getMaxResults());
+        return CursorPage.<EventResponse>builder()
+                .content(result.events())
+                .nextCursor(last ? null : encodeOffset(next))
+                .pageSize(pageSize)
+                .last(last)
+                .build();
+    }
+
+    // Same ordering and cursor as the database listing, with the filter applied in memory
+    private CursorPage<EventResponse> browse(EventFilter filter, String cursor, int pageSize) {
+        LocalDateTime now = LocalDateTime.now();
+        Cursor after = cursor != null ? Cursor.decode(cursor) : new Cursor(now, 0);
+        return keysetPage(eventSearchIndex.browse(filter, now, after.startDate(), after.id(), pageSize + 1), pageSize);
+    }
+
+    private void index(Event event) {
+        EventResponse summary = toResponse(event).toBuilder().description(null).build();
+        String description = event.getDescription();
+        List<EventSearchIndex.TicketTypeFacet> ticketTypes = event.getEventTicketTypes().stream()
+                .map(eventTicketType -> {
+                    Long ticketTypeId = eventTicketType.getTicketType().getId();
+                    boolean available = ticketInventory.available(new InventoryKey(event.getId(), ticketTypeId)) > 0;
+                    return new EventSearchIndex.TicketTypeFacet(ticketTypeId, eventTicketType.getPrice(), available);
+                })
+                .toList();
+        afterCommit(() -> eventSearchIndex.put(new EventSearchIndex.Document(summary, description, ticketTypes)));
+    }
+
+    private CursorPage<EventResponse> loadListing(String cursor, int pageSize) {
+        LocalDateTime now = LocalDateTime.now();
+        Cursor after = cursor != null ? Cursor.decode(cursor) : new Cursor(now, 0);
+
+        List<EventRepository.EventListingView> rows = eventRepository.findListingPage(
+                EventStatus.PUBLISHED.name(), now, after.startDate(), after.id(), pageSize + 1);
+        return keysetPage(rows.stream().map(EventService::toResponse).toList(), pageSize);
+    }
+
+    // Rows were fetched with one extra, which says whether another page follows
+    private static CursorPage<EventResponse> keysetPage(List<EventResponse> rows, int pageSize) {
+        boolean last = rows.size() <= pageSize;
+        List<EventResponse> page = last ? rows : rows.subList(0, pageSize);
+
+        EventResponse tail = page.isEmpty() ? null : page.get(page.size() - 1);
+        return CursorPage.<EventResponse>builder()
+                .content(page)
+                .nextCursor(last || tail == null ? null : new Cursor(tail.getEventDate(), tail.getId()).encode())
+                .pageSize(pageSize)
+                .last(last)
+                .build();
+    }
+
+    private EventResponse loadDetail(Long eventId) {
+        EventRepository.EventDetailView event = eventRepository.findDetailById(eventId, EventStatus.PUBLISHED.name())
+                .orElseThrow(() -> new ResourceNotFoundException("Event not found with id: " + eventId));
+
+        EventResponse response = toResponse(event);
+        response.setDescription(event.getDescription());
+        response.setTicketTypes(eventTicketTypeRepository.findTicketTypesByEventId(eventId).stream()
+                .map(ticketType -> EventResponse.TicketTypeSummary.builder()
+                        .id(ticketType.getId())
+                        .name(ticketType.getName())
+                        .price(ticketType.getPrice())
+                        .quantityAvailable(ticketType.getAvailable())
+                        .build())
+                .toList());
+        return response;
+    }
+
+    private List<EventResponse> withAvailability(List<EventResponse> events) {
+        Map<Long, EventCache.Availability> counts = availability(events.stream().map(EventResponse::getId).toList());
+        return events.stream()
+                .map(event -> withAvailability(event, counts.get(event.getId())))
+                .toList();
+    }
+
+    private Map<Long, EventCache.Availability> availability(List<Long> eventIds) {
+        return eventCache.getAvailability(eventIds, this::loadAvailability);
+    }
+
+    /** Counts straight from the database, for readers that cannot take the cache's staleness. */
+    public Map<Long, EventCache.Availability> loadAvailability(Set<? extends Long> eventIds) {
+        List<Long> ids = List.copyOf(eventIds);
+        Map<Long, Map<Long, Integer>> ticketTypes = new HashMap<>();
+        for(EventTicketTypeRepository.TicketTypeAvailabilityView row : eventTicketTypeRepository.findAvailabilityByEventIds(ids)) {
+            ticketTypes.computeIfAbsent(row.getEventId(), id -> new HashMap<>()).put(row.getId(), row.getAvailable());
+        }
+
+        Map<Long, EventCache.Availability> counts = new HashMap<>();
+        for(EventRepository.AvailabilityView row : eventRepository.findAvailableTickets(ids)) {
+            counts.put(row.getId(), new EventCache.Availability(row.getAvailable(), ticketTypes.getOrDefault(row.getId(), Map.of())));
+        }
+        return counts;
+    }
+
+    // Cached responses are shared, so counts go on a copy
+    private static EventResponse withAvailability(EventResponse event, EventCache.Availability counts) {
+        if(counts == null) {
+            return event;
+        }
+        return event.toBuilder()
+                .totalTicketsAvailable(counts.total())
+                .ticketTypes(event.getTicketTypes() == null ? null : event.getTicketTypes().stream()
+                        .map(ticketType -> ticketType.toBuilder()
+                                .quantityAvailable(counts.ticketTypes().getOrDefault(ticketType.getId(), ticketType.getQuantityAvailable()))
+                                .build())
+                        .toList())
+                .build();
+    }
+
+    private Event findForChange(Long eventId, SecurityUser user) {
+        Event event = eventRepository.findForChangeById(eventId)
+                .orElseThrow(() -> new ResourceNotFoundException("Event not found with id: " + eventId));
+        boolean admin = user.getAuthorities().stream()
+                .anyMatch(authority -> "ROLE_ADMIN".equals(authority.getAuthority()));
+        if(!admin && !user.getId().equals(event.getCreator().getId())) {
+            throw new AccessDeniedException("Only the event's creator can change it");
+        }
+        return event;
+    }
+
+    private static EventResponse toResponse(Event event) {
+        return EventResponse.builder()
+                .id(event.getId())
+                .title(event.getTitle())
+                .description(event.getDescription())
+                .eventDate(event.getStartDate())
+                .eventEndDate(event.getEndDate())
+                .venueName(event.getVenue())
+                .imageUrl(event.getImageUrl())
+                .category(event.getCategory())
+                .status(event.getStatus().name())
+                .totalCapacity(event.getTotalCapacity())
+                .totalTicketsAvailable(event.getAvailableTickets())
+                .updatedAt(event.getUpdatedAt())
+                .build();
+    }
+
+    private static EventResponse toResponse(EventRepository.EventListingView event) {
+        return EventResponse.builder()
+                .id(event.getId())
+                .title(event.getTitle())
+                .eventDate(event.getStartDate())
+                .eventEndDate(event.getEndDate())
+                .venueName(event.getVenue())
+                .imageUrl(event.getImageUrl())
+                .category(event.getCategory())
+                .status(event.getStatus())
+                .totalCapacity(event.getTotalCapacity())
+                .totalTicketsAvailable(event.getAvailableTickets())
+                .updatedAt(event.getUpdatedAt())
+                .build();
+    }
+
+    private static void afterCommit(Runnable action) {
+        if(TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    // Search pages are ranked rather than ordered by a key, so their cursor is a position
+    private static String encodeOffset(int offset) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(("@" + offset).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static int decodeOffset(String cursor) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int offset = decoded.startsWith("@") ? Integer.parseInt(decoded.substring(1)) : -1;
+            if(offset < 0) {
+                throw new ValidationException("Invalid cursor");
+            }
+            return offset;
+        } catch (IllegalArgumentException ex) {
+            throw new ValidationException("Invalid cursor");
+        }
+    }
+
+    /** Opaque to clients: base64url of "startDate|id" of the last event on a page. */
+    record Cursor(LocalDateTime startDate, long id) {
+
+        String encode() {
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString((startDate + "|" + id).getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String cursor) {
+            try {
+                String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = decoded.indexOf('|');
+                return new Cursor(
+                        LocalDateTime.parse(decoded.substring(0, separator)),
+                        Long.parseLong(decoded.substring(separator + 1))
+                );
+            } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException ex) {
+                throw new ValidationException("Invalid cursor");
+            }
+        }
+    }
 }
@@ -0,0 +1,141 @@
+package com.briankimathi.event_booking.service;
+
+import com.briankimathi.event_booking.config.IdempotencyConfig;
+import com.briankimathi.event_booking.domain.IdempotencyRecord;
+import com.briankimathi.event_booking.repository.IdempotencyRecordRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Remembers the response to each Idempotency-Key so a retried purchase gets the original
+ * answer instead of buying twice. Recent keys are held in memory, so a retry that lands on
+ * the same node is answered without a query; idempotency_keys is the shared record, and its
+ * unique constraint decides which of two concurrent requests with one key runs.
+ */
+@Slf4j
+@Service
+public class IdempotencyService {
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final Duration ttl;
+    private final Duration inProgressLease;
+    private final Cache<String, StoredResponse> recent;
+
+    public IdempotencyService(IdempotencyRecordRepository idempotencyRecordRepository, IdempotencyConfig idempotencyConfig) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.ttl = idempotencyConfig.getTtl();
+        this.inProgressLease = idempotencyConfig.getInProgressLease();
+        this.recent = Caffeine.newBuilder()
+                .maximumSize(idempotencyConfig.getMaxCachedKeys())
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * Claims the key for a request with the given fingerprint, or reports what an earlier
+     * request with the same key already did.
+     */
+    @Transactional
+    public Claim claim(String key, String requestHash) {
+        StoredResponse marker = StoredResponse.inProgress(requestHash);
+        StoredResponse existing = recent.asMap().putIfAbsent(key, marker);
+        if(existing != null) {
+            return resolve(existing, requestHash);
+        }
+
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            if(idempotencyRecordRepository.claim(key, requestHash, now.plus(ttl), now.plus(inProgressLease), now) == 1) {
+                return new Claim(Outcome.PROCEED, null);
+            }
+
+            // Claimed earlier, possibly on another node
+            IdempotencyRecord record = idempotencyRecordRepository.findByIdempotencyKey(key).orElse(null);
+            if(record == null || record.getStatusCode() == null) {
+                recent.asMap().remove(key, marker);
+                return resolve(StoredResponse.inProgress(record != null ? record.getRequestHash() : requestHash), requestHash);
+            }
+
+            StoredResponse stored = new StoredResponse(
+                    record.getRequestHash(),
+                    record.getStatusCode(),
+                    record.getContentType(),
+                    record.getResponseBody().getBytes(StandardCharsets.UTF_8)
+            );
+            recent.asMap().replace(key, marker, stored);
+            return resolve(stored, requestHash);
+        } catch (RuntimeException ex) {
+            recent.asMap().remove(key, marker);
+            throw ex;
+        }
+    }
+
+    /** Keeps the response of a claimed request for replay until the key expires. */
+    @Transactional
+    public void complete(String key, String requestHash, int statusCode, String contentType, byte[] body) {
+        idempotencyRecordRepository.complete(key, statusCode, contentType, new String(body, StandardCharsets.UTF_8));
+        recent.put(key, new StoredResponse(requestHash, statusCode, contentType, body));
+    }
+
+    /** Gives up a claim whose request did not reach a final answer, so a retry runs it again. */
+    @Transactional
+    public void release(String key) {
+        recent.invalidate(key);
+        idempotencyRecordRepository.release(key);
+    }
+
+    /**
+     * Drops what this node remembers about a key whose outcome could not be recorded. The
+     * shared claim is left to its lease, after which a retry may take it over.
+     */
+    public void forget(String key) {
+        recent.invalidate(key);
+    }
+
+    @Scheduled(fixedDelayString = "${app.idempotency.purge-interval-ms:600000}")
+    @Transactional
+    public void purgeExpired() {
+        int purged = idempotencyRecordRepository.deleteExpired(LocalDateTime.now());
+        if(purged > 0) {
+            log.debug("Purged {} expired idempotency keys", purged);
+        }
+    }
+
+    private static Claim resolve(StoredResponse stored, String requestHash) {
+        if(!stored.requestHash().equals(requestHash)) {
+            return new Claim(Outcome.MISMATCH, null);
+        }
+        if(stored.statusCode() == 0) {
+            return new Claim(Outcome.IN_PROGRESS, null);
+        }
+        return new Claim(Outcome.REPLAY, stored);
+    }
+
+    public enum Outcome {
+        /** First request with this key: run it. */
+        PROCEED,
+        /** Already answered: send {@link Claim#response()} back. */
+        REPLAY,
+        /** The first request is still running. */
+        IN_PROGRESS,
+        /** The key was used for a different request. */
+        MISMATCH
+    }
+
+    public record Claim(Outcome outcome, StoredResponse response) {}
+
+    /** A finished response, or (statusCode 0) a claim whose request is still running. */
+    public record StoredResponse(String requestHash, int statusCode, String contentType, byte[] body) {
+        static StoredResponse inProgress(String requestHash) {
+            return new StoredResponse(requestHash, 0, null, null);
+        }
+    }
+}
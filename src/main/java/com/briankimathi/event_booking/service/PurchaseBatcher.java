@@ -0,0 +1,270 @@
+package com.briankimathi.event_booking.service;
+
+import com.briankimathi.event_booking.config.PurchaseConfig;
+import com.briankimathi.event_booking.domain.TicketPurchase;
+import com.briankimathi.event_booking.exception.ServiceUnavailableException;
+import com.briankimathi.event_booking.exception.ValidationException;
+import com.briankimathi.event_booking.repository.TicketPurchaseRepository;
+import com.briankimathi.event_booking.service.inventory.InventoryKey;
+import com.briankimathi.event_booking.service.inventory.TicketInventory;
+import com.briankimathi.event_booking.service.search.EventSearchIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Stream;
+
+/**
+ * Group-commits purchases. Request threads queue their purchase and wait; a worker
+ * collects whatever arrives within app.purchase.batch.max-delay (up to max-size), takes
+ * the tickets with one reservation per ticket type, inserts the purchases as one JDBC
+ * batch and commits once. Each caller then gets its own saved purchase or sold-out error.
+ *
+ * A batch that fails as a whole is replayed one purchase per transaction, so one bad
+ * purchase cannot fail its neighbours. A full queue fails fast with a
+ * {@link ServiceUnavailableException}, and so does a caller that waited too long; its
+ * purchase is withdrawn, or released straight away if it was already being committed, so
+ * a retry never buys twice.
+ */
+@Slf4j
+@Component
+public class PurchaseBatcher implements DisposableBean {
+
+    static final String SOLD_OUT_MESSAGE = "Not enough tickets available";
+    private static final String BUSY_MESSAGE = "Ticket sales are busy, please retry shortly";
+    private static final String STOPPING_MESSAGE = "Ticket sales are restarting, please retry shortly";
+
+    private final TicketPurchaseRepository ticketPurchaseRepository;
+    private final TicketInventory ticketInventory;
+    private final TransactionTemplate transactionTemplate;
+    private final PurchaseHoldExpiryService purchaseHoldExpiryService;
+    private final EventSearchIndex eventSearchIndex;
+    private final PurchaseConfig.Batch batchConfig;
+
+    private final ArrayBlockingQueue<Command> queue;
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean running = true;
+
+    public PurchaseBatcher(
+            TicketPurchaseRepository ticketPurchaseRepository,
+            TicketInventory ticketInventory,
+            TransactionTemplate transactionTemplate,
+            PurchaseHoldExpiryService purchaseHoldExpiryService,
+            EventSearchIndex eventSearchIndex,
+            PurchaseConfig purchaseConfig
+    ) {
+        this.ticketPurchaseRepository = ticketPurchaseRepository;
+        this.ticketInventory = ticketInventory;
+        this.transactionTemplate = transactionTemplate;
+        this.purchaseHoldExpiryService = purchaseHoldExpiryService;
+        this.eventSearchIndex = eventSearchIndex;
+        this.batchConfig = purchaseConfig.getBatch();
+        this.queue = new ArrayBlockingQueue<>(batchConfig.getQueueCapacity());
+
+        if(batchConfig.isEnabled()) {
+            for(int i = 1; i <= batchConfig.getWorkers(); i++) {
+                Thread worker = new Thread(this::run, "purchase-batcher-" + i);
+                worker.setDaemon(true);
+                worker.start();
+                workers.add(worker);
+            }
+        }
+    }
+
+    /**
+     * Reserves the purchase's tickets and saves it, returning the saved purchase. Throws a
+     * {@link ValidationException} when the ticket type is sold out.
+     */
+    public TicketPurchase purchase(InventoryKey key, TicketPurchase purchase) {
+        Command command = new Command(key, purchase, new CompletableFuture<>());
+        if(!batchConfig.isEnabled()) {
+            process(List.of(command));
+        } else if(!queue.offer(command)) {
+            throw new ServiceUnavailableException(BUSY_MESSAGE, batchConfig.getRetryAfterSeconds());
+        } else if(!running && queue.remove(command)) {
+            // Queued after the workers drained the queue on shutdown
+            throw new ServiceUnavailableException(STOPPING_MESSAGE, batchConfig.getRetryAfterSeconds());
+        }
+
+        try {
+            return command.result().get(batchConfig.getWaitTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            return withdraw(command);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return withdraw(command);
+        } catch (ExecutionException ex) {
+            throw unwrap(ex.getCause());
+        }
+    }
+
+    /**
+     * Gives up on a purchase the caller can no longer wait for. A queued one is skipped by
+     * the worker and one already being committed is released once it is; only a purchase
+     * that finished in the meantime is still returned.
+     */
+    private TicketPurchase withdraw(Command command) {
+        if(command.result().cancel(false)) {
+            throw new ServiceUnavailableException(BUSY_MESSAGE, batchConfig.getRetryAfterSeconds());
+        }
+        try {
+            return command.result().join();
+        } catch (CompletionException ex) {
+            throw unwrap(ex.getCause());
+        }
+    }
+
+    private static RuntimeException unwrap(Throwable cause) {
+        return cause instanceof RuntimeException runtimeException ? runtimeException : new IllegalStateException(cause);
+    }
+
+    private void run() {
+        List<Command> batch = new ArrayList<>(batchConfig.getMaxSize());
+        while(running) {
+            try {
+                Command first = queue.poll(1, TimeUnit.SECONDS);
+                if(first == null) {
+                    continue;
+                }
+
+                batch.add(first);
+                long deadline = System.nanoTime() + batchConfig.getMaxDelay().toNanos();
+                while(batch.size() < batchConfig.getMaxSize()) {
+                    if(queue.drainTo(batch, batchConfig.getMaxSize() - batch.size()) > 0) {
+                        continue;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    Command next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if(next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+
+                process(batch);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                reject(batch);
+                break;
+            } catch (RuntimeException ex) {
+                log.error("Purchase batch of {} failed unexpectedly", batch.size(), ex);
+                batch.forEach(command -> command.result().completeExceptionally(ex));
+            } finally {
+                batch.clear();
+            }
+        }
+
+        // Stopping: nothing queued will be committed, so its callers are answered now
+        List<Command> queued = new ArrayList<>();
+        queue.drainTo(queued);
+        reject(queued);
+    }
+
+    private void reject(List<Command> commands) {
+        commands.forEach(command -> command.result().completeExceptionally(
+                new ServiceUnavailableException(STOPPING_MESSAGE, batchConfig.getRetryAfterSeconds())));
+    }
+
+    void process(List<Command> queued) {
+        // Callers that stopped waiting while queued have withdrawn their purchase
+        List<Command> batch = queued.stream().filter(command -> !command.result().isDone()).toList();
+        if(batch.isEmpty()) {
+            return;
+        }
+
+        Outcome outcome;
+        try {
+            outcome = transactionTemplate.execute(status -> apply(batch));
+        } catch (RuntimeException ex) {
+            if(batch.size() == 1) {
+                batch.get(0).result().completeExceptionally(ex);
+                return;
+            }
+            log.warn("Purchase batch of {} rolled back, replaying one by one", batch.size(), ex);
+            for(Command command : batch) {
+                // Ids handed out by the rolled-back insert were never committed
+                command.purchase().setId(null);
+                process(List.of(command));
+            }
+            return;
+        }
+
+        for(Command command : outcome.accepted()) {
+            TicketPurchase saved = command.purchase();
+            if(command.result().complete(saved)) {
+                purchaseHoldExpiryService.schedule(saved.getId(), saved.getPurchaseDate());
+            } else {
+                // Withdrawn while it was being committed: nobody has the code, so the tickets go back now
+                purchaseHoldExpiryService.expireNow(saved.getId());
+            }
+        }
+        for(Command command : outcome.soldOut()) {
+            command.result().completeExceptionally(new ValidationException(SOLD_OUT_MESSAGE));
+        }
+
+        // Whichever way a ticket type was touched, the purchase that took its last ticket or
+        // the one turned away after it, it may have run out
+        Stream.concat(outcome.accepted().stream(), outcome.soldOut().stream())
+                .map(Command::key)
+                .distinct()
+                .forEach(key -> {
+                    if(ticketInventory.available(key) == 0) {
+                        eventSearchIndex.setAvailable(key.eventId(), key.ticketTypeId(), false);
+                    }
+                });
+    }
+
+    private Outcome apply(List<Command> batch) {
+        // Key order so concurrent batches lock inventory rows alike
+        Map<InventoryKey, List<Command>> byKey = new TreeMap<>();
+        for(Command command : batch) {
+            if(command.result().isDone()) {
+                continue;
+            }
+            byKey.computeIfAbsent(command.key(), key -> new ArrayList<>()).add(command);
+        }
+
+        List<Command> accepted = new ArrayList<>(batch.size());
+        List<Command> soldOut = new ArrayList<>();
+        byKey.forEach((key, commands) -> {
+            int total = commands.stream().mapToInt(command -> command.purchase().getQuantity()).sum();
+            if(ticketInventory.reserve(key, total)) {
+                accepted.addAll(commands);
+                return;
+            }
+
+            // Not enough for everyone: serve the batch in arrival order until it runs out
+            for(Command command : commands) {
+                if(ticketInventory.reserve(key, command.purchase().getQuantity())) {
+                    accepted.add(command);
+                } else {
+                    soldOut.add(command);
+                }
+            }
+        });
+
+        ticketPurchaseRepository.saveAll(accepted.stream().map(Command::purchase).toList());
+        return new Outcome(accepted, soldOut);
+    }
+
+    @Override
+    public void destroy() {
+        running = false;
+        workers.forEach(Thread::interrupt);
+    }
+
+    record Command(InventoryKey key, TicketPurchase purchase, CompletableFuture<TicketPurchase> result) {}
+
+    private record Outcome(List<Command> accepted, List<Command> soldOut) {}
+}
@@ -0,0 +1,161 @@
+package com.briankimathi.event_booking.service;
+
+import com.briankimathi.event_booking.config.PurchaseConfig;
+import com.briankimathi.event_booking.domain.enums.PurchaseStatus;
+import com.briankimathi.event_booking.repository.TicketPurchaseRepository;
+import com.briankimathi.event_booking.service.inventory.InventoryKey;
+import com.briankimathi.event_booking.service.inventory.TicketInventory;
+import com.briankimathi.event_booking.service.search.EventSearchIndex;
+import com.briankimathi.event_booking.util.HierarchicalTimingWheel;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Cancels PENDING purchases whose payment never arrived and returns their tickets.
+ * Holds sit in a timing wheel keyed by purchase id; request threads only enqueue, and the
+ * ticker moves the queue into the wheel before advancing it. A purchase that was paid in
+ * the meantime is skipped when its hold fires, so holds never need to be cancelled.
+ */
+@Slf4j
+@Service
+public class PurchaseHoldExpiryService {
+
+    private static final int WHEEL_LEVELS = 3;
+
+    private final TicketPurchaseRepository ticketPurchaseRepository;
+    private final TicketInventory ticketInventory;
+    private final TransactionTemplate transactionTemplate;
+    private final EventSearchIndex eventSearchIndex;
+    private final PurchaseConfig.Hold holdConfig;
+
+    private final ConcurrentLinkedQueue<Hold> incoming = new ConcurrentLinkedQueue<>();
+    private final HierarchicalTimingWheel wheel;
+
+    public PurchaseHoldExpiryService(
+            TicketPurchaseRepository ticketPurchaseRepository,
+            TicketInventory ticketInventory,
+            TransactionTemplate transactionTemplate,
+            EventSearchIndex eventSearchIndex,
+            PurchaseConfig purchaseConfig
+    ) {
+        this.ticketPurchaseRepository = ticketPurchaseRepository;
+        this.ticketInventory = ticketInventory;
+        this.transactionTemplate = transactionTemplate;
+        this.eventSearchIndex = eventSearchIndex;
+        this.holdConfig = purchaseConfig.getHold();
+        this.wheel = new HierarchicalTimingWheel(holdConfig.getTickMs(), WHEEL_LEVELS, System.currentTimeMillis());
+    }
+
+    public void schedule(Long purchaseId, LocalDateTime purchaseDate) {
+        incoming.add(new Hold(purchaseId, deadlineMs(purchaseDate)));
+    }
+
+    /** Cancels a PENDING purchase on the next tick instead of at the end of its hold. */
+    public void expireNow(Long purchaseId) {
+        incoming.add(new Hold(purchaseId, System.currentTimeMillis()));
+    }
+
+    /**
+     * Loads the holds of purchases left PENDING by earlier runs. The ticker may already be
+     * running, so the rows are added to the wheel it uses, skipping holds it already has.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<TicketPurchaseRepository.PendingHoldView> pending = ticketPurchaseRepository.findHoldsByStatus(PurchaseStatus.PENDING);
+
+        int added = 0;
+        synchronized(this) {
+            scheduleIncoming();
+            Set<Long> held = new HashSet<>(wheel.size() * 2);
+            wheel.forEachId(held::add);
+            for(TicketPurchaseRepository.PendingHoldView hold : pending) {
+                if(!held.contains(hold.getId())) {
+                    wheel.schedule(hold.getId(), deadlineMs(hold.getPurchaseDate()));
+                    added++;
+                }
+            }
+        }
+        log.info("Purchase hold wheel loaded {} of {} pending purchases", added, pending.size());
+    }
+
+    @Scheduled(fixedDelayString = "${app.purchase.hold.tick-ms:1000}")
+    public void expireHolds() {
+        List<Long> expired = new ArrayList<>();
+
+        synchronized(this) {
+            scheduleIncoming();
+            wheel.advance(System.currentTimeMillis(), expired::add);
+        }
+
+        int cancelled = 0;
+        for(int from = 0; from < expired.size(); from += holdConfig.getBatchSize()) {
+            List<Long> batch = expired.subList(from, Math.min(from + holdConfig.getBatchSize(), expired.size()));
+            try {
+                cancelled += cancelBatch(batch);
+            } catch (RuntimeException ex) {
+                log.error("Could not expire {} purchase holds, retrying on the next tick", batch.size(), ex);
+                long retryAt = System.currentTimeMillis();
+                batch.forEach(id -> incoming.add(new Hold(id, retryAt)));
+            }
+        }
+
+        if(cancelled > 0) {
+            log.info("Cancelled {} unpaid purchases", cancelled);
+        }
+    }
+
+    // Callers hold the lock
+    private void scheduleIncoming() {
+        Hold hold;
+        while((hold = incoming.poll()) != null) {
+            wheel.schedule(hold.purchaseId(), hold.deadlineMs());
+        }
+    }
+
+    private int cancelBatch(List<Long> ids) {
+        List<InventoryKey> releasedKeys = new ArrayList<>();
+        Integer cancelled = transactionTemplate.execute(status -> {
+            List<TicketPurchaseRepository.HoldView> holds = ticketPurchaseRepository.lockPendingHolds(ids);
+            if(holds.isEmpty()) {
+                return 0;
+            }
+
+            // One release per ticket type, in key order so concurrent batches lock rows alike
+            Map<InventoryKey, Integer> released = new TreeMap<>();
+            List<Long> pendingIds = new ArrayList<>(holds.size());
+            for(TicketPurchaseRepository.HoldView hold : holds) {
+                released.merge(new InventoryKey(hold.getEventId(), hold.getTicketTypeId()), hold.getQuantity(), Integer::sum);
+                pendingIds.add(hold.getId());
+            }
+
+            ticketPurchaseRepository.cancelPending(pendingIds, ticketInventory.isWriteBehind());
+            released.forEach(ticketInventory::release);
+            releasedKeys.addAll(released.keySet());
+            return pendingIds.size();
+        });
+
+        // Committed: the returned tickets can be bought again
+        releasedKeys.forEach(key -> eventSearchIndex.setAvailable(key.eventId(), key.ticketTypeId(), true));
+        return cancelled != null ? cancelled : 0;
+    }
+
+    private long deadlineMs(LocalDateTime purchaseDate) {
+        return purchaseDate.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() + holdConfig.getTimeout().toMillis();
+    }
+
+    private record Hold(Long purchaseId, long deadlineMs) {}
+}
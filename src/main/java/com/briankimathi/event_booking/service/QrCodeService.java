@@ -1,4 +1,178 @@
 package com.briankimathi.event_booking.service;
 
+import com.briankimathi.event_booking.config.QrCodeConfig;
+import com.briankimathi.event_booking.exception.ResourceNotFoundException;
+import com.briankimathi.event_booking.exception.ValidationException;
+import com.briankimathi.event_booking.repository.TicketPurchaseRepository;
+import com.briankimathi.event_booking.util.PurchaseCodeGenerator;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.EncodeHintType;
+import com.google.zxing.WriterException;
+import com.google.zxing.client.j2se.MatrixToImageWriter;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.qrcode.QRCodeWriter;
+import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Renders a purchase's QR code from its code when it is asked for, instead of keeping an
+ * image on every ticket_purchases row. Rendered images are kept in a cache bounded by
+ * app.qr-code.cache-size bytes. The image depends only on code, format and size, so the
+ * ETag is derived from those and a revalidation never renders.
+ */
+@Service
 public class QrCodeService {
+
+    // Bump when the rendering changes so clients drop their cached images
+    private static final String RENDER_VERSION = "1";
+
+    private final PurchaseCodeGenerator purchaseCodeGenerator;
+    private final TicketPurchaseRepository ticketPurchaseRepository;
+    private final QrCodeConfig qrCodeConfig;
+    private final Map<EncodeHintType, Object> hints;
+    private final Cache<String, byte[]> rendered;
+
+    private final ThreadLocal<ByteArrayOutputStream> pngBuffers = ThreadLocal.withInitial(() -> new ByteArrayOutputStream(4_096));
+    private final ThreadLocal<StringBuilder> svgBuffers = ThreadLocal.withInitial(() -> new StringBuilder(16_384));
+
+    public QrCodeService(
+            PurchaseCodeGenerator purchaseCodeGenerator,
+            TicketPurchaseRepository ticketPurchaseRepository,
+            QrCodeConfig qrCodeConfig
+    ) {
+        this.purchaseCodeGenerator = purchaseCodeGenerator;
+        this.ticketPurchaseRepository = ticketPurchaseRepository;
+        this.qrCodeConfig = qrCodeConfig;
+        this.hints = Map.of(
+                EncodeHintType.ERROR_CORRECTION, ErrorCorrectionLevel.M,
+                EncodeHintType.MARGIN, qrCodeConfig.getMargin(),
+                EncodeHintType.CHARACTER_SET, StandardCharsets.US_ASCII.name()
+        );
+        this.rendered = Caffeine.newBuilder()
+                .maximumWeight(qrCodeConfig.getCacheSize().toBytes())
+                .weigher((String key, byte[] image) -> key.length() + image.length)
+                .build();
+    }
+
+    public enum Format {
+        PNG(MediaType.IMAGE_PNG),
+        SVG(MediaType.valueOf("image/svg+xml"));
+
+        private final MediaType mediaType;
+
+        Format(MediaType mediaType) {
+            this.mediaType = mediaType;
+        }
+
+        public MediaType mediaType() {
+            return mediaType;
+        }
+
+        public static Format parse(String format) {
+            for(Format candidate : values()) {
+                if(candidate.name().equalsIgnoreCase(format)) {
+                    return candidate;
+                }
+            }
+            throw new ValidationException("QR code format must be png or svg");
+        }
+    }
+
+    /**
+     * Checks the request and returns the ETag of the image it would get. Signed codes are
+     * accepted without a lookup; codes from before signing must belong to a purchase.
+     */
+    public String etag(String purchaseCode, Format format, Integer size) {
+        int pixels = resolveSize(size);
+        if(!purchaseCodeGenerator.isAuthentic(purchaseCode)
+                && !(purchaseCodeGenerator.mayExist(purchaseCode) && ticketPurchaseRepository.existsByPurchaseCode(purchaseCode))) {
+            throw new ResourceNotFoundException("Purchase not found with code: " + purchaseCode);
+        }
+        return "\"qr" + RENDER_VERSION + "-" + format.name().toLowerCase() + "-" + pixels + "-" + purchaseCode + "\"";
+    }
+
+    public CacheControl cacheControl() {
+        // The code is what admits the holder, so shared caches must not keep the image
+        return CacheControl.maxAge(qrCodeConfig.getMaxAge()).cachePrivate();
+    }
+
+    public byte[] render(String purchaseCode, Format format, Integer size) {
+        int pixels = resolveSize(size);
+        return rendered.get(format.name() + ":" + pixels + ":" + purchaseCode, key -> switch(format) {
+            case PNG -> renderPng(purchaseCode, pixels);
+            case SVG -> renderSvg(purchaseCode, pixels);
+        });
+    }
+
+    private byte[] renderPng(String purchaseCode, int pixels) {
+        BitMatrix matrix = encode(purchaseCode, pixels);
+        ByteArrayOutputStream buffer = pngBuffers.get();
+        buffer.reset();
+        try {
+            MatrixToImageWriter.writeToStream(matrix, "PNG", buffer);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return buffer.toByteArray();
+    }
+
+    // One path over the modules, with each horizontal run of dark modules as one rectangle
+    private byte[] renderSvg(String purchaseCode, int pixels) {
+        BitMatrix modules = encode(purchaseCode, 0);
+        int width = modules.getWidth();
+        int height = modules.getHeight();
+
+        StringBuilder svg = svgBuffers.get();
+        svg.setLength(0);
+        svg.append("<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"").append(pixels)
+                .append("\" height=\"").append(pixels)
+                .append("\" viewBox=\"0 0 ").append(width).append(' ').append(height)
+                .append("\" shape-rendering=\"crispEdges\"><rect width=\"100%\" height=\"100%\" fill=\"#fff\"/><path d=\"");
+        for(int y = 0; y < height; y++) {
+            int x = 0;
+            while(x < width) {
+                if(!modules.get(x, y)) {
+                    x++;
+                    continue;
+                }
+                int start = x;
+                while(x < width && modules.get(x, y)) {
+                    x++;
+                }
+                svg.append('M').append(start).append(' ').append(y)
+                        .append('h').append(x - start).append("v1h-").append(x - start).append('z');
+            }
+        }
+        svg.append("\"/></svg>");
+        return svg.toString().getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private BitMatrix encode(String purchaseCode, int pixels) {
+        try {
+            return new QRCodeWriter().encode(purchaseCode, BarcodeFormat.QR_CODE, pixels, pixels, hints);
+        } catch (WriterException ex) {
+            throw new ValidationException("Purchase code cannot be encoded as a QR code");
+        }
+    }
+
+    private int resolveSize(Integer size) {
+        if(size == null) {
+            return qrCodeConfig.getDefaultSize();
+        }
+        if(size < qrCodeConfig.getMinSize() || size > qrCodeConfig.getMaxSize()) {
+            throw new ValidationException("QR code size must be between " + qrCodeConfig.getMinSize()
+                    + " and " + qrCodeConfig.getMaxSize() + " pixels");
+        }
+        return size;
+    }
 }
@@ -0,0 +1,149 @@
+package com.briankimathi.event_booking.service;
+
+import com.briankimathi.event_booking.config.CacheConfig;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Hot public responses kept as the bytes that go out, UTF-8 JSON and gzip, so a popular
+ * event or first listing page is serialized and compressed once per version rather than
+ * once per request. The caller derives the version from what the response shows and the
+ * strong ETag from the version, so If-None-Match is answered with a 304 before any bytes
+ * are looked up. Entries are replaced when a request brings another version and are
+ * bounded by app.cache.events.max-response-size bytes.
+ */
+@Component
+public class ResponseBytesCache {
+
+    private static final String GZIP = "gzip";
+    // Below this, gzip framing costs about what it saves
+    private static final int MIN_GZIP_SIZE = 512;
+
+    private final JsonMapper jsonMapper;
+    private final Cache<String, Entry> responses;
+
+    public ResponseBytesCache(JsonMapper jsonMapper, CacheConfig cacheConfig, MeterRegistry meterRegistry) {
+        this.jsonMapper = jsonMapper;
+        this.responses = Caffeine.newBuilder()
+                .maximumWeight(cacheConfig.getEvents().getMaxResponseSize().toBytes())
+                .weigher((String key, Entry entry) -> key.length() + entry.size())
+                .expireAfterWrite(cacheConfig.getEvents().getTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, responses, "eventResponses");
+    }
+
+    /**
+     * 304 when If-None-Match names the version, otherwise the body at that version, gzipped
+     * when the client accepts it. The bytes are kept under key; a null key renders them
+     * without keeping them, for responses too rarely repeated to be worth the space.
+     */
+    public ResponseEntity<byte[]> respond(
+            String key,
+            String version,
+            String ifNoneMatch,
+            String acceptEncoding,
+            Supplier<?> body
+    ) {
+        String etag = "\"" + version + "\"";
+        String gzipEtag = "\"" + version + "-" + GZIP + "\"";
+        String matched = matching(ifNoneMatch, etag, gzipEtag);
+        if(matched != null) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(matched)
+                    .cacheControl(CacheControl.noCache())
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+
+        Entry entry = key == null ? null : responses.getIfPresent(key);
+        if(entry == null || !entry.version().equals(version)) {
+            entry = render(version, body.get());
+            if(key != null) {
+                responses.put(key, entry);
+            }
+        }
+
+        boolean gzip = entry.gzip() != null && acceptsGzip(acceptEncoding);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(gzip ? gzipEtag : etag)
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if(gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, GZIP);
+        }
+        return response.body(gzip ? entry.gzip() : entry.json());
+    }
+
+    private Entry render(String version, Object body) {
+        byte[] json = jsonMapper.writeValueAsBytes(body);
+        return new Entry(version, json, json.length < MIN_GZIP_SIZE ? null : gzip(json));
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(json.length / 4 + 64);
+        try(GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+            out.write(json);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return buffer.toByteArray();
+    }
+
+    // Weak comparison, as If-None-Match allows; returns the tag that matched
+    private static String matching(String ifNoneMatch, String etag, String gzipEtag) {
+        if(ifNoneMatch == null) {
+            return null;
+        }
+        for(String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if(tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if(tag.equals("*") || tag.equals(etag)) {
+                return etag;
+            }
+            if(tag.equals(gzipEtag)) {
+                return gzipEtag;
+            }
+        }
+        return null;
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if(acceptEncoding == null) {
+            return false;
+        }
+        for(String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            if(parts[0].trim().equalsIgnoreCase(GZIP)) {
+                return parts.length == 1 || !parts[1].trim().matches("q=0(\\.0{0,3})?");
+            }
+        }
+        return false;
+    }
+
+    // gzip is null when the JSON is too small to be worth compressing
+    private record Entry(String version, byte[] json, byte[] gzip) {
+
+        int size() {
+            return json.length + (gzip == null ? 0 : gzip.length);
+        }
+    }
+}
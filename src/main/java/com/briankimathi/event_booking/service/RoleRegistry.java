@@ -0,0 +1,49 @@
+package com.briankimathi.event_booking.service;
+
+import com.briankimathi.event_booking.domain.Role;
+import com.briankimathi.event_booking.domain.enums.UserRoleEnum;
+import com.briankimathi.event_booking.repository.RoleRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Roles are seeded by migration and never change at runtime, so they are read once
+ * and served from an immutable table instead of a lookup per signup.
+ */
+@Component
+@RequiredArgsConstructor
+public class RoleRegistry {
+
+    private final RoleRepository roleRepository;
+
+    private volatile Map<UserRoleEnum, Role> roles = Collections.emptyMap();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        Map<UserRoleEnum, Role> loaded = new EnumMap<>(UserRoleEnum.class);
+        roleRepository.findAll().forEach(role -> loaded.put(role.getName(), role));
+        roles = Collections.unmodifiableMap(loaded);
+    }
+
+    public Role get(UserRoleEnum name) {
+        Role role = roles.get(name);
+
+        if(role == null) {
+            // Roles seeded after startup (e.g. by test fixtures) are picked up on first miss
+            load();
+            role = roles.get(name);
+        }
+
+        if(role == null) {
+            throw new IllegalStateException(name + " role not found");
+        }
+
+        return role;
+    }
+}
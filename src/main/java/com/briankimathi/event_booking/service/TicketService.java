@@ -1,4 +1,125 @@
 package com.briankimathi.event_booking.service;
 
+import com.briankimathi.event_booking.domain.Event;
+import com.briankimathi.event_booking.domain.EventTicketType;
+import com.briankimathi.event_booking.domain.TicketPurchase;
+import com.briankimathi.event_booking.domain.enums.EventStatus;
+import com.briankimathi.event_booking.domain.enums.PurchaseStatus;
+import com.briankimathi.event_booking.dto.request.PurchaseRequest;
+import com.briankimathi.event_booking.dto.response.PurchaseResponse;
+import com.briankimathi.event_booking.exception.ResourceNotFoundException;
+import com.briankimathi.event_booking.exception.ValidationException;
+import com.briankimathi.event_booking.repository.EventTicketTypeRepository;
+import com.briankimathi.event_booking.repository.TicketPurchaseRepository;
+import com.briankimathi.event_booking.repository.UserRepository;
+import com.briankimathi.event_booking.security.SecurityUser;
+import com.briankimathi.event_booking.service.inventory.InventoryKey;
+import com.briankimathi.event_booking.service.inventory.TicketInventory;
+import com.briankimathi.event_booking.service.waitingroom.WaitingRoomService;
+import com.briankimathi.event_booking.util.PurchaseCodeGenerator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+
+@Service
+@RequiredArgsConstructor
 public class TicketService {
+
+    private final EventTicketTypeRepository eventTicketTypeRepository;
+    private final TicketPurchaseRepository ticketPurchaseRepository;
+    private final UserRepository userRepository;
+    private final TicketInventory ticketInventory;
+    private final PurchaseCodeGenerator purchaseCodeGenerator;
+    private final PurchaseBatcher purchaseBatcher;
+    private final WaitingRoomService waitingRoomService;
+
+    /**
+     * Reserves the tickets and records a PENDING purchase while payment is in flight.
+     * A guest purchase passes a null buyer. The write is group-committed with other
+     * concurrent purchases, so this method holds no transaction of its own.
+     */
+    public PurchaseResponse purchase(PurchaseRequest request, SecurityUser buyer) {
+        String buyerEmail = buyer != null ? buyer.getEmail() : request.getBuyerEmail();
+        if(!StringUtils.hasText(buyerEmail)) {
+            throw new ValidationException("Buyer email is required for guest purchases");
+        }
+
+        // Checked before any inventory work so a queued crowd never reaches the inventory rows
+        String admission = waitingRoomService.admit(request.getEventId(), request.getAdmissionToken(), buyerEmail);
+        try {
+            return reserve(request, buyer, buyerEmail);
+        } catch (RuntimeException ex) {
+            waitingRoomService.release(admission);
+            throw ex;
+        }
+    }
+
+    private PurchaseResponse reserve(PurchaseRequest request, SecurityUser buyer, String buyerEmail) {
+        EventTicketType eventTicketType = eventTicketTypeRepository
+                .findForPurchase(request.getEventTicketTypeId(), request.getEventId())
+                .orElseThrow(() -> new ResourceNotFoundException("Ticket type not found for event: " + request.getEventId()));
+
+        Event event = eventTicketType.getEvent();
+        if(event.getStatus() != EventStatus.PUBLISHED || !event.getStartDate().isAfter(LocalDateTime.now())) {
+            throw new ValidationException("Tickets are not on sale for this event");
+        }
+
+        int quantity = request.getQuantity();
+        InventoryKey key = new InventoryKey(event.getId(), eventTicketType.getTicketType().getId());
+
+        TicketPurchase purchase = TicketPurchase.builder()
+                .user(buyer != null ? userRepository.getReferenceById(buyer.getId()) : null)
+                .event(event)
+                .ticketType(eventTicketType.getTicketType())
+                .quantity(quantity)
+                .totalAmount(eventTicketType.getPrice().multiply(BigDecimal.valueOf(quantity)))
+                .buyerEmail(buyerEmail)
+                .buyerPhone(request.getBuyerPhone())
+                .purchaseCode(purchaseCodeGenerator.generate())
+                .status(PurchaseStatus.PENDING)
+                .purchaseDate(LocalDateTime.now())
+                .inventorySynced(!ticketInventory.isWriteBehind())
+                .build();
+
+        return toResponse(purchaseBatcher.purchase(key, purchase));
+    }
+
+    @Transactional(readOnly = true)
+    public PurchaseResponse getPurchaseByCode(String purchaseCode) {
+        // Forged or mistyped codes are turned away without a query
+        if(!purchaseCodeGenerator.mayExist(purchaseCode)) {
+            throw new ResourceNotFoundException("Purchase not found with code: " + purchaseCode);
+        }
+        return ticketPurchaseRepository.findByPurchaseCode(purchaseCode)
+                .map(this::toResponse)
+                .orElseThrow(() -> new ResourceNotFoundException("Purchase not found with code: " + purchaseCode));
+    }
+
+    private PurchaseResponse toResponse(TicketPurchase purchase) {
+        Event event = purchase.getEvent();
+
+        return PurchaseResponse.builder()
+                .purchaseCode(purchase.getPurchaseCode())
+                .event(PurchaseResponse.EventSummary.builder()
+                        .id(event.getId())
+                        .title(event.getTitle())
+                        .eventDate(event.getStartDate())
+                        .venueName(event.getVenue())
+                        .build())
+                .ticketType(PurchaseResponse.TicketTypeSummary.builder()
+                        .name(purchase.getTicketType().getName())
+                        .price(purchase.getTotalAmount().divide(BigDecimal.valueOf(purchase.getQuantity()), 2, RoundingMode.HALF_UP))
+                        .build())
+                .quantity(purchase.getQuantity())
+                .totalAmount(purchase.getTotalAmount())
+                .buyerEmail(purchase.getBuyerEmail())
+                .purchaseDate(purchase.getPurchaseDate())
+                .purchaseStatus(purchase.getStatus().name())
+                .build();
+    }
 }
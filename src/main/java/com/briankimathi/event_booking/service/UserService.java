@@ -1,4 +1,87 @@
 package com.briankimathi.event_booking.service;
 
+import com.briankimathi.event_booking.domain.User;
+import com.briankimathi.event_booking.domain.UserRole;
+import com.briankimathi.event_booking.domain.enums.CreatorVerificationStatus;
+import com.briankimathi.event_booking.domain.enums.UserRoleEnum;
+import com.briankimathi.event_booking.dto.response.UserStatusResponse;
+import com.briankimathi.event_booking.exception.ResourceNotFoundException;
+import com.briankimathi.event_booking.repository.UserRepository;
+import com.briankimathi.event_booking.security.TokenRevocationService;
+import com.briankimathi.event_booking.security.UserDetailsCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+@RequiredArgsConstructor
 public class UserService {
+
+    private final UserRepository userRepository;
+    private final RoleRegistry roleRegistry;
+    private final UserDetailsCache userDetailsCache;
+    private final TokenRevocationService tokenRevocationService;
+
+    @Transactional
+    public UserStatusResponse suspendUser(Long userId) {
+        User user = getUser(userId);
+
+        if(!user.getIsSuspended()) {
+            // Cuts off every session the user currently holds, not just future logins
+            tokenRevocationService.revokeUserTokens(user.getId(), user.getSuspensionEpoch());
+            user.setIsSuspended(true);
+            user.setSuspensionEpoch(user.getSuspensionEpoch() + 1);
+        }
+
+        userDetailsCache.evict(user.getEmail());
+        return toStatusResponse(user);
+    }
+
+    @Transactional
+    public UserStatusResponse activateUser(Long userId) {
+        User user = getUser(userId);
+        user.setIsSuspended(false);
+        user.setIsActive(true);
+
+        userDetailsCache.evict(user.getEmail());
+        return toStatusResponse(user);
+    }
+
+    @Transactional
+    public UserStatusResponse verifyCreator(Long userId) {
+        User user = userRepository.findWithRolesById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
+        user.setCreatorVerificationStatus(CreatorVerificationStatus.VERIFIED);
+        grantRole(user, UserRoleEnum.CREATOR);
+
+        return toStatusResponse(user);
+    }
+
+    @Transactional
+    public void grantRole(User user, UserRoleEnum roleName) {
+        boolean alreadyGranted = user.getUserRoles().stream()
+                .anyMatch(userRole -> userRole.getRole().getName() == roleName);
+
+        if(!alreadyGranted) {
+            user.getUserRoles().add(UserRole.builder()
+                    .user(user)
+                    .role(roleRegistry.get(roleName))
+                    .build());
+        }
+
+        userDetailsCache.evict(user.getEmail());
+    }
+
+    private User getUser(Long userId) {
+        return userRepository.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
+    }
+
+    private UserStatusResponse toStatusResponse(User user) {
+        return UserStatusResponse.builder()
+                .id(user.getId())
+                .accountStatus(user.getIsSuspended() ? "SUSPENDED" : user.getIsActive() ? "ACTIVE" : "INACTIVE")
+                .creatorStatus(user.getCreatorVerificationStatus().name())
+                .build();
+    }
 }
@@ -0,0 +1,163 @@
+package com.briankimathi.event_booking.service.checkin;
+
+import com.briankimathi.event_booking.config.CheckInConfig;
+import com.briankimathi.event_booking.domain.enums.PurchaseStatus;
+import com.briankimathi.event_booking.dto.response.CheckInResponse;
+import com.briankimathi.event_booking.exception.ResourceNotFoundException;
+import com.briankimathi.event_booking.repository.EventRepository;
+import com.briankimathi.event_booking.repository.TicketPurchaseRepository;
+import com.briankimathi.event_booking.security.SecurityUser;
+import com.briankimathi.event_booking.util.PurchaseCodeGenerator;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Gate check-in. The first scan for an event loads a {@link CheckInSnapshot} of its
+ * COMPLETED purchases; after that a scan is answered from memory and the check-in is
+ * queued, to be written to ticket_purchases.checked_in_at in batches. Codes missing from
+ * the snapshot (bought after it was loaded) are checked in with a single UPDATE instead.
+ *
+ * Duplicate scans are caught per node, so all gates of an event should scan through the
+ * same node. Unflushed check-ins are lost if the node stops.
+ */
+@Slf4j
+@Service
+public class CheckInService {
+
+    private final TicketPurchaseRepository ticketPurchaseRepository;
+    private final EventRepository eventRepository;
+    private final PurchaseCodeGenerator purchaseCodeGenerator;
+    private final TransactionTemplate transactionTemplate;
+    private final CheckInConfig checkInConfig;
+
+    private final Cache<Long, CheckInSnapshot> snapshots;
+    private final ConcurrentLinkedQueue<Long> pending = new ConcurrentLinkedQueue<>();
+
+    public CheckInService(
+            TicketPurchaseRepository ticketPurchaseRepository,
+            EventRepository eventRepository,
+            PurchaseCodeGenerator purchaseCodeGenerator,
+            TransactionTemplate transactionTemplate,
+            CheckInConfig checkInConfig
+    ) {
+        this.ticketPurchaseRepository = ticketPurchaseRepository;
+        this.eventRepository = eventRepository;
+        this.purchaseCodeGenerator = purchaseCodeGenerator;
+        this.transactionTemplate = transactionTemplate;
+        this.checkInConfig = checkInConfig;
+        this.snapshots = Caffeine.newBuilder()
+                .maximumSize(checkInConfig.getMaxEvents())
+                .expireAfterAccess(checkInConfig.getIdleTimeout())
+                .build();
+    }
+
+    public CheckInResponse checkIn(Long eventId, String purchaseCode, SecurityUser staff) {
+        // A cached snapshot carries the creator; otherwise the creator is checked before
+        // anything is loaded, so a stranger cannot make the node load and keep a snapshot
+        CheckInSnapshot snapshot = snapshots.getIfPresent(eventId);
+        if(snapshot != null) {
+            authorize(snapshot.creatorId(), staff);
+        } else {
+            Long creatorId = creatorId(eventId);
+            authorize(creatorId, staff);
+            snapshot = snapshots.get(eventId, id -> load(id, creatorId));
+        }
+
+        CheckInResponse.Result result;
+        if(!purchaseCodeGenerator.mayExist(purchaseCode)) {
+            result = CheckInResponse.Result.NOT_FOUND;
+        } else {
+            int index = snapshot.indexOf(purchaseCode);
+            if(index < 0) {
+                result = checkInDirectly(eventId, purchaseCode);
+            } else if(snapshot.markCheckedIn(index)) {
+                pending.add(snapshot.purchaseId(index));
+                result = CheckInResponse.Result.ADMITTED;
+            } else {
+                result = CheckInResponse.Result.ALREADY_CHECKED_IN;
+            }
+        }
+
+        return CheckInResponse.builder()
+                .purchaseCode(purchaseCode)
+                .result(result)
+                .build();
+    }
+
+    /**
+     * A fresh snapshot of the event, including check-ins made so far, for export to
+     * scanners that work offline (see {@link CheckInSnapshot#writeTo}).
+     */
+    public CheckInSnapshot exportSnapshot(Long eventId, SecurityUser staff) {
+        Long creatorId = creatorId(eventId);
+        authorize(creatorId, staff);
+        flush();
+        return load(eventId, creatorId);
+    }
+
+    @Scheduled(fixedDelayString = "${app.check-in.flush-interval-ms:500}")
+    public void flush() {
+        List<Long> batch = new ArrayList<>(Math.min(pending.size(), checkInConfig.getFlushBatchSize()));
+        Long purchaseId;
+        while((purchaseId = pending.poll()) != null) {
+            batch.add(purchaseId);
+            if(batch.size() == checkInConfig.getFlushBatchSize()) {
+                write(batch);
+                batch.clear();
+            }
+        }
+        if(!batch.isEmpty()) {
+            write(batch);
+        }
+    }
+
+    private void write(List<Long> batch) {
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    ticketPurchaseRepository.markCheckedIn(batch, LocalDateTime.now()));
+        } catch (RuntimeException ex) {
+            // Kept in memory either way; retried on the next flush
+            log.warn("Could not record {} check-ins, retrying", batch.size(), ex);
+            pending.addAll(batch);
+        }
+    }
+
+    private CheckInResponse.Result checkInDirectly(Long eventId, String purchaseCode) {
+        Integer updated = transactionTemplate.execute(status -> ticketPurchaseRepository.checkInByCode(eventId, purchaseCode));
+        if(updated != null && updated == 1) {
+            return CheckInResponse.Result.ADMITTED;
+        }
+        return ticketPurchaseRepository.existsByPurchaseCodeAndEventIdAndStatus(purchaseCode, eventId, PurchaseStatus.COMPLETED)
+                ? CheckInResponse.Result.ALREADY_CHECKED_IN
+                : CheckInResponse.Result.NOT_FOUND;
+    }
+
+    private Long creatorId(Long eventId) {
+        return eventRepository.findCreatorId(eventId)
+                .orElseThrow(() -> new ResourceNotFoundException("Event not found with id: " + eventId));
+    }
+
+    private CheckInSnapshot load(Long eventId, Long creatorId) {
+        CheckInSnapshot snapshot = CheckInSnapshot.build(eventId, creatorId, ticketPurchaseRepository.findCheckInRows(eventId));
+        log.info("Loaded check-in snapshot for event {} with {} purchases", eventId, snapshot.size());
+        return snapshot;
+    }
+
+    private static void authorize(Long creatorId, SecurityUser staff) {
+        boolean admin = staff.getAuthorities().stream()
+                .anyMatch(authority -> "ROLE_ADMIN".equals(authority.getAuthority()));
+        if(!admin && !staff.getId().equals(creatorId)) {
+            throw new AccessDeniedException("Only the event's creator can check in its tickets");
+        }
+    }
+}
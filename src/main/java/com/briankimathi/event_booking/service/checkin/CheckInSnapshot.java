@@ -0,0 +1,148 @@
+package com.briankimathi.event_booking.service.checkin;
+
+import com.briankimathi.event_booking.repository.TicketPurchaseRepository;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The COMPLETED purchases of one event, packed for gate scanning: codes are stored as
+ * sorted 64-bit hashes with the purchase ids alongside, and check-ins are one bit each.
+ * A scan is a binary search and a CAS on the bit, so a second scan of a code is caught
+ * without locking.
+ *
+ * {@link #writeTo} exports the same structure for scanners that work offline:
+ * <pre>
+ *   "EVCK"             magic
+ *   int                format version (1)
+ *   long               event id
+ *   long               generated at, epoch millis
+ *   int                n, number of purchases
+ *   n x long           code hashes, ascending
+ *   ceil(n / 8) bytes  check-in bitmap, bit i (LSB first) set when hash i is checked in
+ * </pre>
+ * All numbers are big-endian; a code's hash is the first 8 bytes of SHA-256 over its UTF-8.
+ */
+public final class CheckInSnapshot {
+
+    static final int FORMAT_VERSION = 1;
+    private static final byte[] MAGIC = "EVCK".getBytes(StandardCharsets.US_ASCII);
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    });
+
+    private final long eventId;
+    private final Long creatorId;
+    private final long[] codeHashes;
+    private final long[] purchaseIds;
+    private final AtomicLongArray checkedIn;
+
+    private CheckInSnapshot(long eventId, Long creatorId, long[] codeHashes, long[] purchaseIds, AtomicLongArray checkedIn) {
+        this.eventId = eventId;
+        this.creatorId = creatorId;
+        this.codeHashes = codeHashes;
+        this.purchaseIds = purchaseIds;
+        this.checkedIn = checkedIn;
+    }
+
+    public static CheckInSnapshot build(long eventId, Long creatorId, List<TicketPurchaseRepository.CheckInView> rows) {
+        int n = rows.size();
+        long[] hashes = new long[n];
+        for(int i = 0; i < n; i++) {
+            hashes[i] = hash(rows.get(i).getPurchaseCode());
+        }
+
+        Integer[] order = new Integer[n];
+        for(int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(hashes[a], hashes[b]));
+
+        long[] sortedHashes = new long[n];
+        long[] ids = new long[n];
+        AtomicLongArray bits = new AtomicLongArray((n + 63) >>> 6);
+        for(int i = 0; i < n; i++) {
+            TicketPurchaseRepository.CheckInView row = rows.get(order[i]);
+            sortedHashes[i] = hashes[order[i]];
+            ids[i] = row.getId();
+            if(Boolean.TRUE.equals(row.getCheckedIn())) {
+                long bit = 1L << (i & 63);
+                bits.getAndUpdate(i >>> 6, word -> word | bit);
+            }
+        }
+        return new CheckInSnapshot(eventId, creatorId, sortedHashes, ids, bits);
+    }
+
+    public static long hash(String purchaseCode) {
+        byte[] digest = SHA_256.get().digest(purchaseCode.getBytes(StandardCharsets.UTF_8));
+        long hash = 0;
+        for(int i = 0; i < Long.BYTES; i++) {
+            hash = hash << 8 | (digest[i] & 0xFF);
+        }
+        return hash;
+    }
+
+    /** Position of the code, or -1 when it is not a COMPLETED purchase of this event. */
+    public int indexOf(String purchaseCode) {
+        int index = Arrays.binarySearch(codeHashes, hash(purchaseCode));
+        return index >= 0 ? index : -1;
+    }
+
+    /** Marks the purchase at index as checked in; false when it already was. */
+    public boolean markCheckedIn(int index) {
+        long bit = 1L << (index & 63);
+        long word = checkedIn.getAndUpdate(index >>> 6, current -> current | bit);
+        return (word & bit) == 0;
+    }
+
+    public boolean isCheckedIn(int index) {
+        return (checkedIn.get(index >>> 6) & 1L << (index & 63)) != 0;
+    }
+
+    public long purchaseId(int index) {
+        return purchaseIds[index];
+    }
+
+    public long eventId() {
+        return eventId;
+    }
+
+    public Long creatorId() {
+        return creatorId;
+    }
+
+    public int size() {
+        return codeHashes.length;
+    }
+
+    public void writeTo(OutputStream out, long generatedAtMillis) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        data.write(MAGIC);
+        data.writeInt(FORMAT_VERSION);
+        data.writeLong(eventId);
+        data.writeLong(generatedAtMillis);
+        data.writeInt(codeHashes.length);
+        for(long hash : codeHashes) {
+            data.writeLong(hash);
+        }
+
+        int bytes = (codeHashes.length + 7) >>> 3;
+        for(int i = 0; i < bytes; i++) {
+            long word = checkedIn.get(i >>> 3);
+            data.writeByte((int) (word >>> ((i & 7) * 8)));
+        }
+        data.flush();
+    }
+}
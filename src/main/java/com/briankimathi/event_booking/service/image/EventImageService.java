@@ -0,0 +1,340 @@
+package com.briankimathi.event_booking.service.image;
+
+import com.briankimathi.event_booking.config.ImageConfig;
+import com.briankimathi.event_booking.dto.response.EventImageResponse;
+import com.briankimathi.event_booking.exception.ResourceNotFoundException;
+import com.briankimathi.event_booking.exception.ServiceUnavailableException;
+import com.briankimathi.event_booking.exception.ValidationException;
+import com.briankimathi.event_booking.security.SecurityUser;
+import com.briankimathi.event_booking.service.EventService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Event images uploaded by their creators. An upload is spooled to disk by the container
+ * and moved under app.image.storage-dir/{eventId}/{version}; only its header is read on the
+ * request thread. A bounded pool then renders the hero, card and thumbnail variants as
+ * JPEG, deletes the original and points the event's imageUrl at the new variant set, so
+ * pages never see a set that is still being rendered. A full queue fails the upload with a
+ * {@link ServiceUnavailableException}.
+ *
+ * Versions start with the upload time, so a render that finishes after a newer upload's
+ * leaves the newer set in place. Superseded sets stay on disk for
+ * app.image.superseded-retention, since cached event responses still link to them, and are
+ * then removed by a scheduled sweep.
+ *
+ * Variant URLs carry the version and never change, so they are served with a long max-age
+ * and, where the container supports it, sent with sendfile rather than copied.
+ */
+@Slf4j
+@Service
+public class EventImageService implements DisposableBean {
+
+    private static final String BUSY_MESSAGE = "Image processing is busy, please retry shortly";
+    private static final String ORIGINAL = "original";
+    private static final Pattern EVENT_ID = Pattern.compile("[0-9]{1,18}");
+    // Upload time in milliseconds, then random bits, so versions sort by upload
+    private static final Pattern VERSION = Pattern.compile("[0-9a-f]{16}");
+    private static final int VERSION_TIME_DIGITS = 11;
+    // Tomcat's request attributes for handing a file to sendfile
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final EventService eventService;
+    private final ImageConfig imageConfig;
+    private final Path storageDir;
+    private final ThreadPoolExecutor executor;
+
+    public EventImageService(EventService eventService, ImageConfig imageConfig) {
+        this.eventService = eventService;
+        this.imageConfig = imageConfig;
+        if(imageConfig.getStorageDir() == null || imageConfig.getStorageDir().isBlank()) {
+            throw new IllegalStateException("app.image.storage-dir must be set");
+        }
+        this.storageDir = Path.of(imageConfig.getStorageDir());
+        try {
+            // The container spools multipart uploads here
+            Files.createDirectories(storageDir.resolve("incoming"));
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not create image storage directory " + storageDir, ex);
+        }
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                imageConfig.getThreads(),
+                imageConfig.getThreads(),
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(imageConfig.getQueueCapacity()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "image-resize-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+
+    public enum Variant {
+        HERO(1_280),
+        CARD(480),
+        THUMBNAIL(160);
+
+        private final int width;
+
+        Variant(int width) {
+            this.width = width;
+        }
+
+        public int width() {
+            return width;
+        }
+
+        public String label() {
+            return name().toLowerCase();
+        }
+
+        public static Variant parse(String label) {
+            for(Variant variant : values()) {
+                if(variant.label().equals(label)) {
+                    return variant;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Stores the upload and queues its variants. The event keeps its current image until
+     * they are ready; the response names the URLs they will have.
+     */
+    public EventImageResponse upload(Long eventId, MultipartFile file, SecurityUser user) {
+        eventService.checkCanChange(eventId, user);
+        if(file.isEmpty()) {
+            throw new ValidationException("Image file is empty");
+        }
+
+        String version = String.format("%0" + VERSION_TIME_DIGITS + "x%05x",
+                System.currentTimeMillis(), ThreadLocalRandom.current().nextInt(1 << 20));
+        Path dir = storageDir.resolve(String.valueOf(eventId)).resolve(version);
+        Path original = dir.resolve(ORIGINAL);
+        try {
+            Files.createDirectories(dir);
+            // The File overload hands over to Part.write, which renames the spooled upload
+            // into place; the Path overload copies it through a stream
+            file.transferTo(original.toAbsolutePath().toFile());
+
+            ImageResizer.Header header = ImageResizer.header(original);
+            if(header == null) {
+                throw new ValidationException("Image must be a JPEG or PNG");
+            }
+            if((long) header.width() * header.height() > imageConfig.getMaxPixels()) {
+                throw new ValidationException("Image must be at most " + imageConfig.getMaxPixels() + " pixels");
+            }
+
+            executor.execute(() -> render(eventId, version, dir, original));
+        } catch (IOException ex) {
+            delete(dir);
+            throw new UncheckedIOException("Could not store image for event " + eventId, ex);
+        } catch (RejectedExecutionException ex) {
+            delete(dir);
+            throw new ServiceUnavailableException(BUSY_MESSAGE, imageConfig.getRetryAfterSeconds());
+        } catch (RuntimeException ex) {
+            delete(dir);
+            throw ex;
+        }
+
+        String imageUrl = imageUrl(eventId, version);
+        Map<String, String> variants = new LinkedHashMap<>();
+        for(Variant variant : Variant.values()) {
+            variants.put(variant.label(), imageUrl + "/" + variant.label());
+        }
+        return EventImageResponse.builder()
+                .imageUrl(imageUrl)
+                .variants(variants)
+                .build();
+    }
+
+    /** Sends a variant, by sendfile when the container offers it. */
+    public void serve(Long eventId, String version, String label, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        Variant variant = Variant.parse(label);
+        Path file = variant != null && VERSION.matcher(version).matches()
+                ? storageDir.resolve(String.valueOf(eventId)).resolve(version).resolve(variant.label() + ".jpg")
+                : null;
+        long size;
+        try {
+            size = file != null ? Files.size(file) : -1;
+        } catch (IOException ex) {
+            size = -1;
+        }
+        if(size < 0) {
+            throw new ResourceNotFoundException("Image not found");
+        }
+
+        response.setContentType("image/jpeg");
+        response.setContentLengthLong(size);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.maxAge(imageConfig.getMaxAge()).cachePublic().immutable().getHeaderValue());
+        if(Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, size);
+            return;
+        }
+        Files.copy(file, response.getOutputStream());
+    }
+
+    /**
+     * Removes variant sets that are neither current nor recent: uploads older than the
+     * retention that never became current, and sets replaced longer ago than that.
+     */
+    @Scheduled(fixedDelayString = "${app.image.sweep-interval-ms:600000}")
+    public void sweep() {
+        long cutoffMs = System.currentTimeMillis() - imageConfig.getSupersededRetention().toMillis();
+        Map<Long, Path> eventDirs = new HashMap<>();
+        try(DirectoryStream<Path> dirs = Files.newDirectoryStream(storageDir)) {
+            for(Path dir : dirs) {
+                String name = dir.getFileName().toString();
+                if(EVENT_ID.matcher(name).matches() && Files.isDirectory(dir)) {
+                    eventDirs.put(Long.valueOf(name), dir);
+                }
+            }
+        } catch (IOException ex) {
+            log.warn("Could not sweep image storage {}", storageDir, ex);
+            return;
+        }
+        if(eventDirs.isEmpty()) {
+            return;
+        }
+
+        Map<Long, String> imageUrls = eventService.imageUrls(eventDirs.keySet());
+        int deleted = 0;
+        for(Map.Entry<Long, Path> entry : eventDirs.entrySet()) {
+            String current = localVersion(entry.getKey(), imageUrls.get(entry.getKey()));
+            // The current set's directory was last modified when its original was deleted,
+            // just before the swap, so this is when the sets older than it were superseded
+            long supersededAtMs = current != null ? lastModifiedMs(entry.getValue().resolve(current)) : 0;
+            try(DirectoryStream<Path> versions = Files.newDirectoryStream(entry.getValue())) {
+                for(Path dir : versions) {
+                    String version = dir.getFileName().toString();
+                    if(!VERSION.matcher(version).matches() || version.equals(current) || uploadedAtMs(version) > cutoffMs) {
+                        continue;
+                    }
+                    if(current != null && version.compareTo(current) < 0 && supersededAtMs > cutoffMs) {
+                        continue;
+                    }
+                    delete(dir);
+                    deleted++;
+                }
+            } catch (IOException ex) {
+                log.warn("Could not sweep images of event {}", entry.getKey(), ex);
+            }
+        }
+        if(deleted > 0) {
+            log.debug("Deleted {} superseded image sets", deleted);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private void render(Long eventId, String version, Path dir, Path original) {
+        try {
+            // Each variant is scaled from the next larger one
+            BufferedImage image = ImageResizer.decode(original, Variant.HERO.width());
+            for(Variant variant : Variant.values()) {
+                image = ImageResizer.scale(image, variant.width());
+                Path temp = dir.resolve(variant.label() + ".tmp");
+                ImageResizer.writeJpeg(image, temp, imageConfig.getJpegQuality());
+                Files.move(temp, dir.resolve(variant.label() + ".jpg"), StandardCopyOption.ATOMIC_MOVE);
+            }
+            Files.deleteIfExists(original);
+
+            // Only a newer upload may replace the current set; this one is otherwise left
+            // for the sweep
+            boolean replaced = eventService.replaceImage(eventId, imageUrl(eventId, version), currentUrl -> {
+                String current = localVersion(eventId, currentUrl);
+                return current == null || current.compareTo(version) < 0;
+            });
+            log.debug("Rendered image {} for event {}{}", version, eventId, replaced ? "" : ", superseded by a newer upload");
+        } catch (Exception ex) {
+            log.warn("Could not render image {} for event {}", version, eventId, ex);
+            delete(dir);
+        }
+    }
+
+    private static String imageUrl(Long eventId, String version) {
+        return "/api/public/events/" + eventId + "/images/" + version;
+    }
+
+    /** The version named by an event's imageUrl, or null if it is not one stored here. */
+    private static String localVersion(Long eventId, String imageUrl) {
+        String prefix = imageUrl(eventId, "");
+        if(imageUrl == null || !imageUrl.startsWith(prefix)) {
+            return null;
+        }
+        String version = imageUrl.substring(prefix.length());
+        return VERSION.matcher(version).matches() ? version : null;
+    }
+
+    private static long uploadedAtMs(String version) {
+        return Long.parseLong(version.substring(0, VERSION_TIME_DIGITS), 16);
+    }
+
+    // A current set that cannot be read counts as just swapped in, so nothing is deleted
+    private static long lastModifiedMs(Path dir) {
+        try {
+            return Files.getLastModifiedTime(dir).toMillis();
+        } catch (IOException ex) {
+            return Long.MAX_VALUE;
+        }
+    }
+
+    private static void delete(Path dir) {
+        if(!Files.exists(dir)) {
+            return;
+        }
+        try(Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> {
+                try {
+                    Files.deleteIfExists(path);
+                } catch (IOException ex) {
+                    log.warn("Could not delete {}", path, ex);
+                }
+            });
+        } catch (IOException ex) {
+            log.warn("Could not delete image directory {}", dir, ex);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.briankimathi.event_booking.service.inventory;
+
+import com.briankimathi.event_booking.config.InventoryConfig;
+import com.briankimathi.event_booking.domain.enums.EventStatus;
+import com.briankimathi.event_booking.domain.enums.PurchaseStatus;
+import com.briankimathi.event_booking.repository.EventRepository;
+import com.briankimathi.event_booking.repository.EventTicketTypeRepository;
+import com.briankimathi.event_booking.repository.TicketPurchaseRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Keeps available quantities in memory so a reservation is a compare-and-set instead of a
+ * row lock on event_ticket_types. Purchases are the write-behind journal: they are saved
+ * with inventory_synced = FALSE, and {@link #flush} folds them into event_ticket_types and
+ * events in one transaction. Counters are rebuilt from the table minus unsynced purchases,
+ * so nothing reserved before a restart can be sold twice.
+ *
+ * Counters are only authoritative while this is the single node selling an event.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "app.inventory", name = "mode", havingValue = "memory")
+@RequiredArgsConstructor
+public class InMemoryTicketInventory implements TicketInventory {
+
+    private final EventTicketTypeRepository eventTicketTypeRepository;
+    private final EventRepository eventRepository;
+    private final TicketPurchaseRepository ticketPurchaseRepository;
+    private final InventoryConfig inventoryConfig;
+
+    private final ConcurrentHashMap<InventoryKey, AtomicInteger> counters = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        List<EventTicketTypeRepository.InventoryView> rows =
+                eventTicketTypeRepository.findInventoryByEventStatus(EventStatus.PUBLISHED.name());
+
+        for(EventTicketTypeRepository.InventoryView row : rows) {
+            counters.putIfAbsent(new InventoryKey(row.getEventId(), row.getTicketTypeId()), new AtomicInteger(row.getAvailable()));
+        }
+        log.info("Ticket inventory loaded for {} event ticket types", rows.size());
+    }
+
+    @Override
+    public boolean reserve(InventoryKey key, int quantity) {
+        AtomicInteger counter = counterFor(key);
+        if(counter == null) {
+            return false;
+        }
+
+        int current;
+        do {
+            current = counter.get();
+            if(current < quantity) {
+                return false;
+            }
+        } while(!counter.compareAndSet(current, current - quantity));
+
+        if(TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if(status != STATUS_COMMITTED) {
+                        counter.addAndGet(quantity);
+                    }
+                }
+            });
+        }
+        return true;
+    }
+
+    @Override
+    public void release(InventoryKey key, int quantity) {
+        // Not loaded yet: the cancelled, unsynced purchase is counted when it is
+        AtomicInteger counter = counters.get(key);
+        if(counter == null) {
+            return;
+        }
+
+        if(TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    counter.addAndGet(quantity);
+                }
+            });
+        } else {
+            counter.addAndGet(quantity);
+        }
+    }
+
+    @Override
+    public int available(InventoryKey key) {
+        AtomicInteger counter = counterFor(key);
+        return counter != null ? counter.get() : 0;
+    }
+
+    @Override
+    public boolean isWriteBehind() {
+        return true;
+    }
+
+    @Scheduled(fixedDelayString = "${app.inventory.flush-interval-ms:500}")
+    @Transactional
+    public void flush() {
+        List<TicketPurchaseRepository.UnsyncedInventoryView> rows =
+                ticketPurchaseRepository.lockUnsyncedInventory(inventoryConfig.getFlushBatchSize());
+        if(rows.isEmpty()) {
+            return;
+        }
+
+        // Sorted so concurrent flushes lock rows in the same order
+        Map<InventoryKey, Integer> ticketTypeDeltas = new TreeMap<>();
+        Map<Long, Integer> eventDeltas = new TreeMap<>();
+        List<Long> ids = new ArrayList<>(rows.size());
+
+        for(TicketPurchaseRepository.UnsyncedInventoryView row : rows) {
+            int delta = PurchaseStatus.CANCELLED.name().equals(row.getStatus()) ? row.getQuantity() : -row.getQuantity();
+            ticketTypeDeltas.merge(new InventoryKey(row.getEventId(), row.getTicketTypeId()), delta, Integer::sum);
+            eventDeltas.merge(row.getEventId(), delta, Integer::sum);
+            ids.add(row.getId());
+        }
+
+        ticketTypeDeltas.forEach((key, delta) -> {
+            if(delta != 0) {
+                eventTicketTypeRepository.adjustAvailableQuantity(key.eventId(), key.ticketTypeId(), delta);
+            }
+        });
+        eventDeltas.forEach((eventId, delta) -> {
+            if(delta != 0) {
+                eventRepository.adjustAvailableTickets(eventId, delta);
+            }
+        });
+        ticketPurchaseRepository.markInventorySynced(ids);
+
+        log.debug("Inventory flush applied {} purchases across {} ticket types", ids.size(), ticketTypeDeltas.size());
+    }
+
+    private AtomicInteger counterFor(InventoryKey key) {
+        AtomicInteger counter = counters.get(key);
+        if(counter != null) {
+            return counter;
+        }
+
+        // Events published after startup are loaded on first use
+        return counters.computeIfAbsent(key, k -> eventTicketTypeRepository
+                .findInventory(k.eventId(), k.ticketTypeId())
+                .map(row -> new AtomicInteger(row.getAvailable()))
+                .orElse(null));
+    }
+}
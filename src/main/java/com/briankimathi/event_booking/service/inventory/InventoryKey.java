@@ -0,0 +1,19 @@
+package com.briankimathi.event_booking.service.inventory;
+
+import java.util.Comparator;
+
+/**
+ * Identifies one event_ticket_types row by its natural key, which is also what
+ * ticket_purchases records (event_id, ticket_type_id).
+ */
+public record InventoryKey(Long eventId, Long ticketTypeId) implements Comparable<InventoryKey> {
+
+    private static final Comparator<InventoryKey> ORDER = Comparator
+            .comparing(InventoryKey::eventId)
+            .thenComparing(InventoryKey::ticketTypeId);
+
+    @Override
+    public int compareTo(InventoryKey other) {
+        return ORDER.compare(this, other);
+    }
+}
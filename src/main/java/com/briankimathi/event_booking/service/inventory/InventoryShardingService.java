@@ -0,0 +1,76 @@
+package com.briankimathi.event_booking.service.inventory;
+
+import com.briankimathi.event_booking.config.InventoryConfig;
+import com.briankimathi.event_booking.dto.response.InventoryShardsResponse;
+import com.briankimathi.event_booking.exception.ResourceNotFoundException;
+import com.briankimathi.event_booking.exception.ValidationException;
+import com.briankimathi.event_booking.repository.EventRepository;
+import com.briankimathi.event_booking.repository.EventTicketTypeRepository;
+import com.briankimathi.event_booking.repository.EventTicketTypeSlotRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Splits an event's ticket-type quantities across slot rows, or folds them back onto
+ * event_ticket_types when set to one shard. Meant to be run when a hot event is
+ * published; it is also safe mid-sale because every row involved is locked first.
+ */
+@Service
+@RequiredArgsConstructor
+public class InventoryShardingService {
+
+    private final EventRepository eventRepository;
+    private final EventTicketTypeRepository eventTicketTypeRepository;
+    private final EventTicketTypeSlotRepository slotRepository;
+    private final TicketInventory ticketInventory;
+    private final InventoryConfig inventoryConfig;
+
+    @Transactional
+    public InventoryShardsResponse reshard(Long eventId, int shards) {
+        if(ticketInventory.isWriteBehind()) {
+            throw new ValidationException("Inventory sharding requires app.inventory.mode=database");
+        }
+        if(shards > inventoryConfig.getMaxShards()) {
+            throw new ValidationException("Shard count cannot exceed " + inventoryConfig.getMaxShards());
+        }
+        eventRepository.findInventoryShards(eventId)
+                .orElseThrow(() -> new ResourceNotFoundException("Event not found with id: " + eventId));
+
+        // Slots before ticket types, the order sharded purchases lock them in
+        Map<Long, Integer> slotTotals = new HashMap<>();
+        for(EventTicketTypeSlotRepository.EventSlotView slot : slotRepository.lockEventSlots(eventId)) {
+            slotTotals.merge(slot.getTicketTypeId(), slot.getAvailable(), Integer::sum);
+        }
+        List<EventTicketTypeRepository.InventoryView> rows = eventTicketTypeRepository.lockByEventId(eventId);
+        slotRepository.deleteByEventId(eventId);
+
+        int eventTotal = 0;
+        for(EventTicketTypeRepository.InventoryView row : rows) {
+            int total = row.getAvailable() + slotTotals.getOrDefault(row.getTicketTypeId(), 0);
+            eventTotal += total;
+
+            if(shards > 1) {
+                eventTicketTypeRepository.setAvailableQuantity(eventId, row.getTicketTypeId(), 0);
+                slotRepository.createSlots(eventId, row.getTicketTypeId(), total, shards);
+            } else {
+                eventTicketTypeRepository.setAvailableQuantity(eventId, row.getTicketTypeId(), total);
+            }
+        }
+        eventRepository.updateInventoryShards(eventId, shards, eventTotal);
+
+        if(ticketInventory instanceof SqlTicketInventory sqlTicketInventory) {
+            sqlTicketInventory.evictShards(eventId);
+        }
+
+        return InventoryShardsResponse.builder()
+                .eventId(eventId)
+                .shards(shards)
+                .availableTickets(eventTotal)
+                .build();
+    }
+}
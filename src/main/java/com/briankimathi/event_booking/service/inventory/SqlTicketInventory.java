@@ -0,0 +1,146 @@
+package com.briankimathi.event_booking.service.inventory;
+
+import com.briankimathi.event_booking.repository.EventRepository;
+import com.briankimathi.event_booking.repository.EventTicketTypeRepository;
+import com.briankimathi.event_booking.repository.EventTicketTypeSlotRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Takes tickets with one conditional UPDATE per row instead of loading and saving the
+ * entities, so concurrent buyers never lose updates or retry on optimistic locks. The
+ * updates join the purchase's transaction and roll back with it.
+ *
+ * A sharded event keeps each ticket type's quantity in slot rows. A purchase takes from a
+ * random slot with enough left, so buyers lock different rows; when no single slot has
+ * enough, the ticket type's slots are locked together and rebalanced. Sales on sharded
+ * events leave events.available_tickets alone, and {@link #rollUpShardedEvents} catches
+ * it up from the aggregate.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "app.inventory", name = "mode", havingValue = "database", matchIfMissing = true)
+@RequiredArgsConstructor
+public class SqlTicketInventory implements TicketInventory {
+
+    private final EventTicketTypeRepository eventTicketTypeRepository;
+    private final EventRepository eventRepository;
+    private final EventTicketTypeSlotRepository slotRepository;
+
+    // Refreshed on every roll-up; a stale count only changes which path is tried first
+    private final ConcurrentHashMap<Long, Integer> shardCounts = new ConcurrentHashMap<>();
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean reserve(InventoryKey key, int quantity) {
+        int shards = shardsOf(key.eventId());
+        if(shards > 1) {
+            // The event may have been resharded back to a single row since it was cached
+            return reserveFromSlots(key, quantity, shards) || reserveFromRow(key, quantity);
+        }
+
+        if(reserveFromRow(key, quantity)) {
+            return true;
+        }
+
+        // Sharded since it was cached: the row is empty and the quantity is in slots
+        if(slotRepository.decrementAnySlot(key.eventId(), key.ticketTypeId(), quantity, 0, 1) == 1) {
+            shardCounts.remove(key.eventId());
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void release(InventoryKey key, int quantity) {
+        int shards = shardsOf(key.eventId());
+        if(shards > 1) {
+            int slot = ThreadLocalRandom.current().nextInt(shards);
+            if(slotRepository.incrementSlot(key.eventId(), key.ticketTypeId(), slot, quantity) == 1) {
+                return;
+            }
+        }
+
+        eventTicketTypeRepository.adjustAvailableQuantity(key.eventId(), key.ticketTypeId(), quantity);
+        eventRepository.adjustAvailableTickets(key.eventId(), quantity);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public int available(InventoryKey key) {
+        return eventTicketTypeRepository.findAvailableQuantity(key.eventId(), key.ticketTypeId()).orElse(0);
+    }
+
+    @Override
+    public boolean isWriteBehind() {
+        return false;
+    }
+
+    public void evictShards(Long eventId) {
+        shardCounts.remove(eventId);
+    }
+
+    @Scheduled(fixedDelayString = "${app.inventory.shard-rollup-interval-ms:5000}")
+    @Transactional
+    public void rollUpShardedEvents() {
+        shardCounts.clear();
+        int updated = eventRepository.rollUpShardedAvailableTickets();
+        if(updated > 0) {
+            log.debug("Rolled up available tickets for {} sharded events", updated);
+        }
+    }
+
+    // The event total is taken with the row unless the event is sharded now, whatever the
+    // cached shard count said
+    private boolean reserveFromRow(InventoryKey key, int quantity) {
+        if(eventTicketTypeRepository.decrementAvailableQuantity(key.eventId(), key.ticketTypeId(), quantity) == 0) {
+            return false;
+        }
+
+        if(eventRepository.decrementAvailableTickets(key.eventId(), quantity) == 0) {
+            // Event total is out of step with its ticket types; roll the reservation back
+            throw new IllegalStateException("Event " + key.eventId() + " has fewer available tickets than its ticket types");
+        }
+        return true;
+    }
+
+    private boolean reserveFromSlots(InventoryKey key, int quantity, int shards) {
+        int offset = ThreadLocalRandom.current().nextInt(shards);
+        if(slotRepository.decrementAnySlot(key.eventId(), key.ticketTypeId(), quantity, offset, shards) == 1) {
+            return true;
+        }
+
+        // Every slot with enough was busy: wait on one of them rather than on all of them
+        if(slotRepository.decrementSlot(key.eventId(), key.ticketTypeId(), offset, quantity) == 1) {
+            return true;
+        }
+
+        // No single slot has enough; what is left may still cover the purchase once pooled
+        List<EventTicketTypeSlotRepository.SlotView> slots = slotRepository.lockSlots(key.eventId(), key.ticketTypeId());
+        if(slots.isEmpty()) {
+            return false;
+        }
+
+        int total = slots.stream().mapToInt(EventTicketTypeSlotRepository.SlotView::getAvailable).sum();
+        if(total < quantity) {
+            return false;
+        }
+
+        slotRepository.redistribute(key.eventId(), key.ticketTypeId(), total - quantity, slots.size());
+        return true;
+    }
+
+    private int shardsOf(Long eventId) {
+        return shardCounts.computeIfAbsent(eventId, id -> eventRepository.findInventoryShards(id).orElse(1));
+    }
+}
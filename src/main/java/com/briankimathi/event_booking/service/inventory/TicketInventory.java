@@ -0,0 +1,21 @@
+package com.briankimathi.event_booking.service.inventory;
+
+/**
+ * Decides whether tickets can be taken for a purchase. Both operations take part in the
+ * caller's transaction: a reservation is undone if it rolls back, and a release only
+ * becomes visible once it commits.
+ */
+public interface TicketInventory {
+
+    boolean reserve(InventoryKey key, int quantity);
+
+    void release(InventoryKey key, int quantity);
+
+    int available(InventoryKey key);
+
+    /**
+     * Whether event_ticket_types is updated later rather than by {@link #reserve} itself.
+     * Purchases made through a write-behind inventory are saved with inventory_synced = FALSE.
+     */
+    boolean isWriteBehind();
+}
@@ -0,0 +1,121 @@
+package com.briankimathi.event_booking.service.receipt;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes a one-page receipt PDF front to back without holding it in memory. Everything
+ * but the page's content stream is fixed and encoded once; the stream's length goes in an
+ * indirect object written after it, so nothing has to be measured up front.
+ */
+final class ReceiptPdfWriter {
+
+    private static final ReceiptTemplate CONTENT = ReceiptTemplate.compile("""
+            BT
+            /F2 22 Tf
+            50 780 Td
+            (Ticket receipt) Tj
+            /F1 11 Tf
+            16 TL
+            0 -40 Td
+            (Purchase code: {{purchaseCode}}) Tj
+            T* (Status: {{status}}) Tj
+            T* T* (Event: {{eventTitle}}) Tj
+            T* (Date: {{eventDate}}) Tj
+            T* (Venue: {{venue}}) Tj
+            T* T* (Ticket type: {{ticketType}}) Tj
+            T* (Quantity: {{quantity}}) Tj
+            T* (Unit price: {{unitPrice}}) Tj
+            T* (Total: {{totalAmount}}) Tj
+            T* T* (Buyer: {{buyerEmail}}) Tj
+            T* (Purchased: {{purchaseDate}}) Tj
+            ET
+            """);
+
+    private static final String[] FIXED_OBJECTS = {
+            "<< /Type /Catalog /Pages 2 0 R >>",
+            "<< /Type /Pages /Kids [3 0 R] /Count 1 >>",
+            "<< /Type /Page /Parent 2 0 R /MediaBox [0 0 595 842] "
+                    + "/Resources << /Font << /F1 4 0 R /F2 5 0 R >> >> /Contents 6 0 R >>",
+            "<< /Type /Font /Subtype /Type1 /BaseFont /Helvetica /Encoding /WinAnsiEncoding >>",
+            "<< /Type /Font /Subtype /Type1 /BaseFont /Helvetica-Bold /Encoding /WinAnsiEncoding >>"
+    };
+    private static final int OBJECT_COUNT = FIXED_OBJECTS.length + 2;
+
+    private static final byte[] HEAD;
+    private static final long[] FIXED_OFFSETS = new long[FIXED_OBJECTS.length];
+    private static final byte[] STREAM_START = ("6 0 obj\n<< /Length 7 0 R >>\nstream\n").getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] STREAM_END = "\nendstream\nendobj\n".getBytes(StandardCharsets.US_ASCII);
+
+    static {
+        StringBuilder head = new StringBuilder("%PDF-1.4\n");
+        for(int i = 0; i < FIXED_OBJECTS.length; i++) {
+            FIXED_OFFSETS[i] = head.length();
+            head.append(i + 1).append(" 0 obj\n").append(FIXED_OBJECTS[i]).append("\nendobj\n");
+        }
+        HEAD = head.toString().getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private ReceiptPdfWriter() {
+    }
+
+    /** Writes the receipt with values indexed by {@link ReceiptTemplate.Field#ordinal()}. */
+    static void write(OutputStream target, String[] values) throws IOException {
+        CountingOutputStream out = new CountingOutputStream(target);
+        out.write(HEAD);
+
+        long contentOffset = out.count;
+        out.write(STREAM_START);
+        long streamStart = out.count;
+        CONTENT.write(out, values);
+        long streamLength = out.count - streamStart;
+        out.write(STREAM_END);
+
+        long lengthOffset = out.count;
+        ascii(out, "7 0 obj\n" + streamLength + "\nendobj\n");
+
+        long xrefOffset = out.count;
+        StringBuilder xref = new StringBuilder(40 + 20 * (OBJECT_COUNT + 1));
+        xref.append("xref\n0 ").append(OBJECT_COUNT + 1).append("\n0000000000 65535 f \n");
+        for(long offset : FIXED_OFFSETS) {
+            xrefEntry(xref, offset);
+        }
+        xrefEntry(xref, contentOffset);
+        xrefEntry(xref, lengthOffset);
+        xref.append("trailer\n<< /Size ").append(OBJECT_COUNT + 1).append(" /Root 1 0 R >>\nstartxref\n")
+                .append(xrefOffset).append("\n%%EOF\n");
+        ascii(out, xref);
+        out.flush();
+    }
+
+    private static void xrefEntry(StringBuilder xref, long offset) {
+        String digits = Long.toString(offset);
+        xref.append("0".repeat(10 - digits.length())).append(digits).append(" 00000 n \n");
+    }
+
+    private static void ascii(OutputStream out, CharSequence text) throws IOException {
+        out.write(text.toString().getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static final class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+}
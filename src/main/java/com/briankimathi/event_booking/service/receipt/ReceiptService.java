@@ -0,0 +1,226 @@
+package com.briankimathi.event_booking.service.receipt;
+
+import com.briankimathi.event_booking.config.ReceiptConfig;
+import com.briankimathi.event_booking.exception.ResourceNotFoundException;
+import com.briankimathi.event_booking.exception.ServiceUnavailableException;
+import com.briankimathi.event_booking.repository.TicketPurchaseRepository;
+import com.briankimathi.event_booking.util.PurchaseCodeGenerator;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Purchase receipts as PDF. A receipt is rendered straight into the response and, at the
+ * same time, into a file under app.receipt.cache-dir named after the purchase and its last
+ * update; later downloads of the same version are copied from that file. At most
+ * app.receipt.max-concurrent-renders receipts render at once; beyond that a request waits
+ * briefly and then gets a 503 with Retry-After.
+ */
+@Slf4j
+@Service
+public class ReceiptService {
+
+    // Bump when the template changes so cached receipts are rendered again
+    private static final String TEMPLATE_VERSION = "1";
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("EEE d MMM yyyy, HH:mm", Locale.ENGLISH);
+    private static final String BUSY_MESSAGE = "Receipts are busy, please retry shortly";
+
+    private final TicketPurchaseRepository ticketPurchaseRepository;
+    private final PurchaseCodeGenerator purchaseCodeGenerator;
+    private final ReceiptConfig receiptConfig;
+    private final Semaphore renders;
+    private final Path cacheDir;
+
+    public ReceiptService(
+            TicketPurchaseRepository ticketPurchaseRepository,
+            PurchaseCodeGenerator purchaseCodeGenerator,
+            ReceiptConfig receiptConfig
+    ) {
+        this.ticketPurchaseRepository = ticketPurchaseRepository;
+        this.purchaseCodeGenerator = purchaseCodeGenerator;
+        this.receiptConfig = receiptConfig;
+        this.renders = new Semaphore(receiptConfig.getMaxConcurrentRenders());
+        this.cacheDir = Path.of(receiptConfig.getCacheDir());
+        try {
+            Files.createDirectories(cacheDir);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not create receipt cache directory " + cacheDir, ex);
+        }
+    }
+
+    /**
+     * Sends the purchase's receipt as a PDF download. A receipt that is not cached yet takes
+     * a render slot first, so when none frees up in time the 503 goes out before any of the
+     * download's headers are set.
+     */
+    public void send(String purchaseCode, HttpServletResponse response) throws IOException {
+        if(!purchaseCodeGenerator.mayExist(purchaseCode)) {
+            throw new ResourceNotFoundException("Purchase not found with code: " + purchaseCode);
+        }
+        TicketPurchaseRepository.ReceiptView view = ticketPurchaseRepository.findReceiptByPurchaseCode(purchaseCode)
+                .orElseThrow(() -> new ResourceNotFoundException("Purchase not found with code: " + purchaseCode));
+
+        Path file = cacheDir.resolve(fileName(view));
+        if(Files.exists(file)) {
+            startDownload(response, purchaseCode);
+            try {
+                Files.copy(file, response.getOutputStream());
+                return;
+            } catch (NoSuchFileException ex) {
+                // Swept since the check; render it without a slot rather than fail the download
+            }
+            render(view, file, response.getOutputStream());
+            return;
+        }
+
+        try {
+            if(!renders.tryAcquire(receiptConfig.getRenderWaitTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new ServiceUnavailableException(BUSY_MESSAGE, receiptConfig.getRetryAfterSeconds());
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException(BUSY_MESSAGE, receiptConfig.getRetryAfterSeconds());
+        }
+        try {
+            startDownload(response, purchaseCode);
+            render(view, file, response.getOutputStream());
+        } finally {
+            renders.release();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.receipt.sweep-interval-ms:3600000}")
+    public void sweep() {
+        FileTime cutoff = FileTime.from(Instant.now().minus(receiptConfig.getCacheTtl()));
+        int deleted = 0;
+        try(DirectoryStream<Path> files = Files.newDirectoryStream(cacheDir)) {
+            for(Path file : files) {
+                if(Files.getLastModifiedTime(file).compareTo(cutoff) < 0 && Files.deleteIfExists(file)) {
+                    deleted++;
+                }
+            }
+        } catch (IOException ex) {
+            log.warn("Could not sweep receipt cache {}", cacheDir, ex);
+        }
+        if(deleted > 0) {
+            log.debug("Deleted {} cached receipts", deleted);
+        }
+    }
+
+    private static void startDownload(HttpServletResponse response, String purchaseCode) {
+        response.setContentType(MediaType.APPLICATION_PDF_VALUE);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename("receipt-" + purchaseCode + ".pdf")
+                .build()
+                .toString());
+    }
+
+    // Renders into the response and the cache file at once
+    private void render(TicketPurchaseRepository.ReceiptView view, Path file, OutputStream out) throws IOException {
+        Path temp = Files.createTempFile(cacheDir, "render-", ".tmp");
+        try {
+            try(OutputStream cached = Files.newOutputStream(temp);
+                OutputStream both = new BufferedOutputStream(new TeeOutputStream(out, cached), 8_192)) {
+                ReceiptPdfWriter.write(both, values(view));
+            }
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    // The code is what admits the holder, so it is hashed rather than used as the file name
+    private static String fileName(TicketPurchaseRepository.ReceiptView view) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(view.getPurchaseCode().getBytes(StandardCharsets.UTF_8));
+            long version = view.getUpdatedAt() != null ? view.getUpdatedAt().toInstant(ZoneOffset.UTC).toEpochMilli() : 0;
+            return HexFormat.of().formatHex(digest, 0, 16) + "-" + TEMPLATE_VERSION + "-" + version + ".pdf";
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static String[] values(TicketPurchaseRepository.ReceiptView view) {
+        String[] values = new String[ReceiptTemplate.Field.values().length];
+        values[ReceiptTemplate.Field.PURCHASE_CODE.ordinal()] = view.getPurchaseCode();
+        values[ReceiptTemplate.Field.STATUS.ordinal()] = view.getStatus().name();
+        values[ReceiptTemplate.Field.EVENT_TITLE.ordinal()] = view.getEventTitle();
+        values[ReceiptTemplate.Field.EVENT_DATE.ordinal()] = format(view.getEventDate());
+        values[ReceiptTemplate.Field.VENUE.ordinal()] = view.getVenue();
+        values[ReceiptTemplate.Field.TICKET_TYPE.ordinal()] = view.getTicketTypeName();
+        values[ReceiptTemplate.Field.QUANTITY.ordinal()] = String.valueOf(view.getQuantity());
+        values[ReceiptTemplate.Field.UNIT_PRICE.ordinal()] = view.getTotalAmount()
+                .divide(BigDecimal.valueOf(view.getQuantity()), 2, RoundingMode.HALF_UP).toPlainString();
+        values[ReceiptTemplate.Field.TOTAL_AMOUNT.ordinal()] = view.getTotalAmount().toPlainString();
+        values[ReceiptTemplate.Field.BUYER_EMAIL.ordinal()] = view.getBuyerEmail();
+        values[ReceiptTemplate.Field.PURCHASE_DATE.ordinal()] = format(view.getPurchaseDate());
+        return values;
+    }
+
+    private static String format(LocalDateTime dateTime) {
+        return dateTime != null ? DATE_FORMAT.format(dateTime) : "";
+    }
+
+    private static final class TeeOutputStream extends OutputStream {
+        private final OutputStream first;
+        private final OutputStream second;
+
+        TeeOutputStream(OutputStream first, OutputStream second) {
+            this.first = first;
+            this.second = second;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            first.write(b);
+            second.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            first.write(b, off, len);
+            second.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            first.flush();
+            second.flush();
+        }
+
+        // The response stream belongs to the container; only the file is closed here
+        @Override
+        public void close() throws IOException {
+            first.flush();
+            second.close();
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.briankimathi.event_booking.service.receipt;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A text template compiled once into pre-encoded literal segments and field slots, so
+ * rendering only copies bytes and escapes the field values. Placeholders are
+ * {@code {{fieldName}}} and must name a {@link Field}. Values are written as the inside of
+ * a PDF literal string: Latin-1, with backslash and parentheses escaped.
+ */
+final class ReceiptTemplate {
+
+    enum Field {
+        PURCHASE_CODE("purchaseCode"),
+        STATUS("status"),
+        EVENT_TITLE("eventTitle"),
+        EVENT_DATE("eventDate"),
+        VENUE("venue"),
+        TICKET_TYPE("ticketType"),
+        QUANTITY("quantity"),
+        UNIT_PRICE("unitPrice"),
+        TOTAL_AMOUNT("totalAmount"),
+        BUYER_EMAIL("buyerEmail"),
+        PURCHASE_DATE("purchaseDate");
+
+        private final String placeholder;
+
+        Field(String placeholder) {
+            this.placeholder = placeholder;
+        }
+
+        static Field of(String placeholder) {
+            for(Field field : values()) {
+                if(field.placeholder.equals(placeholder)) {
+                    return field;
+                }
+            }
+            throw new IllegalArgumentException("Unknown receipt template field: " + placeholder);
+        }
+    }
+
+    private final byte[][] literals;
+    // Field written after literals[i], or -1 after the last literal
+    private final int[] fields;
+
+    private ReceiptTemplate(byte[][] literals, int[] fields) {
+        this.literals = literals;
+        this.fields = fields;
+    }
+
+    static ReceiptTemplate compile(String template) {
+        List<byte[]> literals = new ArrayList<>();
+        List<Integer> fields = new ArrayList<>();
+
+        int pos = 0;
+        while(true) {
+            int open = template.indexOf("{{", pos);
+            if(open < 0) {
+                literals.add(template.substring(pos).getBytes(StandardCharsets.ISO_8859_1));
+                fields.add(-1);
+                break;
+            }
+            int close = template.indexOf("}}", open);
+            if(close < 0) {
+                throw new IllegalArgumentException("Unclosed placeholder at " + open);
+            }
+            literals.add(template.substring(pos, open).getBytes(StandardCharsets.ISO_8859_1));
+            fields.add(Field.of(template.substring(open + 2, close).trim()).ordinal());
+            pos = close + 2;
+        }
+
+        return new ReceiptTemplate(
+                literals.toArray(new byte[0][]),
+                fields.stream().mapToInt(Integer::intValue).toArray()
+        );
+    }
+
+    /** Writes the template with values indexed by {@link Field#ordinal()}. */
+    void write(OutputStream out, String[] values) throws IOException {
+        for(int i = 0; i < literals.length; i++) {
+            out.write(literals[i]);
+            if(fields[i] >= 0) {
+                writeEscaped(out, values[fields[i]]);
+            }
+        }
+    }
+
+    private static void writeEscaped(OutputStream out, String value) throws IOException {
+        if(value == null) {
+            return;
+        }
+        for(int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if(c == '\\' || c == '(' || c == ')') {
+                out.write('\\');
+                out.write(c);
+            } else if(c < 0x20 || c > 0xFF) {
+                out.write('?');
+            } else {
+                out.write(c);
+            }
+        }
+    }
+}
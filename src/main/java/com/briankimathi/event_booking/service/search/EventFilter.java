@@ -0,0 +1,38 @@
+package com.briankimathi.event_booking.service.search;
+
+/** Facet selections for browsing events; null components are not filtered on. */
+public record EventFilter(String category, DateBucket date, String priceBand, Boolean available) {
+
+    public static final EventFilter NONE = new EventFilter(null, null, null, null);
+
+    public boolean isEmpty() {
+        return category == null && date == null && priceBand == null && available == null;
+    }
+
+    /** Start date buckets relative to now; this week is also part of this month. */
+    public enum DateBucket {
+        THIS_WEEK("this-week"),
+        THIS_MONTH("this-month"),
+        LATER("later");
+
+        private final String label;
+
+        DateBucket(String label) {
+            this.label = label;
+        }
+
+        public String label() {
+            return label;
+        }
+
+        /** The bucket with this label, or null when there is none. */
+        public static DateBucket parse(String label) {
+            for(DateBucket bucket : values()) {
+                if(bucket.label.equals(label)) {
+                    return bucket;
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.briankimathi.event_booking.service.search;
+
+import com.briankimathi.event_booking.config.SearchConfig;
+import com.briankimathi.event_booking.dto.response.EventResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * In-memory full-text search and facet counts over upcoming published events. EventService
+ * keeps it current as events are published, edited and cancelled on this node, purchases
+ * report ticket types selling out or coming back, and it is rebuilt periodically from the
+ * database to pick up changes made on other nodes. Changes that arrive while a rebuild is
+ * loading are replayed onto the new index before it replaces the old one.
+ */
+@Slf4j
+@Component
+public class EventSearchIndex {
+
+    private final SearchConfig searchConfig;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Indexes indexes;
+    // Non-null while a rebuild is loading
+    private List<Consumer<Indexes>> replay;
+
+    public EventSearchIndex(SearchConfig searchConfig) {
+        this.searchConfig = searchConfig;
+        this.indexes = newIndexes();
+    }
+
+    public SearchResult search(String query, EventFilter filter, LocalDateTime now, int offset, int limit) {
+        lock.readLock().lock();
+        try {
+            BitSet matching = filter.isEmpty() ? null : indexes.facets().filter(filter, now);
+            InvertedIndex.Result result = indexes.text().search(query, matching, now, offset, limit);
+            return new SearchResult(result.events(), result.total());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Upcoming events matching the filter in (start date, id) order, after the given position. */
+    public List<EventResponse> browse(EventFilter filter, LocalDateTime now, LocalDateTime afterStartDate, long afterId, int limit) {
+        lock.readLock().lock();
+        try {
+            return indexes.text().browse(indexes.facets().filter(filter, now), now, afterStartDate, afterId, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Counts by category, date bucket, price band and availability for the filter. */
+    public Map<String, Map<String, Integer>> facets(EventFilter filter, LocalDateTime now) {
+        lock.readLock().lock();
+        try {
+            return indexes.facets().counts(filter, now);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean isPriceBand(String label) {
+        lock.readLock().lock();
+        try {
+            return indexes.facets().isPriceBand(label);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Adds or replaces an event. */
+    public void put(Document document) {
+        apply(target -> target.put(document));
+    }
+
+    public void remove(Long eventId) {
+        apply(target -> {
+            int doc = target.text().remove(eventId);
+            if(doc >= 0) {
+                target.facets().remove(doc);
+            }
+        });
+    }
+
+    /** Records whether any tickets of a type are left; an event is sold out when none of its types have any. */
+    public void setAvailable(Long eventId, Long ticketTypeId, boolean available) {
+        apply(target -> {
+            int doc = target.text().docOf(eventId);
+            if(doc >= 0) {
+                target.facets().setAvailable(doc, ticketTypeId, available);
+            }
+        });
+    }
+
+    /** Replaces the index with one built from the loaded documents. */
+    public synchronized void rebuild(Supplier<List<Document>> loader) {
+        lock.writeLock().lock();
+        try {
+            replay = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Indexes fresh = newIndexes();
+        try {
+            for(Document document : loader.get()) {
+                fresh.put(document);
+            }
+        } catch (RuntimeException ex) {
+            lock.writeLock().lock();
+            try {
+                replay = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw ex;
+        }
+
+        lock.writeLock().lock();
+        try {
+            replay.forEach(change -> change.accept(fresh));
+            replay = null;
+            indexes = fresh;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Search index rebuilt with {} events", fresh.text().size());
+    }
+
+    private void apply(Consumer<Indexes> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(indexes);
+            if(replay != null) {
+                replay.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private Indexes newIndexes() {
+        InvertedIndex text = new InvertedIndex(searchConfig.getMaxPrefixExpansions());
+        return new Indexes(text, new FacetIndex(text, searchConfig.getPriceBands(), searchConfig.getDateBucketRefresh().toNanos()));
+    }
+
+    /** The summary is what results return for the event; ticket types drive its price band and availability. */
+    public record Document(EventResponse summary, String description, List<TicketTypeFacet> ticketTypes) {}
+
+    public record TicketTypeFacet(Long ticketTypeId, BigDecimal price, boolean available) {}
+
+    /** One page of ranked events and how many events matched in all. */
+    public record SearchResult(List<EventResponse> events, int total) {}
+
+    // Both share the text index's document numbers
+    private record Indexes(InvertedIndex text, FacetIndex facets) {
+
+        void put(Document document) {
+            int previous = text.docOf(document.summary().getId());
+            if(previous >= 0) {
+                facets.remove(previous);
+            }
+            int doc = text.put(document.summary(), document.description());
+            facets.put(doc, document.summary().getCategory(), document.ticketTypes());
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package com.briankimathi.event_booking.service.search;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Facet bitmaps over the documents of an {@link InvertedIndex}: one bitmap per category,
+ * price band and availability, kept current as documents are added, removed or sell out.
+ * A filter is the intersection of the selected bitmaps, and each facet is counted against
+ * the other facets' selections so every count says how many events picking that value
+ * would show.
+ *
+ * Date buckets depend on the clock, so they are derived from start times on demand and
+ * reused until the index changes, the week or month rolls over, or dateRefreshNanos pass.
+ *
+ * Not thread-safe, except that {@link #filter} and {@link #counts} may run concurrently
+ * with each other.
+ */
+final class FacetIndex {
+
+    static final String CATEGORY = "category";
+    static final String DATE = "date";
+    static final String PRICE = "price";
+    static final String AVAILABILITY = "availability";
+    static final String AVAILABLE = "available";
+    static final String SOLD_OUT = "sold-out";
+
+    private final List<BigDecimal> priceBounds;
+    private final long dateRefreshNanos;
+    private final BitSet live = new BitSet();
+    private final BitSet soldOut = new BitSet();
+    private final Map<String, BitSet> categories = new HashMap<>();
+    private final Map<String, BitSet> priceBands = new LinkedHashMap<>();
+    // Ticket type id to whether any are left, per document with ticket types
+    private final Map<Integer, Map<Long, Boolean>> ticketTypes = new HashMap<>();
+    private final Map<Integer, String> categoryByDoc = new HashMap<>();
+    private final InvertedIndex documents;
+    // Bumped when documents come or go; availability is read live and never invalidates buckets
+    private long version;
+    private volatile DateBuckets dateBuckets;
+
+    FacetIndex(InvertedIndex documents, List<BigDecimal> priceBounds, long dateRefreshNanos) {
+        this.documents = documents;
+        this.priceBounds = priceBounds;
+        this.dateRefreshNanos = dateRefreshNanos;
+        for(int band = 0; band <= priceBounds.size() + 1; band++) {
+            priceBands.put(bandLabel(band), new BitSet());
+        }
+    }
+
+    /** Adds a document; its price band comes from the cheapest of its ticket types. */
+    void put(int doc, String category, List<EventSearchIndex.TicketTypeFacet> ticketTypes) {
+        live.set(doc);
+        if(category != null && !category.isBlank()) {
+            categories.computeIfAbsent(category, c -> new BitSet()).set(doc);
+            categoryByDoc.put(doc, category);
+        }
+
+        BigDecimal fromPrice = null;
+        Map<Long, Boolean> available = new HashMap<>();
+        for(EventSearchIndex.TicketTypeFacet ticketType : ticketTypes) {
+            available.put(ticketType.ticketTypeId(), ticketType.available());
+            if(fromPrice == null || ticketType.price().compareTo(fromPrice) < 0) {
+                fromPrice = ticketType.price();
+            }
+        }
+        if(fromPrice != null) {
+            priceBands.get(bandLabel(band(fromPrice))).set(doc);
+            this.ticketTypes.put(doc, available);
+            if(!available.containsValue(true)) {
+                soldOut.set(doc);
+            }
+        }
+        version++;
+    }
+
+    void remove(int doc) {
+        live.clear(doc);
+        soldOut.clear(doc);
+        String category = categoryByDoc.remove(doc);
+        if(category != null) {
+            BitSet bits = categories.get(category);
+            bits.clear(doc);
+            if(bits.isEmpty()) {
+                categories.remove(category);
+            }
+        }
+        for(BitSet bits : priceBands.values()) {
+            bits.clear(doc);
+        }
+        ticketTypes.remove(doc);
+        version++;
+    }
+
+    /** Records whether a ticket type has any left; the event is sold out once none of its types do. */
+    void setAvailable(int doc, Long ticketTypeId, boolean available) {
+        Map<Long, Boolean> types = ticketTypes.get(doc);
+        if(types == null || types.replace(ticketTypeId, available) == null) {
+            return;
+        }
+        soldOut.set(doc, !types.containsValue(true));
+    }
+
+    /** Documents of upcoming events matching every selection in the filter. */
+    BitSet filter(EventFilter filter, LocalDateTime now) {
+        return select(filter, null, dateBuckets(now));
+    }
+
+    /** Counts per facet value for the filter, each facet ignoring its own selection. */
+    Map<String, Map<String, Integer>> counts(EventFilter filter, LocalDateTime now) {
+        DateBuckets buckets = dateBuckets(now);
+        Map<String, Map<String, Integer>> counts = new LinkedHashMap<>();
+
+        BitSet base = select(filter, CATEGORY, buckets);
+        Map<String, Integer> byCategory = new LinkedHashMap<>();
+        categories.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(entry -> {
+                    int count = intersectionSize(base, entry.getValue());
+                    if(count > 0) {
+                        byCategory.put(entry.getKey(), count);
+                    }
+                });
+        counts.put(CATEGORY, byCategory);
+
+        BitSet dateBase = select(filter, DATE, buckets);
+        Map<String, Integer> byDate = new LinkedHashMap<>();
+        for(EventFilter.DateBucket bucket : EventFilter.DateBucket.values()) {
+            byDate.put(bucket.label(), intersectionSize(dateBase, buckets.bitmaps().get(bucket)));
+        }
+        counts.put(DATE, byDate);
+
+        BitSet priceBase = select(filter, PRICE, buckets);
+        Map<String, Integer> byPrice = new LinkedHashMap<>();
+        priceBands.forEach((label, bits) -> byPrice.put(label, intersectionSize(priceBase, bits)));
+        counts.put(PRICE, byPrice);
+
+        BitSet availabilityBase = select(filter, AVAILABILITY, buckets);
+        Map<String, Integer> byAvailability = new LinkedHashMap<>();
+        int soldOutCount = intersectionSize(availabilityBase, soldOut);
+        byAvailability.put(AVAILABLE, availabilityBase.cardinality() - soldOutCount);
+        byAvailability.put(SOLD_OUT, soldOutCount);
+        counts.put(AVAILABILITY, byAvailability);
+        return counts;
+    }
+
+    boolean isPriceBand(String label) {
+        return priceBands.containsKey(label);
+    }
+
+    private BitSet select(EventFilter filter, String except, DateBuckets buckets) {
+        BitSet result = (BitSet) buckets.upcoming().clone();
+        if(filter.category() != null && !CATEGORY.equals(except)) {
+            result.and(categoryBits(filter.category()));
+        }
+        if(filter.date() != null && !DATE.equals(except)) {
+            result.and(buckets.bitmaps().get(filter.date()));
+        }
+        if(filter.priceBand() != null && !PRICE.equals(except)) {
+            BitSet bits = priceBands.get(filter.priceBand());
+            if(bits == null) {
+                result.clear();
+            } else {
+                result.and(bits);
+            }
+        }
+        if(filter.available() != null && !AVAILABILITY.equals(except)) {
+            if(filter.available()) {
+                result.andNot(soldOut);
+            } else {
+                result.and(soldOut);
+            }
+        }
+        return result;
+    }
+
+    private BitSet categoryBits(String category) {
+        BitSet bits = categories.get(category);
+        if(bits != null) {
+            return bits;
+        }
+        for(Map.Entry<String, BitSet> entry : categories.entrySet()) {
+            if(entry.getKey().equalsIgnoreCase(category)) {
+                return entry.getValue();
+            }
+        }
+        return new BitSet();
+    }
+
+    private DateBuckets dateBuckets(LocalDateTime now) {
+        long nowTime = InvertedIndex.time(now);
+        DateBuckets buckets = dateBuckets;
+        if(buckets != null && buckets.version() == version && nowTime >= buckets.from() && nowTime < buckets.expiresAt()) {
+            return buckets;
+        }
+
+        LocalDateTime endOfWeek = now.toLocalDate().with(TemporalAdjusters.next(DayOfWeek.MONDAY)).atStartOfDay();
+        LocalDateTime endOfMonth = now.toLocalDate().with(TemporalAdjusters.firstDayOfNextMonth()).atStartOfDay();
+        long weekTime = InvertedIndex.time(endOfWeek);
+        long monthTime = InvertedIndex.time(endOfMonth);
+
+        BitSet upcoming = new BitSet();
+        Map<EventFilter.DateBucket, BitSet> bitmaps = new HashMap<>();
+        for(EventFilter.DateBucket bucket : EventFilter.DateBucket.values()) {
+            bitmaps.put(bucket, new BitSet());
+        }
+        for(int doc = live.nextSetBit(0); doc >= 0; doc = live.nextSetBit(doc + 1)) {
+            long startTime = documents.startTime(doc);
+            if(startTime < nowTime) {
+                continue;
+            }
+            upcoming.set(doc);
+            if(startTime < weekTime) {
+                bitmaps.get(EventFilter.DateBucket.THIS_WEEK).set(doc);
+            }
+            if(startTime < monthTime) {
+                bitmaps.get(EventFilter.DateBucket.THIS_MONTH).set(doc);
+            } else {
+                bitmaps.get(EventFilter.DateBucket.LATER).set(doc);
+            }
+        }
+
+        long expiresAt = Math.min(nowTime + dateRefreshNanos, Math.min(weekTime, monthTime));
+        buckets = new DateBuckets(version, nowTime, expiresAt, upcoming, bitmaps);
+        dateBuckets = buckets;
+        return buckets;
+    }
+
+    private int band(BigDecimal price) {
+        if(price.signum() == 0) {
+            return 0;
+        }
+        int band = 1;
+        for(BigDecimal bound : priceBounds) {
+            if(price.compareTo(bound) < 0) {
+                return band;
+            }
+            band++;
+        }
+        return band;
+    }
+
+    /** free, under-&lt;first bound&gt;, &lt;bound&gt;-&lt;next bound&gt;, ..., &lt;last bound&gt;-plus */
+    private String bandLabel(int band) {
+        if(band == 0) {
+            return "free";
+        }
+        if(priceBounds.isEmpty()) {
+            return "paid";
+        }
+        if(band == 1) {
+            return "under-" + priceBounds.get(0).toPlainString();
+        }
+        if(band > priceBounds.size()) {
+            return priceBounds.get(priceBounds.size() - 1).toPlainString() + "-plus";
+        }
+        return priceBounds.get(band - 2).toPlainString() + "-" + priceBounds.get(band - 1).toPlainString();
+    }
+
+    private static int intersectionSize(BitSet a, BitSet b) {
+        BitSet both = (BitSet) a.clone();
+        both.and(b);
+        return both.cardinality();
+    }
+
+    private record DateBuckets(long version, long from, long expiresAt, BitSet upcoming, Map<EventFilter.DateBucket, BitSet> bitmaps) {}
+}
@@ -0,0 +1,422 @@
+package com.briankimathi.event_booking.service.search;
+
+import com.briankimathi.event_booking.dto.response.EventResponse;
+
+import java.text.Normalizer;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+/**
+ * Term to postings index over event text. Documents are numbered in the order they are
+ * added and scored in per-thread arrays indexed by that number, so a query touches each
+ * matching posting once and allocates nothing proportional to the index. Replacing or
+ * removing an event only tombstones its old document; {@link EventSearchIndex} rebuilds the
+ * index from scratch to drop them.
+ *
+ * Every word of a query must match, either as a whole term or, at a lower weight, as the
+ * prefix of one. Matches are ranked by saturated, field-weighted term frequency times
+ * inverse document frequency, then by start date.
+ *
+ * Not thread-safe.
+ */
+final class InvertedIndex {
+
+    enum Field {
+        TITLE(4f),
+        CATEGORY(3f),
+        VENUE(2f),
+        DESCRIPTION(1f);
+
+        private final float weight;
+
+        Field(float weight) {
+            this.weight = weight;
+        }
+    }
+
+    static final int MIN_PREFIX_LENGTH = 2;
+    static final float PREFIX_FACTOR = 0.5f;
+    private static final float K1 = 1.2f;
+    private static final int MAX_TERM_LENGTH = 40;
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+    private static final Set<String> STOP_WORDS = Set.of("a", "an", "and", "at", "for", "in", "of", "on", "or", "the", "to");
+
+    private final NavigableMap<String, Postings> terms = new TreeMap<>();
+    private final Map<Long, Integer> docsByEvent = new HashMap<>();
+    private final BitSet deleted = new BitSet();
+    private final int maxPrefixExpansions;
+    private EventResponse[] events = new EventResponse[1_024];
+    // Kept unboxed so filtering and ordering stay in flat arrays
+    private long[] eventIds = new long[1_024];
+    private long[] startTimes = new long[1_024];
+    private int docCount;
+
+    InvertedIndex(int maxPrefixExpansions) {
+        this.maxPrefixExpansions = maxPrefixExpansions;
+    }
+
+    /** Indexes the event, replacing any earlier version of it, and returns its document. */
+    int put(EventResponse event, String description) {
+        remove(event.getId());
+
+        int doc = docCount++;
+        if(doc == events.length) {
+            events = Arrays.copyOf(events, doc * 2);
+            eventIds = Arrays.copyOf(eventIds, doc * 2);
+            startTimes = Arrays.copyOf(startTimes, doc * 2);
+        }
+        events[doc] = event;
+        eventIds[doc] = event.getId();
+        startTimes[doc] = time(event.getEventDate());
+        docsByEvent.put(event.getId(), doc);
+
+        Map<String, Float> frequencies = new HashMap<>();
+        count(frequencies, event.getTitle(), Field.TITLE);
+        count(frequencies, event.getCategory(), Field.CATEGORY);
+        count(frequencies, event.getVenueName(), Field.VENUE);
+        count(frequencies, description, Field.DESCRIPTION);
+        frequencies.forEach((term, frequency) -> terms.computeIfAbsent(term, t -> new Postings())
+                .add(doc, frequency * (K1 + 1) / (frequency + K1)));
+        return doc;
+    }
+
+    /** Tombstones the event's document and returns it, or -1 when the event is not indexed. */
+    int remove(Long eventId) {
+        Integer doc = docsByEvent.remove(eventId);
+        if(doc == null) {
+            return -1;
+        }
+        deleted.set(doc);
+        events[doc] = null;
+        return doc;
+    }
+
+    int docOf(Long eventId) {
+        return docsByEvent.getOrDefault(eventId, -1);
+    }
+
+    int size() {
+        return docsByEvent.size();
+    }
+
+    int docCount() {
+        return docCount;
+    }
+
+    long startTime(int doc) {
+        return startTimes[doc];
+    }
+
+    /** Sortable form of a start date, unique to the nanosecond until the year 2262. */
+    static long time(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + dateTime.getNano();
+    }
+
+    /**
+     * Ranked events matching every word of the query that start at or after notBefore and,
+     * when filter is given, whose document is set in it, from offset for at most limit events.
+     */
+    Result search(String query, BitSet filter, LocalDateTime notBefore, int offset, int limit) {
+        List<String> words = tokenize(query);
+        if(words.isEmpty()) {
+            return new Result(List.of(), 0);
+        }
+
+        List<List<Term>> matches = new ArrayList<>(words.size());
+        for(String word : words) {
+            List<Term> wordTerms = match(word);
+            if(wordTerms.isEmpty()) {
+                return new Result(List.of(), 0);
+            }
+            matches.add(wordTerms);
+        }
+        // The rarest word decides the candidates, the others only filter and add to them
+        matches.sort(Comparator.comparingInt(InvertedIndex::postingsSize));
+
+        Scratch scratch = SCRATCH.get().reset(docCount, matches.size());
+        int base = scratch.base;
+        for(int w = 0; w < matches.size(); w++) {
+            for(Term term : matches.get(w)) {
+                Postings postings = term.postings();
+                for(int i = 0; i < postings.size; i++) {
+                    int doc = postings.docs[i];
+                    int mark = scratch.marks[doc];
+                    if(w == 0 && mark != base + 1) {
+                        scratch.marks[doc] = base + 1;
+                        scratch.scores[doc] = postings.weights[i] * term.idf();
+                        scratch.addCandidate(doc);
+                    } else if(mark == base + w) {
+                        scratch.marks[doc] = base + w + 1;
+                        scratch.scores[doc] += postings.weights[i] * term.idf();
+                    } else if(mark == base + w + 1) {
+                        // Another expansion of the same word
+                        scratch.scores[doc] += postings.weights[i] * term.idf();
+                    }
+                }
+            }
+        }
+
+        int matched = base + matches.size();
+        long notBeforeTime = time(notBefore);
+        int total = 0;
+        TopDocs top = new TopDocs(offset + limit);
+        for(int i = 0; i < scratch.candidateCount; i++) {
+            int doc = scratch.candidates[i];
+            if(scratch.marks[doc] != matched || deleted.get(doc) || startTimes[doc] < notBeforeTime
+                    || (filter != null && !filter.get(doc))) {
+                continue;
+            }
+            total++;
+            top.offer(doc, scratch.scores[doc]);
+        }
+        return page(top.sorted(), offset, total);
+    }
+
+    /**
+     * Events whose document is set in filter, in (start date, id) order, starting at or
+     * after notBefore and after (afterStartDate, afterId), at most limit of them.
+     */
+    List<EventResponse> browse(BitSet filter, LocalDateTime notBefore, LocalDateTime afterStartDate, long afterId, int limit) {
+        long notBeforeTime = time(notBefore);
+        long afterTime = time(afterStartDate);
+        // Equal scores make TopDocs order by start date, then event id
+        TopDocs top = new TopDocs(limit);
+        for(int doc = filter.nextSetBit(0); doc >= 0 && doc < docCount; doc = filter.nextSetBit(doc + 1)) {
+            long startTime = startTimes[doc];
+            if(deleted.get(doc) || startTime < notBeforeTime
+                    || startTime < afterTime || (startTime == afterTime && eventIds[doc] <= afterId)) {
+                continue;
+            }
+            top.offer(doc, 0f);
+        }
+        return page(top.sorted(), 0, 0).events();
+    }
+
+    private Result page(int[] ranked, int offset, int total) {
+        List<EventResponse> page = new ArrayList<>(Math.max(0, ranked.length - offset));
+        for(int i = offset; i < ranked.length; i++) {
+            page.add(events[ranked[i]]);
+        }
+        return new Result(page, total);
+    }
+
+    /** Lower-cased, accent-free words of the text, without stop words, in first-seen order. */
+    static List<String> tokenize(String text) {
+        if(text == null || text.isEmpty()) {
+            return List.of();
+        }
+        String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+
+        Set<String> words = new LinkedHashSet<>();
+        int start = -1;
+        for(int i = 0; i <= folded.length(); i++) {
+            boolean wordChar = i < folded.length() && Character.isLetterOrDigit(folded.charAt(i));
+            if(wordChar && start < 0) {
+                start = i;
+            } else if(!wordChar && start >= 0) {
+                String word = folded.substring(start, Math.min(i, start + MAX_TERM_LENGTH));
+                if(!STOP_WORDS.contains(word)) {
+                    words.add(word);
+                }
+                start = -1;
+            }
+        }
+        return new ArrayList<>(words);
+    }
+
+    private static void count(Map<String, Float> frequencies, String text, Field field) {
+        // Counted once per field: repeating a word in a description should not outrank a title
+        for(String term : tokenize(text)) {
+            frequencies.merge(term, field.weight, Float::sum);
+        }
+    }
+
+    private List<Term> match(String word) {
+        List<Term> matches = new ArrayList<>();
+        Postings exact = terms.get(word);
+        if(exact != null) {
+            matches.add(new Term(exact, idf(exact)));
+        }
+        if(word.length() >= MIN_PREFIX_LENGTH) {
+            int expansions = 0;
+            for(Postings postings : terms.subMap(word, false, word + Character.MAX_VALUE, false).values()) {
+                if(expansions++ == maxPrefixExpansions) {
+                    break;
+                }
+                matches.add(new Term(postings, idf(postings) * PREFIX_FACTOR));
+            }
+        }
+        return matches;
+    }
+
+    private static int postingsSize(List<Term> wordTerms) {
+        int size = 0;
+        for(Term term : wordTerms) {
+            size += term.postings().size;
+        }
+        return size;
+    }
+
+    // Tombstoned documents still count towards df until the next rebuild
+    private float idf(Postings postings) {
+        return (float) Math.log(1 + (docCount - postings.size + 0.5) / (postings.size + 0.5));
+    }
+
+    record Result(List<EventResponse> events, int total) {}
+
+    private static final class Postings {
+        private int[] docs = new int[4];
+        private float[] weights = new float[4];
+        private int size;
+
+        void add(int doc, float weight) {
+            if(size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            docs[size] = doc;
+            weights[size] = weight;
+            size++;
+        }
+    }
+
+    private record Term(Postings postings, float idf) {}
+
+    /**
+     * Per-thread score accumulators indexed by document. marks[doc] - base is how many
+     * query words the document has matched so far; raising base by more than any query's
+     * word count per search invalidates every mark without clearing the array.
+     */
+    private static final class Scratch {
+        private int[] marks = new int[0];
+        private float[] scores = new float[0];
+        private int[] candidates = new int[0];
+        private int candidateCount;
+        private int base;
+
+        Scratch reset(int docCount, int wordCount) {
+            if(marks.length < docCount) {
+                int capacity = Math.max(docCount, marks.length * 2);
+                marks = new int[capacity];
+                scores = new float[capacity];
+                candidates = new int[capacity];
+                base = 0;
+            }
+            if(base > Integer.MAX_VALUE - 2 * (wordCount + 1)) {
+                Arrays.fill(marks, 0);
+                base = 0;
+            }
+            base += wordCount + 1;
+            candidateCount = 0;
+            return this;
+        }
+
+        void addCandidate(int doc) {
+            candidates[candidateCount++] = doc;
+        }
+    }
+
+    /** Keeps the best k documents in a min-heap so ranking a large match set never sorts all of it. */
+    private final class TopDocs {
+        private final int[] docs;
+        private final float[] scores;
+        private int size;
+
+        TopDocs(int k) {
+            docs = new int[k];
+            scores = new float[k];
+        }
+
+        void offer(int doc, float score) {
+            if(docs.length == 0) {
+                return;
+            }
+            if(size < docs.length) {
+                docs[size] = doc;
+                scores[size] = score;
+                up(size++);
+            } else if(better(doc, score, docs[0], scores[0])) {
+                docs[0] = doc;
+                scores[0] = score;
+                down(0);
+            }
+        }
+
+        /** Best first; empties the heap. */
+        int[] sorted() {
+            int[] out = new int[size];
+            for(int i = size - 1; i >= 0; i--) {
+                out[i] = docs[0];
+                size--;
+                docs[0] = docs[size];
+                scores[0] = scores[size];
+                down(0);
+            }
+            return out;
+        }
+
+        private boolean better(int doc, float score, int otherDoc, float otherScore) {
+            if(score != otherScore) {
+                return score > otherScore;
+            }
+            if(startTimes[doc] != startTimes[otherDoc]) {
+                return startTimes[doc] < startTimes[otherDoc];
+            }
+            return eventIds[doc] < eventIds[otherDoc];
+        }
+
+        private void up(int i) {
+            while(i > 0) {
+                int parent = (i - 1) >>> 1;
+                if(!better(docs[parent], scores[parent], docs[i], scores[i])) {
+                    break;
+                }
+                swap(i, parent);
+                i = parent;
+            }
+        }
+
+        private void down(int i) {
+            while(true) {
+                int worst = i;
+                int left = 2 * i + 1;
+                int right = left + 1;
+                if(left < size && better(docs[worst], scores[worst], docs[left], scores[left])) {
+                    worst = left;
+                }
+                if(right < size && better(docs[worst], scores[worst], docs[right], scores[right])) {
+                    worst = right;
+                }
+                if(worst == i) {
+                    return;
+                }
+                swap(i, worst);
+                i = worst;
+            }
+        }
+
+        private void swap(int a, int b) {
+            int doc = docs[a];
+            docs[a] = docs[b];
+            docs[b] = doc;
+            float score = scores[a];
+            scores[a] = scores[b];
+            scores[b] = score;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.briankimathi.event_booking.service.waitingroom;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One event's waiting room: a position counter and an admission frontier that advances
+ * {@code ratePerSecond} places per second from {@code openedAtMs}. Positions at or below
+ * the frontier are admitted. The frontier is computed rather than stored, so polling is
+ * arithmetic on two fields and every node agrees on it.
+ */
+public final class AdmissionQueue {
+
+    private final int ratePerSecond;
+    private final long openedAtMs;
+    private final AtomicLong lastIssued;
+
+    public AdmissionQueue(int ratePerSecond, long openedAtMs) {
+        this(ratePerSecond, openedAtMs, 0);
+    }
+
+    private AdmissionQueue(int ratePerSecond, long openedAtMs, long lastIssued) {
+        if(ratePerSecond < 1) {
+            throw new IllegalArgumentException("ratePerSecond must be at least 1");
+        }
+        this.ratePerSecond = ratePerSecond;
+        this.openedAtMs = openedAtMs;
+        this.lastIssued = new AtomicLong(lastIssued);
+    }
+
+    public int ratePerSecond() {
+        return ratePerSecond;
+    }
+
+    public long openedAtMs() {
+        return openedAtMs;
+    }
+
+    public long frontier(long nowMs) {
+        return Math.max(0, nowMs - openedAtMs) * ratePerSecond / 1_000;
+    }
+
+    /**
+     * Hands out the next position. After a quiet spell the frontier has run ahead of the
+     * counter, so a newcomer lines up just behind it instead of being let straight in.
+     */
+    public long join(long nowMs) {
+        long frontier = frontier(nowMs);
+        return lastIssued.accumulateAndGet(frontier, (last, front) -> Math.max(last, front) + 1);
+    }
+
+    public boolean isAdmitted(long position, long nowMs) {
+        return position <= frontier(nowMs);
+    }
+
+    /**
+     * When the frontier reached the position. It depends only on the room's settings, so an
+     * admission window measured from it is the same on every poll and every node.
+     */
+    public long admittedAtMs(long position) {
+        return openedAtMs + (position * 1_000 + ratePerSecond - 1) / ratePerSecond;
+    }
+
+    public long ahead(long position, long nowMs) {
+        return Math.max(0, position - frontier(nowMs));
+    }
+
+    public long estimatedWaitSeconds(long position, long nowMs) {
+        return (ahead(position, nowMs) + ratePerSecond - 1) / ratePerSecond;
+    }
+
+    /**
+     * The same queue admitting at a new rate. The opening time is moved so the frontier
+     * carries on from where it is now instead of jumping, and issued positions stay valid.
+     */
+    public AdmissionQueue withRate(int newRatePerSecond, long nowMs) {
+        long rebasedOpenedAtMs = nowMs - frontier(nowMs) * 1_000 / newRatePerSecond;
+        return new AdmissionQueue(newRatePerSecond, rebasedOpenedAtMs, lastIssued.get());
+    }
+
+    /** A queue with the given settings that keeps counting from the positions already issued. */
+    public AdmissionQueue reopenedAt(int newRatePerSecond, long newOpenedAtMs) {
+        return new AdmissionQueue(newRatePerSecond, newOpenedAtMs, lastIssued.get());
+    }
+}
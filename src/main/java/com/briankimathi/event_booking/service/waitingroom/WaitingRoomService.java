@@ -0,0 +1,255 @@
+package com.briankimathi.event_booking.service.waitingroom;
+
+import com.briankimathi.event_booking.config.WaitingRoomConfig;
+import com.briankimathi.event_booking.domain.Event;
+import com.briankimathi.event_booking.dto.request.WaitingRoomRequest;
+import com.briankimathi.event_booking.dto.response.QueueStatusResponse;
+import com.briankimathi.event_booking.dto.response.WaitingRoomResponse;
+import com.briankimathi.event_booking.exception.AdmissionRequiredException;
+import com.briankimathi.event_booking.exception.ResourceNotFoundException;
+import com.briankimathi.event_booking.exception.ValidationException;
+import com.briankimathi.event_booking.repository.EventRepository;
+import com.briankimathi.event_booking.repository.UsedAdmissionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Opt-in admission queue for flash-sale events. Buyers join to get a signed queue ticket,
+ * poll it until the event's admission frontier passes their position, and then receive an
+ * admission token that the purchase endpoints require. Rooms live in memory and are
+ * refreshed from events on a timer, so joining and polling never query the database.
+ *
+ * Tickets and tokens are bound to the buyer's email. The admission window runs from the
+ * moment the frontier passed the position, so polling again never extends it, and a token
+ * buys once: it is recorded as spent when a purchase is made with it.
+ *
+ * Positions are issued per node, so each node admits at the configured rate.
+ */
+@Slf4j
+@Service
+public class WaitingRoomService {
+
+    private final EventRepository eventRepository;
+    private final UsedAdmissionRepository usedAdmissionRepository;
+    private final WaitingRoomConfig waitingRoomConfig;
+    private final WaitingRoomTokens tokens;
+
+    private final Map<Long, AdmissionQueue> rooms = new ConcurrentHashMap<>();
+
+    public WaitingRoomService(EventRepository eventRepository, UsedAdmissionRepository usedAdmissionRepository,
+                              WaitingRoomConfig waitingRoomConfig) {
+        if(!StringUtils.hasText(waitingRoomConfig.getSecret())) {
+            throw new IllegalStateException("app.waiting-room.secret must be set");
+        }
+        this.eventRepository = eventRepository;
+        this.usedAdmissionRepository = usedAdmissionRepository;
+        this.waitingRoomConfig = waitingRoomConfig;
+        this.tokens = new WaitingRoomTokens(waitingRoomConfig.getSecret());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.waiting-room.refresh-interval-ms:30000}", initialDelayString = "${app.waiting-room.refresh-interval-ms:30000}")
+    @Transactional(readOnly = true)
+    public void refresh() {
+        List<EventRepository.WaitingRoomView> enabled = eventRepository.findWaitingRooms();
+
+        Set<Long> seen = new HashSet<>();
+        for(EventRepository.WaitingRoomView room : enabled) {
+            seen.add(room.getId());
+            apply(room.getId(), room.getRate(), toEpochMs(room.getOpenedAt()));
+        }
+        rooms.keySet().retainAll(seen);
+
+        log.debug("Waiting rooms refreshed: {} enabled", enabled.size());
+    }
+
+    @Transactional
+    public WaitingRoomResponse configure(Long eventId, WaitingRoomRequest request) {
+        Event event = eventRepository.findForChangeById(eventId)
+                .orElseThrow(() -> new ResourceNotFoundException("Event not found with id: " + eventId));
+
+        if(!request.getEnabled()) {
+            event.setWaitingRoomRate(null);
+            event.setWaitingRoomOpenedAt(null);
+            afterCommit(() -> rooms.remove(eventId));
+            return toResponse(event);
+        }
+
+        if(request.getAdmitPerSecond() == null) {
+            throw new ValidationException("Admission rate is required to enable the waiting room");
+        }
+
+        long now = System.currentTimeMillis();
+        AdmissionQueue current = event.getWaitingRoomRate() != null
+                ? rooms.getOrDefault(eventId, new AdmissionQueue(event.getWaitingRoomRate(), toEpochMs(event.getWaitingRoomOpenedAt())))
+                : new AdmissionQueue(request.getAdmitPerSecond(), now);
+        AdmissionQueue updated = current.withRate(request.getAdmitPerSecond(), now);
+
+        event.setWaitingRoomRate(updated.ratePerSecond());
+        event.setWaitingRoomOpenedAt(toLocalDateTime(updated.openedAtMs()));
+        afterCommit(() -> rooms.put(eventId, updated));
+        return toResponse(event);
+    }
+
+    public QueueStatusResponse join(Long eventId, String buyerEmail) {
+        if(!StringUtils.hasText(buyerEmail)) {
+            throw new ValidationException("Buyer email is required to join the queue");
+        }
+        AdmissionQueue room = rooms.get(eventId);
+        long now = System.currentTimeMillis();
+        if(room == null) {
+            return QueueStatusResponse.builder()
+                    .eventId(eventId)
+                    .admitted(true)
+                    .build();
+        }
+
+        long position = room.join(now);
+        long buyer = WaitingRoomTokens.buyer(buyerEmail);
+        return status(eventId, room, tokens.queueTicket(eventId, position, buyer), new WaitingRoomTokens.QueueTicket(position, buyer), now);
+    }
+
+    public QueueStatusResponse status(Long eventId, String ticket) {
+        AdmissionQueue room = rooms.get(eventId);
+        long now = System.currentTimeMillis();
+        if(room == null) {
+            return QueueStatusResponse.builder()
+                    .eventId(eventId)
+                    .admitted(true)
+                    .build();
+        }
+
+        WaitingRoomTokens.QueueTicket queueTicket = tokens.readQueueTicket(ticket, eventId);
+        if(queueTicket == null) {
+            throw new ValidationException("Invalid queue ticket");
+        }
+        return status(eventId, room, ticket, queueTicket, now);
+    }
+
+    /**
+     * Lets a purchase through if the event has no waiting room, or spends the buyer's
+     * admission token for it. Returns the spent admission, to be handed back to
+     * {@link #release} if the purchase fails, or null when there was nothing to spend.
+     */
+    public String admit(Long eventId, String admissionToken, String buyerEmail) {
+        if(!rooms.containsKey(eventId)) {
+            return null;
+        }
+
+        WaitingRoomTokens.Admission admission = tokens.readAdmissionToken(admissionToken, eventId);
+        if(admission == null
+                || admission.buyer() != WaitingRoomTokens.buyer(buyerEmail)
+                || admission.expiresAtMs() <= System.currentTimeMillis()) {
+            throw new AdmissionRequiredException("This event is in a waiting room. Join the queue to get an admission token.");
+        }
+        if(usedAdmissionRepository.markUsed(admission.signature(), toLocalDateTime(admission.expiresAtMs())) == 0) {
+            throw new AdmissionRequiredException("This admission token has already been used. Join the queue again to buy more tickets.");
+        }
+        return admission.signature();
+    }
+
+    /** Gives back an admission whose purchase did not go through, so the buyer can try again. */
+    public void release(String admission) {
+        if(admission != null) {
+            usedAdmissionRepository.release(admission);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.waiting-room.purge-interval-ms:600000}")
+    public void purgeUsedAdmissions() {
+        int purged = usedAdmissionRepository.deleteExpired(LocalDateTime.now());
+        if(purged > 0) {
+            log.debug("Purged {} expired admissions", purged);
+        }
+    }
+
+    private QueueStatusResponse status(Long eventId, AdmissionQueue room, String ticket, WaitingRoomTokens.QueueTicket queueTicket, long now) {
+        long position = queueTicket.position();
+        if(room.isAdmitted(position, now)) {
+            long expiresAt = room.admittedAtMs(position) + waitingRoomConfig.getAdmissionTtl().toMillis();
+            if(expiresAt <= now) {
+                throw new ValidationException("The admission window for this queue ticket has closed. Join the queue again.");
+            }
+            return QueueStatusResponse.builder()
+                    .eventId(eventId)
+                    .ticket(ticket)
+                    .position(0L)
+                    .estimatedWaitSeconds(0L)
+                    .admitted(true)
+                    .admissionToken(tokens.admissionToken(eventId, position, queueTicket.buyer(), expiresAt))
+                    .admissionExpiresAt(Instant.ofEpochMilli(expiresAt))
+                    .build();
+        }
+
+        long waitSeconds = room.estimatedWaitSeconds(position, now);
+        // Far back in the line polls rarely; close to the front polls often
+        long pollAfter = Math.max(waitingRoomConfig.getMinPollSeconds(), Math.min(waitingRoomConfig.getMaxPollSeconds(), waitSeconds / 2));
+        return QueueStatusResponse.builder()
+                .eventId(eventId)
+                .ticket(ticket)
+                .position(room.ahead(position, now))
+                .estimatedWaitSeconds(waitSeconds)
+                .pollAfterSeconds(pollAfter)
+                .admitted(false)
+                .build();
+    }
+
+    private void apply(Long eventId, int rate, long openedAtMs) {
+        rooms.compute(eventId, (id, existing) -> {
+            if(existing == null) {
+                return new AdmissionQueue(rate, openedAtMs);
+            }
+            if(existing.ratePerSecond() == rate && existing.openedAtMs() == openedAtMs) {
+                return existing;
+            }
+            return existing.reopenedAt(rate, openedAtMs);
+        });
+    }
+
+    private static long toEpochMs(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMs) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMs), ZoneId.systemDefault());
+    }
+
+    // Rooms are only changed once the settings they mirror are committed
+    private static void afterCommit(Runnable action) {
+        if(TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static WaitingRoomResponse toResponse(Event event) {
+        return WaitingRoomResponse.builder()
+                .eventId(event.getId())
+                .enabled(event.getWaitingRoomRate() != null)
+                .admitPerSecond(event.getWaitingRoomRate())
+                .openedAt(event.getWaitingRoomOpenedAt())
+                .build();
+    }
+}
@@ -0,0 +1,129 @@
+package com.briankimathi.event_booking.service.waitingroom;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Locale;
+
+/**
+ * HMAC-signed, self-contained waiting room tokens, so any node can check them without
+ * shared state. A queue ticket ({@code eventId.position.buyer.sig}) is what a buyer polls
+ * with; an admission token ({@code eventId.position.buyer.expiresAtMs.sig}) is what the
+ * purchase endpoints accept. Both carry a hash of the buyer's email, so neither is any use
+ * to someone buying under another address. The two are signed under different prefixes
+ * and cannot be swapped.
+ */
+public class WaitingRoomTokens {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int SIGNATURE_BYTES = 16;
+
+    private final Mac prototype;
+    private final ThreadLocal<Mac> macs;
+
+    public WaitingRoomTokens(String secret) {
+        try {
+            prototype = Mac.getInstance(ALGORITHM);
+            prototype.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM));
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException("Could not initialise waiting room signing key", ex);
+        }
+        macs = ThreadLocal.withInitial(() -> {
+            try {
+                return (Mac) prototype.clone();
+            } catch (CloneNotSupportedException ex) {
+                throw new IllegalStateException(ex);
+            }
+        });
+    }
+
+    public record QueueTicket(long position, long buyer) {}
+
+    public record Admission(long position, long buyer, long expiresAtMs, String signature) {}
+
+    /** The buyer a token is bound to: a hash of their email, case and surrounding space ignored. */
+    public static long buyer(String email) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(email.trim().toLowerCase(Locale.ROOT).getBytes(StandardCharsets.UTF_8));
+            long buyer = 0;
+            for(int i = 0; i < Long.BYTES; i++) {
+                buyer = (buyer << 8) | (digest[i] & 0xFF);
+            }
+            return buyer;
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    public String queueTicket(long eventId, long position, long buyer) {
+        String payload = eventId + "." + position + "." + buyer;
+        return payload + "." + sign("Q", payload);
+    }
+
+    /** The ticket's position and buyer, or null if it is forged or for another event. */
+    public QueueTicket readQueueTicket(String ticket, long eventId) {
+        long[] fields = verify("Q", ticket, 3);
+        return fields != null && fields[0] == eventId ? new QueueTicket(fields[1], fields[2]) : null;
+    }
+
+    public String admissionToken(long eventId, long position, long buyer, long expiresAtMs) {
+        String payload = eventId + "." + position + "." + buyer + "." + expiresAtMs;
+        return payload + "." + sign("A", payload);
+    }
+
+    /**
+     * The admission a token grants, or null if it is forged or for another event. The
+     * signature identifies the token when it is spent.
+     */
+    public Admission readAdmissionToken(String token, long eventId) {
+        long[] fields = verify("A", token, 4);
+        return fields != null && fields[0] == eventId
+                ? new Admission(fields[1], fields[2], fields[3], token.substring(token.lastIndexOf('.') + 1))
+                : null;
+    }
+
+    private long[] verify(String type, String token, int fieldCount) {
+        if(token == null) {
+            return null;
+        }
+
+        int sigStart = token.lastIndexOf('.');
+        if(sigStart <= 0) {
+            return null;
+        }
+
+        String payload = token.substring(0, sigStart);
+        byte[] expected = sign(type, payload).getBytes(StandardCharsets.US_ASCII);
+        byte[] actual = token.substring(sigStart + 1).getBytes(StandardCharsets.US_ASCII);
+        if(!MessageDigest.isEqual(expected, actual)) {
+            return null;
+        }
+
+        String[] parts = payload.split("\\.");
+        if(parts.length != fieldCount) {
+            return null;
+        }
+
+        long[] fields = new long[fieldCount];
+        try {
+            for(int i = 0; i < fieldCount; i++) {
+                fields[i] = Long.parseLong(parts[i]);
+            }
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+        return fields;
+    }
+
+    private String sign(String type, String payload) {
+        Mac mac = macs.get();
+        mac.update(type.getBytes(StandardCharsets.US_ASCII));
+        byte[] digest = mac.doFinal(payload.getBytes(StandardCharsets.US_ASCII));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, SIGNATURE_BYTES));
+    }
+}
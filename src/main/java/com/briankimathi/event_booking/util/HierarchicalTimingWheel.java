@@ -0,0 +1,167 @@
+package com.briankimathi.event_booking.util;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * Hierarchical timing wheel over long ids (Varghese &amp; Lauck). Each level has 64 slots;
+ * level 0 slots are one tick wide and every level above is 64 times coarser. Scheduling
+ * is O(1); advancing costs one slot per elapsed tick plus an occasional cascade of a
+ * coarse slot into finer ones. Deadlines beyond the top level wait in an overflow bucket.
+ *
+ * Entries are stored in primitive arrays (16 bytes each) and cannot be cancelled;
+ * callers re-check the entry when it fires. Not thread-safe.
+ */
+public class HierarchicalTimingWheel {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+
+    private final long tickMs;
+    private final Bucket[][] wheels;
+    private final Bucket overflow = new Bucket();
+    private final Bucket due = new Bucket();
+
+    private long currentTick;
+    private int size;
+
+    public HierarchicalTimingWheel(long tickMs, int levels, long startMs) {
+        if(tickMs <= 0 || levels < 1 || levels * SLOT_BITS >= Long.SIZE - 1) {
+            throw new IllegalArgumentException("Invalid timing wheel dimensions");
+        }
+
+        this.tickMs = tickMs;
+        this.wheels = new Bucket[levels][SLOTS];
+        for(Bucket[] wheel : wheels) {
+            for(int slot = 0; slot < SLOTS; slot++) {
+                wheel[slot] = new Bucket();
+            }
+        }
+        this.currentTick = startMs / tickMs;
+    }
+
+    public void schedule(long id, long deadlineMs) {
+        // Rounded up so an entry never fires before its deadline
+        long deadlineTick = (deadlineMs + tickMs - 1) / tickMs;
+        if(!place(id, deadlineTick)) {
+            due.add(id, deadlineTick);
+        }
+        size++;
+    }
+
+    /**
+     * Moves the wheel to {@code nowMs}, handing every id whose deadline has passed to
+     * {@code expired} in deadline order (ties in no particular order).
+     */
+    public void advance(long nowMs, LongConsumer expired) {
+        drain(due, expired);
+
+        long targetTick = nowMs / tickMs;
+        while(currentTick < targetTick) {
+            currentTick++;
+
+            if((currentTick & ((1L << (SLOT_BITS * wheels.length)) - 1)) == 0) {
+                cascade(overflow, expired);
+            }
+            for(int level = wheels.length - 1; level > 0; level--) {
+                if((currentTick & ((1L << (SLOT_BITS * level)) - 1)) == 0) {
+                    cascade(wheels[level][(int) ((currentTick >>> (SLOT_BITS * level)) & SLOT_MASK)], expired);
+                }
+            }
+            drain(wheels[0][(int) (currentTick & SLOT_MASK)], expired);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /** Hands every id still waiting to {@code action}, in no particular order. */
+    public void forEachId(LongConsumer action) {
+        for(Bucket[] wheel : wheels) {
+            for(Bucket bucket : wheel) {
+                bucket.forEachId(action);
+            }
+        }
+        overflow.forEachId(action);
+        due.forEachId(action);
+    }
+
+    private boolean place(long id, long deadlineTick) {
+        long delta = deadlineTick - currentTick;
+        if(delta <= 0) {
+            return false;
+        }
+
+        for(int level = 0; level < wheels.length; level++) {
+            if(delta < 1L << (SLOT_BITS * (level + 1))) {
+                wheels[level][(int) ((deadlineTick >>> (SLOT_BITS * level)) & SLOT_MASK)].add(id, deadlineTick);
+                return true;
+            }
+        }
+
+        overflow.add(id, deadlineTick);
+        return true;
+    }
+
+    private void cascade(Bucket bucket, LongConsumer expired) {
+        int count = bucket.size;
+        if(count == 0) {
+            return;
+        }
+
+        long[] ids = Arrays.copyOf(bucket.ids, count);
+        long[] ticks = Arrays.copyOf(bucket.ticks, count);
+        bucket.clear();
+
+        for(int i = 0; i < count; i++) {
+            if(!place(ids[i], ticks[i])) {
+                size--;
+                expired.accept(ids[i]);
+            }
+        }
+    }
+
+    private void drain(Bucket bucket, LongConsumer expired) {
+        for(int i = 0; i < bucket.size; i++) {
+            expired.accept(bucket.ids[i]);
+        }
+        size -= bucket.size;
+        bucket.clear();
+    }
+
+    private static final class Bucket {
+        private static final long[] EMPTY = new long[0];
+
+        private long[] ids = EMPTY;
+        private long[] ticks = EMPTY;
+        private int size;
+
+        void add(long id, long tick) {
+            if(size == ids.length) {
+                int capacity = Math.max(8, size * 2);
+                ids = Arrays.copyOf(ids, capacity);
+                ticks = Arrays.copyOf(ticks, capacity);
+            }
+            ids[size] = id;
+            ticks[size] = tick;
+            size++;
+        }
+
+        void forEachId(LongConsumer action) {
+            for(int i = 0; i < size; i++) {
+                action.accept(ids[i]);
+            }
+        }
+
+        void clear() {
+            size = 0;
+            // Release the arrays of slots that spiked so an idle wheel stays small
+            if(ids.length > 1_024) {
+                ids = EMPTY;
+                ticks = EMPTY;
+            }
+        }
+    }
+}
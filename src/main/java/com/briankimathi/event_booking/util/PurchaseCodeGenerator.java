@@ -1,4 +1,244 @@
 package com.briankimathi.event_booking.util;
 
+import com.briankimathi.event_booking.config.PurchaseCodeConfig;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import javax.crypto.Mac;
+import javax.crypto.ShortBufferException;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Purchase codes that are unique without asking the database and can be checked as
+ * authentic before any lookup. A code is {@code prefix + id + tag + check}:
+ * <ul>
+ *   <li>id: seconds since 2025-01-01 (30 bits), node id and a per-node sequence, packed
+ *   into {@code length} base-32 characters;</li>
+ *   <li>tag: the leading bits of an HMAC of the id, {@code tag-length} characters;</li>
+ *   <li>check: a Luhn mod 32 character over id and tag that catches typos.</li>
+ * </ul>
+ * The seconds and sequence share one counter, so a burst that exhausts a second's
+ * sequence borrows from the next second instead of waiting or repeating.
+ */
+@Component
 public class PurchaseCodeGenerator {
+
+    private static final char[] ALPHABET = "ABCDEFGHJKLMNPQRSTUVWXYZ23456789".toCharArray();
+    private static final int[] VALUES = new int[128];
+    private static final int BITS_PER_CHAR = 5;
+    private static final int RADIX = 32;
+    private static final int TIME_BITS = 30;
+    private static final int MIN_SEQUENCE_BITS = 8;
+    private static final long EPOCH_SECONDS = 1_735_689_600L;
+    private static final String ALGORITHM = "HmacSHA256";
+
+    static {
+        Arrays.fill(VALUES, -1);
+        for(int i = 0; i < ALPHABET.length; i++) {
+            VALUES[ALPHABET[i]] = i;
+        }
+    }
+
+    private final String prefix;
+    private final int idChars;
+    private final int tagChars;
+    private final int codeLength;
+    private final int sequenceBits;
+    private final long nodePart;
+    private final LongSupplier clockMillis;
+
+    // (seconds since epoch << sequenceBits) | sequence of the last code issued
+    private final AtomicLong lastIssued = new AtomicLong();
+    private final ThreadLocal<Signer> signers;
+
+    @Autowired
+    public PurchaseCodeGenerator(PurchaseCodeConfig config) {
+        this(config, System::currentTimeMillis);
+    }
+
+    PurchaseCodeGenerator(PurchaseCodeConfig config, LongSupplier clockMillis) {
+        if(!StringUtils.hasText(config.getSecret())) {
+            throw new IllegalStateException("app.purchase-code.secret must be set");
+        }
+
+        int idBits = config.getLength() * BITS_PER_CHAR;
+        this.sequenceBits = idBits - TIME_BITS - config.getNodeBits();
+        if(idBits > 63 || sequenceBits < MIN_SEQUENCE_BITS) {
+            throw new IllegalStateException("app.purchase-code.length " + config.getLength()
+                    + " must fit in 63 bits and leave at least " + MIN_SEQUENCE_BITS + " sequence bits");
+        }
+        if(config.getTagLength() < 1 || config.getTagLength() > 12) {
+            throw new IllegalStateException("app.purchase-code.tag-length must be between 1 and 12");
+        }
+        if(config.getNodeId() < 0 || config.getNodeId() >= 1 << config.getNodeBits()) {
+            throw new IllegalStateException("app.purchase-code.node-id must be below 2^" + config.getNodeBits());
+        }
+
+        this.prefix = config.getPrefix();
+        this.idChars = config.getLength();
+        this.tagChars = config.getTagLength();
+        this.codeLength = prefix.length() + idChars + tagChars + 1;
+        this.nodePart = (long) config.getNodeId() << sequenceBits;
+        this.clockMillis = clockMillis;
+
+        byte[] key = config.getSecret().getBytes(StandardCharsets.UTF_8);
+        this.signers = ThreadLocal.withInitial(() -> new Signer(key));
+    }
+
+    public String generate() {
+        long id = nextId();
+
+        char[] code = new char[codeLength];
+        prefix.getChars(0, prefix.length(), code, 0);
+        int pos = prefix.length();
+        pos = writeBits(code, pos, id, idChars);
+        pos = writeBits(code, pos, signers.get().tag(id, tagChars * BITS_PER_CHAR), tagChars);
+        code[pos] = ALPHABET[checkCharacter(code, prefix.length(), pos)];
+        return new String(code);
+    }
+
+    /**
+     * Whether the code has this generator's shape, a valid check character and a tag that
+     * matches its id. Needs no database access.
+     */
+    public boolean isAuthentic(String code) {
+        if(code == null || code.length() != codeLength || !code.startsWith(prefix)) {
+            return false;
+        }
+
+        int start = prefix.length();
+        int checkPos = codeLength - 1;
+        for(int i = start; i < codeLength; i++) {
+            if(valueOf(code.charAt(i)) < 0) {
+                return false;
+            }
+        }
+        if(valueOf(code.charAt(checkPos)) != checkCharacter(code, start, checkPos)) {
+            return false;
+        }
+
+        long id = readBits(code, start, idChars);
+        long tag = readBits(code, start + idChars, tagChars);
+        return tag == signers.get().tag(id, tagChars * BITS_PER_CHAR);
+    }
+
+    /**
+     * Whether a purchase with this code could exist: an authentic code, or one issued before
+     * codes were signed ({@code prefix} followed by {@code length} random characters).
+     */
+    public boolean mayExist(String code) {
+        if(isAuthentic(code)) {
+            return true;
+        }
+        if(code == null || code.length() != prefix.length() + idChars || !code.startsWith(prefix)) {
+            return false;
+        }
+        for(int i = prefix.length(); i < code.length(); i++) {
+            if(valueOf(code.charAt(i)) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private long nextId() {
+        long floor = (clockMillis.getAsLong() / 1_000 - EPOCH_SECONDS) << sequenceBits;
+        long last;
+        long next;
+        do {
+            last = lastIssued.get();
+            next = Math.max(last + 1, floor);
+        } while(!lastIssued.compareAndSet(last, next));
+
+        long seconds = next >>> sequenceBits;
+        long sequence = next & ((1L << sequenceBits) - 1);
+        return (seconds & ((1L << TIME_BITS) - 1)) << (idChars * BITS_PER_CHAR - TIME_BITS) | nodePart | sequence;
+    }
+
+    private static int writeBits(char[] out, int pos, long value, int chars) {
+        for(int i = chars - 1; i >= 0; i--) {
+            out[pos + i] = ALPHABET[(int) (value & (RADIX - 1))];
+            value >>>= BITS_PER_CHAR;
+        }
+        return pos + chars;
+    }
+
+    private static long readBits(CharSequence code, int pos, int chars) {
+        long value = 0;
+        for(int i = 0; i < chars; i++) {
+            value = value << BITS_PER_CHAR | valueOf(code.charAt(pos + i));
+        }
+        return value;
+    }
+
+    // Luhn mod N over [from, to), computed as if the check character followed
+    private static int checkCharacter(CharSequence code, int from, int to) {
+        int factor = 2;
+        int sum = 0;
+        for(int i = to - 1; i >= from; i--) {
+            sum += luhnAddend(factor, valueOf(code.charAt(i)));
+            factor = 3 - factor;
+        }
+        return (RADIX - sum % RADIX) % RADIX;
+    }
+
+    private static int checkCharacter(char[] code, int from, int to) {
+        int factor = 2;
+        int sum = 0;
+        for(int i = to - 1; i >= from; i--) {
+            sum += luhnAddend(factor, valueOf(code[i]));
+            factor = 3 - factor;
+        }
+        return (RADIX - sum % RADIX) % RADIX;
+    }
+
+    private static int luhnAddend(int factor, int value) {
+        int addend = factor * value;
+        return addend / RADIX + addend % RADIX;
+    }
+
+    private static int valueOf(char c) {
+        return c < VALUES.length ? VALUES[c] : -1;
+    }
+
+    /** Per-thread HMAC with reusable buffers, so signing allocates nothing. */
+    private static final class Signer {
+        private final Mac mac;
+        private final byte[] input = new byte[Long.BYTES];
+        private final byte[] digest;
+
+        Signer(byte[] key) {
+            try {
+                mac = Mac.getInstance(ALGORITHM);
+                mac.init(new SecretKeySpec(key, ALGORITHM));
+            } catch (GeneralSecurityException ex) {
+                throw new IllegalStateException("Could not initialise purchase code signing key", ex);
+            }
+            digest = new byte[mac.getMacLength()];
+        }
+
+        long tag(long id, int bits) {
+            for(int i = 0; i < Long.BYTES; i++) {
+                input[i] = (byte) (id >>> (56 - 8 * i));
+            }
+            mac.update(input);
+            try {
+                mac.doFinal(digest, 0);
+            } catch (ShortBufferException ex) {
+                throw new IllegalStateException(ex);
+            }
+
+            long tag = 0;
+            for(int i = 0; i < Long.BYTES; i++) {
+                tag = tag << 8 | (digest[i] & 0xFF);
+            }
+            return tag >>> (Long.SIZE - bits);
+        }
+    }
 }
@@ -0,0 +1,8 @@
+-- ============================================
+-- Event Booking Platform - Gate check-in
+-- Version: 10
+-- ============================================
+
+-- Set when the purchase code is scanned at the venue. Scans are recorded in memory and
+-- written here in batches, so the time is accurate to app.check-in.flush-interval-ms.
+ALTER TABLE ticket_purchases ADD COLUMN checked_in_at TIMESTAMP;
@@ -0,0 +1,12 @@
+-- ============================================
+-- Event Booking Platform - QR codes rendered on demand
+-- Version: 11
+-- ============================================
+
+-- QR images are rendered from the purchase code when requested
+-- (GET /api/public/purchase/{code}/qr), so qr_code_data is no longer mapped or written.
+-- Clearing it shrinks the rows now; the column is dropped in a later migration, once no
+-- running version still maps it.
+UPDATE ticket_purchases SET qr_code_data = NULL WHERE qr_code_data IS NOT NULL;
+
+COMMENT ON COLUMN ticket_purchases.qr_code_data IS 'Unused since V11; scheduled to be dropped';
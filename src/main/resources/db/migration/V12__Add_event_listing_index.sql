@@ -0,0 +1,8 @@
+-- ============================================
+-- Event Booking Platform - Keyset event listing
+-- Version: 12
+-- ============================================
+
+-- The public listing seeks on (start_date, id) within a status, so each page is an index
+-- range scan that starts where the previous page ended, however deep the client pages.
+CREATE INDEX idx_event_status_start_id ON events(status, start_date, id);
@@ -0,0 +1,15 @@
+-- ============================================
+-- Event Booking Platform - Spent waiting room admissions
+-- Version: 13
+-- ============================================
+
+-- One row per admission token a purchase has been made with, keyed by the token's
+-- signature, so a token buys once on any node. Rows can be deleted once expires_at (the
+-- token's own expiry) has passed.
+CREATE TABLE used_admissions (
+    id BIGSERIAL PRIMARY KEY,
+    signature VARCHAR(32) NOT NULL UNIQUE,
+    expires_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_used_admissions_expires ON used_admissions(expires_at);
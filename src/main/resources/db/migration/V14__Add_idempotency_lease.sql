@@ -0,0 +1,9 @@
+-- ============================================
+-- Event Booking Platform - Idempotency claim lease
+-- Version: 14
+-- ============================================
+
+-- A claim whose request never reached an answer (the node died, or the response could not
+-- be recorded) is only honoured until in_progress_until; after that a retry takes it over
+-- instead of being told the first request is still running until the key expires.
+ALTER TABLE idempotency_keys ADD COLUMN in_progress_until TIMESTAMP;
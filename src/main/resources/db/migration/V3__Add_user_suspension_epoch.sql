@@ -0,0 +1,8 @@
+-- ============================================
+-- Event Booking Platform - User suspension epoch
+-- Version: 3
+-- ============================================
+
+-- Bumped every time a user is suspended so that tokens minted before the
+-- suspension can be told apart from tokens minted after reactivation.
+ALTER TABLE users ADD COLUMN suspension_epoch INTEGER NOT NULL DEFAULT 0;
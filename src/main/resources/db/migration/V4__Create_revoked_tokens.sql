@@ -0,0 +1,17 @@
+-- ============================================
+-- Event Booking Platform - Token revocation denylist
+-- Version: 4
+-- ============================================
+
+-- token_key is either "jti:<token id>" for a single token (logout) or
+-- "user:<user id>:<suspension epoch>" for every token a user held when suspended.
+-- Rows can be deleted once expires_at has passed: the tokens they cover are dead anyway.
+CREATE TABLE revoked_tokens (
+    id BIGSERIAL PRIMARY KEY,
+    token_key VARCHAR(100) NOT NULL UNIQUE,
+    user_id BIGINT REFERENCES users(id) ON DELETE CASCADE,
+    expires_at TIMESTAMP NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_revoked_tokens_expires ON revoked_tokens(expires_at);
@@ -0,0 +1,15 @@
+-- ============================================
+-- Event Booking Platform - Purchase buyer details and inventory write-behind
+-- Version: 5
+-- ============================================
+
+-- Guest purchases have no user row, so the buyer's contact details live on the purchase.
+ALTER TABLE ticket_purchases ADD COLUMN buyer_email VARCHAR(255);
+ALTER TABLE ticket_purchases ADD COLUMN buyer_phone VARCHAR(20);
+
+-- FALSE while the purchase's effect on event_ticket_types/events (a decrement, or an
+-- increment once CANCELLED) has not been written yet. Startup recovery subtracts these
+-- rows from available_quantity; the write-behind flush applies them and sets TRUE.
+ALTER TABLE ticket_purchases ADD COLUMN inventory_synced BOOLEAN NOT NULL DEFAULT TRUE;
+
+CREATE INDEX idx_purchase_inventory_unsynced ON ticket_purchases(id) WHERE inventory_synced = FALSE;
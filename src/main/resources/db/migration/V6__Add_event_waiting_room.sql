@@ -0,0 +1,11 @@
+-- ============================================
+-- Event Booking Platform - Flash-sale waiting room
+-- Version: 6
+-- ============================================
+
+-- A waiting room is enabled while waiting_room_rate is set. Every node derives the
+-- admission frontier from these two columns alone: (now - opened_at) * rate.
+ALTER TABLE events ADD COLUMN waiting_room_rate INTEGER;
+ALTER TABLE events ADD COLUMN waiting_room_opened_at TIMESTAMP;
+
+ALTER TABLE events ADD CONSTRAINT chk_event_waiting_room_rate CHECK (waiting_room_rate IS NULL OR waiting_room_rate > 0);
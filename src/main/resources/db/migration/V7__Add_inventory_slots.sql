@@ -0,0 +1,21 @@
+-- ============================================
+-- Event Booking Platform - Sharded ticket inventory
+-- Version: 7
+-- ============================================
+
+-- A hot event's ticket-type quantity can be split across N slot rows so concurrent
+-- buyers lock different rows. Quantity lives either on event_ticket_types or on its
+-- slots (a sharded event keeps available_quantity at 0 there), so the available total is
+-- always available_quantity + SUM(slots.available_quantity).
+ALTER TABLE events ADD COLUMN inventory_shards INTEGER NOT NULL DEFAULT 1;
+ALTER TABLE events ADD CONSTRAINT chk_event_inventory_shards CHECK (inventory_shards >= 1);
+
+CREATE TABLE event_ticket_type_slots (
+    id BIGSERIAL PRIMARY KEY,
+    event_id BIGINT NOT NULL REFERENCES events(id) ON DELETE CASCADE,
+    ticket_type_id BIGINT NOT NULL REFERENCES ticket_types(id) ON DELETE CASCADE,
+    slot INTEGER NOT NULL,
+    available_quantity INTEGER NOT NULL DEFAULT 0,
+    CONSTRAINT uk_event_ticket_type_slot UNIQUE (event_id, ticket_type_id, slot),
+    CONSTRAINT chk_event_ticket_slot_quantity CHECK (available_quantity >= 0)
+);
@@ -0,0 +1,9 @@
+-- ============================================
+-- Event Booking Platform - Pooled purchase ids
+-- Version: 8
+-- ============================================
+
+-- Purchases are group-committed and inserted as one JDBC batch, which needs ids before
+-- the insert. Hibernate reserves 50 ids per nextval (pooled optimizer), so the sequence
+-- steps by the same amount. Rows inserted through the column default still get unique ids.
+ALTER SEQUENCE ticket_purchases_id_seq INCREMENT BY 50;
@@ -0,0 +1,21 @@
+-- ============================================
+-- Event Booking Platform - Idempotency keys
+-- Version: 9
+-- ============================================
+
+-- One row per Idempotency-Key a client sent to a purchase endpoint, scoped by caller
+-- ("user:<id>:<key>" or "guest:<key>"). The unique constraint is the cross-node claim:
+-- status_code stays NULL while the first request is running, then the response is kept
+-- so retries get it back. Rows can be deleted once expires_at has passed.
+CREATE TABLE idempotency_keys (
+    id BIGSERIAL PRIMARY KEY,
+    idempotency_key VARCHAR(300) NOT NULL UNIQUE,
+    request_hash VARCHAR(64) NOT NULL,
+    status_code INTEGER,
+    content_type VARCHAR(100),
+    response_body TEXT,
+    expires_at TIMESTAMP NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_idempotency_keys_expires ON idempotency_keys(expires_at);
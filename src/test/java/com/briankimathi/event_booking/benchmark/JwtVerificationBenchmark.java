@@ -0,0 +1,86 @@
+package com.briankimathi.event_booking.benchmark;
+
+import com.briankimathi.event_booking.config.JwtConfig;
+import com.briankimathi.event_booking.security.JwtKeyring;
+import com.briankimathi.event_booking.security.JwtTokenProvider;
+import com.briankimathi.event_booking.security.SecurityUser;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares per-request token verification before and after the keyring:
+ * rebuilding key and parser per call, a prebuilt keyring parser, and a hit
+ * in the verified-token cache.
+ *
+ * Run with:
+ *   mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ *   java -cp target/test-classes:target/classes:$(cat target/cp.txt) org.openjdk.jmh.Main JwtVerificationBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtVerificationBenchmark {
+
+    private static final String SECRET = "benchmark-secret-key-that-is-at-least-32-characters";
+
+    private JwtKeyring keyring;
+    private JwtTokenProvider tokenProvider;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        JwtConfig jwtConfig = new JwtConfig();
+        jwtConfig.setSecret(SECRET);
+        jwtConfig.setExpiration(3_600_000L);
+
+        keyring = new JwtKeyring(jwtConfig);
+        tokenProvider = new JwtTokenProvider(jwtConfig, keyring);
+
+        SecurityUser user = SecurityUser.builder()
+                .id(1L)
+                .email("bench@example.com")
+                .authorities(List.of(new SimpleGrantedAuthority("ROLE_USER")))
+                .suspensionEpoch(0)
+                .build();
+        token = tokenProvider.generateToken(user, tokenProvider.buildPrincipalClaims(user));
+        tokenProvider.extractAllClaims(token);
+    }
+
+    @Benchmark
+    public Claims rebuildKeyAndParserPerCall() {
+        return Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+
+    @Benchmark
+    public Claims prebuiltKeyringParser() {
+        return keyring.entryFor(token).parser().parseSignedClaims(token).getPayload();
+    }
+
+    @Benchmark
+    public Claims verifiedTokenCacheHit() {
+        return tokenProvider.extractAllClaims(token);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtVerificationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,70 @@
+package com.briankimathi.event_booking.benchmark;
+
+import com.briankimathi.event_booking.config.PurchaseCodeConfig;
+import com.briankimathi.event_booking.util.PurchaseCodeGenerator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Purchase code generation under contention: the signed time/node/sequence codes
+ * against the earlier shared SecureRandom generator, plus the cost of checking a code
+ * before it reaches the database. Add -prof gc to see allocation per code.
+ *
+ * Run with:
+ *   mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ *   java -cp target/test-classes:target/classes:$(cat target/cp.txt) org.openjdk.jmh.Main PurchaseCodeBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(8)
+@Fork(1)
+public class PurchaseCodeBenchmark {
+
+    private static final char[] ALPHABET = "ABCDEFGHJKLMNPQRSTUVWXYZ23456789".toCharArray();
+
+    private PurchaseCodeGenerator generator;
+    private SecureRandom random;
+    private String code;
+
+    @Setup
+    public void setUp() {
+        PurchaseCodeConfig config = new PurchaseCodeConfig();
+        config.setSecret("benchmark-purchase-code-secret");
+        generator = new PurchaseCodeGenerator(config);
+        random = new SecureRandom();
+        code = generator.generate();
+    }
+
+    @Benchmark
+    public String signedCode() {
+        return generator.generate();
+    }
+
+    @Benchmark
+    public String secureRandomCode() {
+        StringBuilder builder = new StringBuilder("EVT-");
+        for(int i = 0; i < 10; i++) {
+            builder.append(ALPHABET[random.nextInt(ALPHABET.length)]);
+        }
+        return builder.toString();
+    }
+
+    @Benchmark
+    public boolean verify() {
+        return generator.isAuthentic(code);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PurchaseCodeBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
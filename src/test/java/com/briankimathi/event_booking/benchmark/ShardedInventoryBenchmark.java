@@ -0,0 +1,130 @@
+package com.briankimathi.event_booking.benchmark;
+
+import com.briankimathi.event_booking.EventBookingApplication;
+import com.briankimathi.event_booking.domain.Event;
+import com.briankimathi.event_booking.domain.EventTicketType;
+import com.briankimathi.event_booking.domain.TicketType;
+import com.briankimathi.event_booking.domain.User;
+import com.briankimathi.event_booking.domain.enums.EventStatus;
+import com.briankimathi.event_booking.dto.request.PurchaseRequest;
+import com.briankimathi.event_booking.dto.response.PurchaseResponse;
+import com.briankimathi.event_booking.service.TicketService;
+import com.briankimathi.event_booking.service.inventory.InventoryShardingService;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Purchases per second against a local Postgres as an event's inventory is split across
+ * more slot rows. Every purchase goes through TicketService, so the figures include the
+ * purchase insert; only the inventory rows being contended change between runs.
+ *
+ * Needs the event_booking_test database from application-test.yml. Run with:
+ *   mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ *   java -cp target/test-classes:target/classes:$(cat target/cp.txt) org.openjdk.jmh.Main ShardedInventoryBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Threads(32)
+@Fork(1)
+public class ShardedInventoryBenchmark {
+
+    private static final int CAPACITY = 10_000_000;
+
+    @Param({"1", "4", "16", "64"})
+    public int shards;
+
+    private ConfigurableApplicationContext context;
+    private TicketService ticketService;
+    private PurchaseRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(EventBookingApplication.class)
+                .profiles("test")
+                .properties(
+                        "app.inventory.mode=database",
+                        "app.rate-limit.enabled=false",
+                        "spring.datasource.hikari.maximum-pool-size=40",
+                        "logging.level.com.briankimathi.event_booking=WARN"
+                )
+                .run();
+
+        ticketService = context.getBean(TicketService.class);
+        EntityManager entityManager = context.getBean(EntityManager.class);
+        TransactionTemplate transactionTemplate = context.getBean(TransactionTemplate.class);
+
+        EventTicketType eventTicketType = transactionTemplate.execute(status -> {
+            User creator = User.builder()
+                    .email("creator-benchmark-" + System.nanoTime() + "@test.com")
+                    .password("{noop}password")
+                    .build();
+            entityManager.persist(creator);
+
+            TicketType ticketType = TicketType.builder()
+                    .name("General Admission")
+                    .price(new BigDecimal("50.00"))
+                    .capacity(CAPACITY)
+                    .build();
+            entityManager.persist(ticketType);
+
+            Event event = Event.builder()
+                    .title("Sharded Inventory Benchmark")
+                    .startDate(LocalDateTime.now().plusDays(30))
+                    .endDate(LocalDateTime.now().plusDays(30).plusHours(4))
+                    .status(EventStatus.PUBLISHED)
+                    .totalCapacity(CAPACITY)
+                    .availableTickets(CAPACITY)
+                    .creator(creator)
+                    .build();
+            entityManager.persist(event);
+
+            EventTicketType created = EventTicketType.builder()
+                    .event(event)
+                    .ticketType(ticketType)
+                    .price(new BigDecimal("50.00"))
+                    .availableQuantity(CAPACITY)
+                    .build();
+            entityManager.persist(created);
+            return created;
+        });
+
+        Long eventId = eventTicketType.getEvent().getId();
+        context.getBean(InventoryShardingService.class).reshard(eventId, shards);
+
+        request = PurchaseRequest.builder()
+                .eventId(eventId)
+                .eventTicketTypeId(eventTicketType.getId())
+                .quantity(1)
+                .buyerEmail("buyer@test.com")
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public PurchaseResponse purchase() {
+        return ticketService.purchase(request, null);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ShardedInventoryBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,187 @@
+package com.briankimathi.event_booking.integration;
+
+import com.briankimathi.event_booking.domain.Event;
+import com.briankimathi.event_booking.domain.EventTicketType;
+import com.briankimathi.event_booking.domain.TicketType;
+import com.briankimathi.event_booking.domain.User;
+import com.briankimathi.event_booking.domain.enums.EventStatus;
+import com.briankimathi.event_booking.dto.request.PurchaseRequest;
+import com.briankimathi.event_booking.exception.ValidationException;
+import com.briankimathi.event_booking.service.TicketService;
+import com.briankimathi.event_booking.service.inventory.InventoryShardingService;
+import com.briankimathi.event_booking.service.inventory.SqlTicketInventory;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = "app.inventory.mode=database")
+@ActiveProfiles("test")
+@DisplayName("Ticket Purchase Concurrency Integration Tests")
+class TicketPurchaseConcurrencyIntegrationTest {
+
+    private static final int CAPACITY = 500;
+    private static final int ATTEMPTS = 4_000;
+    private static final int THREADS = 64;
+
+    @Autowired
+    private TicketService ticketService;
+
+    @Autowired
+    private InventoryShardingService inventoryShardingService;
+
+    @Autowired
+    private SqlTicketInventory sqlTicketInventory;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Long eventId;
+    private Long eventTicketTypeId;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate.executeWithoutResult(status -> {
+            User creator = User.builder()
+                    .email("creator-concurrency@test.com")
+                    .password("{noop}password")
+                    .build();
+            entityManager.persist(creator);
+
+            TicketType ticketType = TicketType.builder()
+                    .name("General Admission")
+                    .price(new BigDecimal("50.00"))
+                    .capacity(CAPACITY)
+                    .build();
+            entityManager.persist(ticketType);
+
+            Event event = Event.builder()
+                    .title("Flash Sale")
+                    .startDate(LocalDateTime.now().plusDays(30))
+                    .endDate(LocalDateTime.now().plusDays(30).plusHours(4))
+                    .status(EventStatus.PUBLISHED)
+                    .totalCapacity(CAPACITY)
+                    .availableTickets(CAPACITY)
+                    .creator(creator)
+                    .build();
+            entityManager.persist(event);
+
+            EventTicketType eventTicketType = EventTicketType.builder()
+                    .event(event)
+                    .ticketType(ticketType)
+                    .price(new BigDecimal("50.00"))
+                    .availableQuantity(CAPACITY)
+                    .build();
+            entityManager.persist(eventTicketType);
+
+            eventId = event.getId();
+            eventTicketTypeId = eventTicketType.getId();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionTemplate.executeWithoutResult(status -> {
+            entityManager.createQuery("DELETE FROM TicketPurchase").executeUpdate();
+            entityManager.createQuery("DELETE FROM EventTicketTypeSlot").executeUpdate();
+            entityManager.createQuery("DELETE FROM EventTicketType").executeUpdate();
+            entityManager.createQuery("DELETE FROM Event").executeUpdate();
+            entityManager.createQuery("DELETE FROM TicketType").executeUpdate();
+            entityManager.createQuery("DELETE FROM User u WHERE u.email = 'creator-concurrency@test.com'").executeUpdate();
+        });
+    }
+
+    @Test
+    @DisplayName("Should sell exactly the capacity under thousands of parallel purchases")
+    void purchase_ParallelBuyers_SellsExactlyCapacity() throws Exception {
+        int soldOut = purchaseInParallel();
+
+        Long purchases = entityManager.createQuery("SELECT COUNT(p) FROM TicketPurchase p", Long.class).getSingleResult();
+        Integer remaining = entityManager.createQuery("SELECT ett.availableQuantity FROM EventTicketType ett WHERE ett.id = :id", Integer.class)
+                .setParameter("id", eventTicketTypeId)
+                .getSingleResult();
+        Integer eventRemaining = entityManager.createQuery("SELECT e.availableTickets FROM Event e WHERE e.id = :id", Integer.class)
+                .setParameter("id", eventId)
+                .getSingleResult();
+
+        assertEquals(CAPACITY, purchases);
+        assertEquals(ATTEMPTS - CAPACITY, soldOut);
+        assertEquals(0, remaining);
+        assertEquals(0, eventRemaining);
+    }
+
+    @Test
+    @DisplayName("Should sell exactly the capacity across inventory slots and roll the event total up")
+    void purchase_ShardedInventory_SellsExactlyCapacity() throws Exception {
+        inventoryShardingService.reshard(eventId, 8);
+
+        int soldOut = purchaseInParallel();
+        sqlTicketInventory.rollUpShardedEvents();
+
+        Long purchases = entityManager.createQuery("SELECT COUNT(p) FROM TicketPurchase p", Long.class).getSingleResult();
+        Long slotRemaining = entityManager.createQuery("SELECT COALESCE(SUM(s.availableQuantity), 0) FROM EventTicketTypeSlot s WHERE s.eventId = :id", Long.class)
+                .setParameter("id", eventId)
+                .getSingleResult();
+        Integer eventRemaining = entityManager.createQuery("SELECT e.availableTickets FROM Event e WHERE e.id = :id", Integer.class)
+                .setParameter("id", eventId)
+                .getSingleResult();
+
+        assertEquals(CAPACITY, purchases);
+        assertEquals(ATTEMPTS - CAPACITY, soldOut);
+        assertEquals(0, slotRemaining);
+        assertEquals(0, eventRemaining);
+    }
+
+    private int purchaseInParallel() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger soldOut = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>(ATTEMPTS);
+
+        for(int i = 0; i < ATTEMPTS; i++) {
+            PurchaseRequest request = PurchaseRequest.builder()
+                    .eventId(eventId)
+                    .eventTicketTypeId(eventTicketTypeId)
+                    .quantity(1)
+                    .buyerEmail("buyer" + i + "@test.com")
+                    .build();
+
+            futures.add(executor.submit(() -> {
+                start.await();
+                try {
+                    ticketService.purchase(request, null);
+                } catch (ValidationException ex) {
+                    soldOut.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for(Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        return soldOut.get();
+    }
+}
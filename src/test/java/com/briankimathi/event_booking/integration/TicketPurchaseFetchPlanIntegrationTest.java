@@ -0,0 +1,141 @@
+package com.briankimathi.event_booking.integration;
+
+import com.briankimathi.event_booking.domain.Event;
+import com.briankimathi.event_booking.domain.TicketPurchase;
+import com.briankimathi.event_booking.domain.TicketType;
+import com.briankimathi.event_booking.domain.User;
+import com.briankimathi.event_booking.domain.enums.EventStatus;
+import com.briankimathi.event_booking.domain.enums.PurchaseStatus;
+import com.briankimathi.event_booking.repository.TicketPurchaseRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@DisplayName("Ticket Purchase Fetch Plan Integration Tests")
+class TicketPurchaseFetchPlanIntegrationTest {
+
+    private static final int PURCHASES = 3;
+
+    @Autowired
+    private TicketPurchaseRepository ticketPurchaseRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Statistics statistics;
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        transactionTemplate.executeWithoutResult(status -> {
+            User buyer = User.builder()
+                    .email("buyer-fetch-plan@test.com")
+                    .password("{noop}password")
+                    .build();
+            entityManager.persist(buyer);
+
+            TicketType ticketType = TicketType.builder()
+                    .name("General Admission")
+                    .price(new BigDecimal("50.00"))
+                    .capacity(100)
+                    .build();
+            entityManager.persist(ticketType);
+
+            Event event = Event.builder()
+                    .title("Fetch Plan")
+                    .startDate(LocalDateTime.now().plusDays(30))
+                    .endDate(LocalDateTime.now().plusDays(30).plusHours(4))
+                    .status(EventStatus.PUBLISHED)
+                    .totalCapacity(100)
+                    .availableTickets(100 - PURCHASES)
+                    .creator(buyer)
+                    .build();
+            entityManager.persist(event);
+
+            // Neither a commission nor payments: the inverse one-to-ones must still be
+            // resolved by the join rather than a select per row
+            for(int i = 0; i < PURCHASES; i++) {
+                entityManager.persist(TicketPurchase.builder()
+                        .user(buyer)
+                        .event(event)
+                        .ticketType(ticketType)
+                        .quantity(1)
+                        .totalAmount(new BigDecimal("50.00"))
+                        .buyerEmail(buyer.getEmail())
+                        .purchaseCode("FETCH-PLAN-" + i)
+                        .status(PurchaseStatus.COMPLETED)
+                        .purchaseDate(LocalDateTime.now())
+                        .build());
+            }
+
+            userId = buyer.getId();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionTemplate.executeWithoutResult(status -> {
+            entityManager.createQuery("DELETE FROM TicketPurchase").executeUpdate();
+            entityManager.createQuery("DELETE FROM Event").executeUpdate();
+            entityManager.createQuery("DELETE FROM TicketType").executeUpdate();
+            entityManager.createQuery("DELETE FROM User u WHERE u.email = 'buyer-fetch-plan@test.com'").executeUpdate();
+        });
+    }
+
+    @Test
+    @DisplayName("Should load a user's purchases with their event, ticket type and payment in one select")
+    void findByUserId_OneSelect() {
+        statistics.clear();
+
+        List<TicketPurchase> purchases = ticketPurchaseRepository.findByUserId(userId);
+
+        assertEquals(PURCHASES, purchases.size());
+        for(TicketPurchase purchase : purchases) {
+            // Outside the transaction, so anything not fetched would throw here
+            assertEquals("Fetch Plan", purchase.getEvent().getTitle());
+            assertNull(purchase.getEvent().getCommission());
+            assertEquals("General Admission", purchase.getTicketType().getName());
+            assertNull(purchase.getPaymentTransaction());
+        }
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("Should load a purchase by code with its event, ticket type and payment in one select")
+    void findByPurchaseCode_OneSelect() {
+        statistics.clear();
+
+        TicketPurchase purchase = ticketPurchaseRepository.findByPurchaseCode("FETCH-PLAN-0").orElseThrow();
+
+        assertEquals("Fetch Plan", purchase.getEvent().getTitle());
+        assertNull(purchase.getEvent().getCommission());
+        assertEquals("General Admission", purchase.getTicketType().getName());
+        assertNull(purchase.getPaymentTransaction());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+}
@@ -0,0 +1,95 @@
+package com.briankimathi.event_booking.security;
+
+import com.briankimathi.event_booking.config.JwtConfig;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("JwtTokenProvider Tests")
+class JwtTokenProviderTest {
+
+    private static final String LEGACY_SECRET = "test-secret-key-that-is-at-least-32-characters-long";
+    private static final String ROTATED_SECRET = "rotated-secret-key-that-is-at-least-32-characters";
+
+    private JwtTokenProvider tokenProvider;
+
+    @BeforeEach
+    void setUp() {
+        JwtConfig jwtConfig = jwtConfig(null);
+        tokenProvider = new JwtTokenProvider(jwtConfig, new JwtKeyring(jwtConfig));
+    }
+
+    @Test
+    @DisplayName("Should rebuild the principal from signed claims")
+    void toSecurityUser_RoundTripsPrincipalClaims() {
+        SecurityUser user = SecurityUser.builder()
+                .id(42L)
+                .email("user@example.com")
+                .authorities(List.of(new SimpleGrantedAuthority("ROLE_USER"), new SimpleGrantedAuthority("ROLE_CREATOR")))
+                .suspensionEpoch(3)
+                .build();
+
+        String token = tokenProvider.generateToken(user, tokenProvider.buildPrincipalClaims(user));
+        Claims claims = tokenProvider.extractAllClaims(token);
+
+        assertTrue(tokenProvider.hasPrincipalClaims(claims));
+
+        SecurityUser principal = tokenProvider.toSecurityUser(claims);
+        assertEquals(42L, principal.getId());
+        assertEquals("user@example.com", principal.getUsername());
+        assertEquals(3, principal.getSuspensionEpoch());
+        assertTrue(principal.isEnabled());
+        assertEquals(List.of("ROLE_USER", "ROLE_CREATOR"),
+                principal.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList());
+    }
+
+    @Test
+    @DisplayName("Should flag tokens issued without principal claims")
+    void hasPrincipalClaims_LegacyToken_ReturnsFalse() {
+        SecurityUser user = SecurityUser.builder().email("legacy@example.com").build();
+
+        String token = tokenProvider.generateToken(user, Map.of("email", "legacy@example.com"));
+
+        assertFalse(tokenProvider.hasPrincipalClaims(tokenProvider.extractAllClaims(token)));
+    }
+
+    @Test
+    @DisplayName("Should keep verifying tokens signed with a retired key after rotation")
+    void extractAllClaims_AfterRotation_VerifiesOldAndNewKeys() {
+        SecurityUser user = SecurityUser.builder().email("rotate@example.com").build();
+        String legacyToken = tokenProvider.generateToken(user);
+
+        JwtConfig rotatedConfig = jwtConfig("2026-10");
+        JwtTokenProvider rotatedProvider = new JwtTokenProvider(rotatedConfig, new JwtKeyring(rotatedConfig));
+        String rotatedToken = rotatedProvider.generateToken(user);
+
+        assertEquals("rotate@example.com", rotatedProvider.extractUsername(legacyToken));
+        assertEquals("rotate@example.com", rotatedProvider.extractUsername(rotatedToken));
+        assertThrows(JwtException.class, () -> tokenProvider.extractUsername(rotatedToken));
+    }
+
+    private static JwtConfig jwtConfig(String activeKid) {
+        JwtConfig jwtConfig = new JwtConfig();
+        jwtConfig.setSecret(LEGACY_SECRET);
+        jwtConfig.setExpiration(60_000L);
+
+        if(activeKid != null) {
+            JwtConfig.SigningKey rotated = new JwtConfig.SigningKey();
+            rotated.setKid(activeKid);
+            rotated.setSecret(ROTATED_SECRET);
+            jwtConfig.getKeys().add(rotated);
+            jwtConfig.setActiveKid(activeKid);
+        }
+
+        return jwtConfig;
+    }
+}
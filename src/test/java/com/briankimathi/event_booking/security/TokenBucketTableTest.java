@@ -0,0 +1,77 @@
+package com.briankimathi.event_booking.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("TokenBucketTable Tests")
+class TokenBucketTableTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    @DisplayName("Should allow a burst up to capacity and then reject")
+    void allowsBurstUpToCapacityThenRejects() {
+        TokenBucketTable table = new TokenBucketTable(4, 100, 60 * SECOND);
+        long now = 1_000 * SECOND;
+
+        for(int expectedRemaining = 4; expectedRemaining >= 0; expectedRemaining--) {
+            assertEquals(expectedRemaining, table.tryAcquire("ip:1", 5, SECOND, now));
+        }
+
+        long rejected = table.tryAcquire("ip:1", 5, SECOND, now);
+        assertTrue(rejected < 0);
+        assertEquals(SECOND, -rejected - 1);
+    }
+
+    @Test
+    @DisplayName("Should refill one token per emission interval")
+    void refillsAtTheEmissionInterval() {
+        TokenBucketTable table = new TokenBucketTable(4, 100, 60 * SECOND);
+        long now = 1_000 * SECOND;
+
+        for(int i = 0; i < 5; i++) {
+            table.tryAcquire("ip:1", 5, SECOND, now);
+        }
+
+        assertTrue(table.tryAcquire("ip:1", 5, SECOND, now + SECOND / 2) < 0);
+        assertEquals(0, table.tryAcquire("ip:1", 5, SECOND, now + SECOND));
+        assertEquals(4, table.tryAcquire("ip:2", 5, SECOND, now + SECOND));
+    }
+
+    @Test
+    @DisplayName("Should stay bounded and evict idle buckets")
+    void evictsIdleBucketsAndStaysBounded() {
+        TokenBucketTable table = new TokenBucketTable(1, 2, 10 * SECOND);
+        long now = 1_000 * SECOND;
+
+        table.tryAcquire("a", 5, SECOND, now);
+        table.tryAcquire("b", 5, SECOND, now);
+        table.evictIdle(now + 20 * SECOND);
+        assertEquals(0, table.size());
+    }
+
+    @Test
+    @DisplayName("Should make room in a full stripe and keep limiting new clients")
+    void fullStripe_EvictsMostRefilledBucket_StillLimits() {
+        TokenBucketTable table = new TokenBucketTable(1, 2, 60 * SECOND);
+        long now = 1_000 * SECOND;
+
+        table.tryAcquire("a", 5, SECOND, now);
+        for(int i = 0; i < 5; i++) {
+            table.tryAcquire("b", 5, SECOND, now);
+        }
+
+        for(int i = 0; i < 5; i++) {
+            assertTrue(table.tryAcquire("c", 5, SECOND, now) >= 0);
+        }
+        assertTrue(table.tryAcquire("c", 5, SECOND, now) < 0);
+        assertEquals(2, table.size());
+        // "a" had the most tokens back and was the one forgotten; "b" is still exhausted
+        assertTrue(table.tryAcquire("b", 5, SECOND, now) < 0);
+    }
+}
@@ -8,7 +8,6 @@ import com.briankimathi.event_booking.domain.enums.UserRoleEnum;
 import com.briankimathi.event_booking.dto.request.RegisterRequest;
 import com.briankimathi.event_booking.dto.response.AuthResponse;
 import com.briankimathi.event_booking.exception.ValidationException;
-import com.briankimathi.event_booking.repository.RoleRepository;
 import com.briankimathi.event_booking.repository.UserRepository;
 import com.briankimathi.event_booking.security.JwtTokenProvider;
 import org.junit.Test;
@@ -21,8 +20,6 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
-import java.util.Optional;
-
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
@@ -37,7 +34,7 @@ public class AuthServiceTest {
     private UserRepository userRepository;
 
     @Mock
-    private RoleRepository roleRepository;
+    private RoleRegistry roleRegistry;
 
     @Mock
     private PasswordEncoder passwordEncoder;
@@ -92,7 +89,7 @@ public class AuthServiceTest {
         when(userRepository.existsByEmail(anyString())).thenReturn(false);
         when(passwordEncoder.encode(anyString())).thenReturn("encodedPassword");
         when(userRepository.save(any(User.class))).thenReturn(savedUser);
-        when(roleRepository.findByName(UserRoleEnum.USER)).thenReturn(Optional.of(userRole));
+        when(roleRegistry.get(UserRoleEnum.USER)).thenReturn(userRole);
         when(jwtTokenProvider.generateToken(any(), any())).thenReturn("jwt-token");
 
         // Act
@@ -108,7 +105,7 @@ public class AuthServiceTest {
         verify(userRepository).existsByEmail("test@example.com");
         verify(passwordEncoder).encode("password123");
         verify(userRepository, times(2)).save(any(User.class));
-        verify(roleRepository).findByName(UserRoleEnum.USER);
+        verify(roleRegistry).get(UserRoleEnum.USER);
         verify(jwtTokenProvider).generateToken(any(), any());
 
     }
@@ -0,0 +1,179 @@
+package com.briankimathi.event_booking.service;
+
+import com.briankimathi.event_booking.config.AvailabilityStreamConfig;
+import com.briankimathi.event_booking.dto.response.EventResponse;
+import com.briankimathi.event_booking.exception.ResourceNotFoundException;
+import com.briankimathi.event_booking.exception.ServiceUnavailableException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AvailabilityStream Tests")
+class AvailabilityStreamTest {
+
+    @Mock
+    private EventService eventService;
+
+    private AvailabilityStream stream;
+    private final BlockingQueue<String> sent = new LinkedBlockingQueue<>();
+
+    @BeforeEach
+    void setUp() {
+        AvailabilityStreamConfig config = new AvailabilityStreamConfig();
+        config.setMaxSubscribers(3);
+        config.setFanOutThreads(1);
+        stream = new AvailabilityStream(eventService, JsonMapper.builder().build(), config) {
+            @Override
+            SseEmitter newEmitter(long timeoutMs) {
+                return new CapturingEmitter(sent);
+            }
+        };
+    }
+
+    @AfterEach
+    void tearDown() {
+        stream.destroy();
+    }
+
+    @Test
+    @DisplayName("Should read the counts of every watched event in one call")
+    void publish_WatchedEvents_ReadsCountsOnce() {
+        EventResponse first = event(1L);
+        EventResponse second = event(2L);
+        when(eventService.getPublishedEvent(1L)).thenReturn(first);
+        when(eventService.getPublishedEvent(2L)).thenReturn(second);
+        when(eventService.loadAvailability(any())).thenReturn(Map.of(
+                1L, new EventCache.Availability(9, Map.of(10L, 9)),
+                2L, new EventCache.Availability(10, Map.of(20L, 10))));
+
+        stream.subscribe(1L);
+        stream.subscribe(1L);
+        stream.subscribe(2L);
+        stream.publish();
+
+        verify(eventService).loadAvailability(Set.of(1L, 2L));
+    }
+
+    @Test
+    @DisplayName("Should not read counts while nobody is watching")
+    void publish_NoSubscribers_NoQuery() {
+        stream.publish();
+
+        verify(eventService, never()).loadAvailability(any());
+    }
+
+    @Test
+    @DisplayName("Should turn subscribers away once the node has as many streams as it takes")
+    void subscribe_OverLimit_ServiceUnavailable() {
+        EventResponse event = event(1L);
+        when(eventService.getPublishedEvent(1L)).thenReturn(event);
+
+        for(int i = 0; i < 3; i++) {
+            assertNotNull(stream.subscribe(1L));
+        }
+
+        ServiceUnavailableException ex = assertThrows(ServiceUnavailableException.class, () -> stream.subscribe(1L));
+        assertEquals(5, ex.getRetryAfterSeconds());
+    }
+
+    @Test
+    @DisplayName("Should refuse streams for events that are not published, without using up a slot")
+    void subscribe_UnknownEvent_NotFound() {
+        when(eventService.getPublishedEvent(99L)).thenThrow(new ResourceNotFoundException("Event not found with id: 99"));
+        EventResponse event = event(1L);
+        when(eventService.getPublishedEvent(1L)).thenReturn(event);
+
+        for(int i = 0; i < 3; i++) {
+            assertThrows(ResourceNotFoundException.class, () -> stream.subscribe(99L));
+        }
+
+        assertNotNull(stream.subscribe(1L));
+    }
+
+    @Test
+    @DisplayName("Should push changed counts to subscribers")
+    void publish_CountsChanged_ReachesSubscriber() throws InterruptedException {
+        EventResponse event = event(1L);
+        when(eventService.getPublishedEvent(1L)).thenReturn(event);
+        when(eventService.loadAvailability(Set.of(1L))).thenReturn(Map.of(1L, new EventCache.Availability(7, Map.of(10L, 7))));
+
+        stream.subscribe(1L);
+        assertTrue(sent.take().contains("\"totalTicketsAvailable\":10"));
+
+        stream.publish();
+
+        String update = sent.poll(5, TimeUnit.SECONDS);
+        assertNotNull(update);
+        assertTrue(update.contains("\"totalTicketsAvailable\":7"));
+        assertTrue(update.contains("\"10\":7"));
+    }
+
+    @Test
+    @DisplayName("Should send one update per interval, and none when the counts did not change")
+    void publish_SameCounts_SentOnce() throws InterruptedException {
+        EventResponse event = event(1L);
+        when(eventService.getPublishedEvent(1L)).thenReturn(event);
+        when(eventService.loadAvailability(Set.of(1L))).thenReturn(
+                Map.of(1L, new EventCache.Availability(7, Map.of(10L, 7))),
+                Map.of(1L, new EventCache.Availability(7, Map.of(10L, 7))),
+                Map.of(1L, new EventCache.Availability(4, Map.of(10L, 4))));
+
+        stream.subscribe(1L);
+        sent.take();
+
+        stream.publish();
+        assertTrue(sent.poll(5, TimeUnit.SECONDS).contains("\"totalTicketsAvailable\":7"));
+        // A round that finds the previous one still sending is resent by the next publish
+        stream.publish();
+        stream.publish();
+        stream.publish();
+
+        assertTrue(sent.poll(5, TimeUnit.SECONDS).contains("\"totalTicketsAvailable\":4"));
+        assertNull(sent.poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    private static EventResponse event(Long id) {
+        return EventResponse.builder()
+                .id(id)
+                .totalTicketsAvailable(10)
+                .ticketTypes(List.of(EventResponse.TicketTypeSummary.builder()
+                        .id(id * 10)
+                        .quantityAvailable(10)
+                        .build()))
+                .build();
+    }
+
+    // Records each event as the text it would put on the wire
+    private static final class CapturingEmitter extends SseEmitter {
+        private final BlockingQueue<String> sent;
+
+        CapturingEmitter(BlockingQueue<String> sent) {
+            this.sent = sent;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            StringBuilder event = new StringBuilder();
+            builder.build().forEach(part -> event.append(part.getData()));
+            sent.add(event.toString());
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.briankimathi.event_booking.service;
+
+import com.briankimathi.event_booking.config.CacheConfig;
+import com.briankimathi.event_booking.dto.common.CursorPage;
+import com.briankimathi.event_booking.dto.response.EventResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("EventCache Tests")
+class EventCacheTest {
+
+    private EventCache eventCache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        CacheConfig config = new CacheConfig();
+        config.getEvents().setAvailabilityStaleness(Duration.ofMinutes(1));
+        eventCache = new EventCache(config, new SimpleMeterRegistry());
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    @DisplayName("Should evict only the listing pages that show the changed event")
+    void evict_EventOnOnePage_KeepsOtherPages() {
+        listing("a", 1, 2);
+        listing("b", 3, 4);
+
+        eventCache.evict(3L);
+        listing("a", 1, 2);
+        listing("b", 3, 4);
+
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    @DisplayName("Should drop every listing page when the listing order changes")
+    void evictListings_CachedPages_ReloadsAll() {
+        listing("a", 1, 2);
+        listing("b", 3, 4);
+
+        eventCache.evictListings();
+        listing("a", 1, 2);
+        listing("b", 3, 4);
+
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    @DisplayName("Should load only the missing ticket counts in one batch")
+    void getAvailability_SomeCached_LoadsMissingTogether() {
+        eventCache.getAvailability(List.of(1L), this::counts);
+        Map<Long, EventCache.Availability> counts = eventCache.getAvailability(List.of(1L, 2L, 3L), this::counts);
+
+        assertEquals(3, counts.size());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("Should reload an event's counts after it is evicted")
+    void evict_CachedAvailability_Reloads() {
+        eventCache.getAvailability(List.of(1L), this::counts);
+        eventCache.evict(1L);
+        eventCache.getAvailability(List.of(1L), this::counts);
+
+        assertEquals(2, loads.get());
+    }
+
+    private void listing(String cursor, long... ids) {
+        eventCache.getListing(cursor, 20, () -> {
+            loads.incrementAndGet();
+            return CursorPage.<EventResponse>builder()
+                    .content(LongStream.of(ids).mapToObj(id -> EventResponse.builder().id(id).build()).toList())
+                    .pageSize(20)
+                    .build();
+        });
+    }
+
+    private Map<Long, EventCache.Availability> counts(Set<? extends Long> eventIds) {
+        loads.incrementAndGet();
+        Map<Long, EventCache.Availability> counts = new HashMap<>();
+        for(Long eventId : eventIds) {
+            counts.put(eventId, new EventCache.Availability(10, Map.of()));
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,118 @@
+package com.briankimathi.event_booking.service;
+
+import com.briankimathi.event_booking.config.CacheConfig;
+import com.briankimathi.event_booking.config.SearchConfig;
+import com.briankimathi.event_booking.dto.common.CursorPage;
+import com.briankimathi.event_booking.dto.response.EventResponse;
+import com.briankimathi.event_booking.exception.ValidationException;
+import com.briankimathi.event_booking.repository.EventRepository;
+import com.briankimathi.event_booking.repository.EventTicketTypeRepository;
+import com.briankimathi.event_booking.service.inventory.TicketInventory;
+import com.briankimathi.event_booking.service.search.EventFilter;
+import com.briankimathi.event_booking.service.search.EventSearchIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("EventService Tests")
+class EventServiceTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2030, 5, 1, 18, 0);
+
+    @Mock
+    private EventRepository eventRepository;
+
+    @Mock
+    private EventTicketTypeRepository eventTicketTypeRepository;
+
+    @Mock
+    private TicketInventory ticketInventory;
+
+    private EventService eventService;
+
+    @BeforeEach
+    void setUp() {
+        SearchConfig searchConfig = new SearchConfig();
+        eventService = new EventService(eventRepository, eventTicketTypeRepository,
+                new EventCache(new CacheConfig(), new SimpleMeterRegistry()), new EventSearchIndex(searchConfig), searchConfig, ticketInventory);
+    }
+
+    @Test
+    @DisplayName("Should return a cursor that resumes after the last event of a full page")
+    void listPublishedEvents_MoreRowsThanPage_ReturnsCursorAfterLastEvent() {
+        List<EventRepository.EventListingView> firstRows = rows(1, 2, 3);
+        when(eventRepository.findListingPage(eq("PUBLISHED"), any(), any(), any(), eq(3))).thenReturn(firstRows);
+
+        CursorPage<EventResponse> page = eventService.listPublishedEvents(null, 2, null, EventFilter.NONE);
+
+        assertEquals(2, page.getContent().size());
+        assertFalse(page.isLast());
+        assertNotNull(page.getNextCursor());
+
+        List<EventRepository.EventListingView> secondRows = rows(3);
+        when(eventRepository.findListingPage(eq("PUBLISHED"), any(), eq(START.plusDays(2)), eq(2L), eq(3)))
+                .thenReturn(secondRows);
+
+        CursorPage<EventResponse> next = eventService.listPublishedEvents(page.getNextCursor(), 2, null, EventFilter.NONE);
+
+        assertEquals(3L, next.getContent().get(0).getId());
+        assertTrue(next.isLast());
+        assertNull(next.getNextCursor());
+    }
+
+    @Test
+    @DisplayName("Should reject a cursor it did not issue")
+    void listPublishedEvents_TamperedCursor_ThrowsValidationException() {
+        assertThrows(ValidationException.class, () -> eventService.listPublishedEvents("not-a-cursor", 20, null, EventFilter.NONE));
+        verify(eventRepository, never()).findListingPage(any(), any(), any(), any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should reject page sizes outside the allowed range")
+    void listPublishedEvents_PageSizeTooLarge_ThrowsValidationException() {
+        assertThrows(ValidationException.class,
+                () -> eventService.listPublishedEvents(null, EventService.MAX_PAGE_SIZE + 1, null, EventFilter.NONE));
+    }
+
+    @Test
+    @DisplayName("Should serve a repeated listing from cache with current ticket counts")
+    void listPublishedEvents_CachedPage_OverlaysAvailability() {
+        List<EventRepository.EventListingView> firstRows = rows(1);
+        when(eventRepository.findListingPage(eq("PUBLISHED"), any(), any(), any(), eq(21))).thenReturn(firstRows);
+        EventRepository.AvailabilityView counts = mock(EventRepository.AvailabilityView.class);
+        when(counts.getId()).thenReturn(1L);
+        when(counts.getAvailable()).thenReturn(42);
+        when(eventRepository.findAvailableTickets(List.of(1L))).thenReturn(List.of(counts));
+
+        eventService.listPublishedEvents(null, null, null, EventFilter.NONE);
+        CursorPage<EventResponse> page = eventService.listPublishedEvents(null, null, null, EventFilter.NONE);
+
+        assertEquals(42, page.getContent().get(0).getTotalTicketsAvailable());
+        verify(eventRepository, times(1)).findListingPage(any(), any(), any(), any(), anyInt());
+        verify(eventRepository, times(1)).findAvailableTickets(any());
+    }
+
+    private static List<EventRepository.EventListingView> rows(long... ids) {
+        return LongStream.of(ids).mapToObj(id -> {
+            EventRepository.EventListingView row = mock(EventRepository.EventListingView.class);
+            lenient().when(row.getId()).thenReturn(id);
+            lenient().when(row.getStartDate()).thenReturn(START.plusDays(id));
+            return row;
+        }).toList();
+    }
+}
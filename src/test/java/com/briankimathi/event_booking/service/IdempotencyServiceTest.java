@@ -0,0 +1,107 @@
+package com.briankimathi.event_booking.service;
+
+import com.briankimathi.event_booking.config.IdempotencyConfig;
+import com.briankimathi.event_booking.domain.IdempotencyRecord;
+import com.briankimathi.event_booking.repository.IdempotencyRecordRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("IdempotencyService Tests")
+class IdempotencyServiceTest {
+
+    private static final String KEY = "user:7:3f1c9a";
+    private static final byte[] BODY = "{\"data\":{\"purchaseCode\":\"EVT-1\"}}".getBytes(StandardCharsets.UTF_8);
+
+    @Mock
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    private IdempotencyService idempotencyService;
+
+    @BeforeEach
+    void setUp() {
+        idempotencyService = new IdempotencyService(idempotencyRecordRepository, new IdempotencyConfig());
+    }
+
+    @Test
+    @DisplayName("Should replay a completed response from memory without touching the database")
+    void claim_CompletedOnThisNode_ReplaysFromMemory() {
+        when(idempotencyRecordRepository.claim(eq(KEY), eq("hash"), any(), any(), any())).thenReturn(1);
+
+        assertEquals(IdempotencyService.Outcome.PROCEED, idempotencyService.claim(KEY, "hash").outcome());
+        idempotencyService.complete(KEY, "hash", 201, "application/json", BODY);
+        IdempotencyService.Claim retry = idempotencyService.claim(KEY, "hash");
+
+        assertEquals(IdempotencyService.Outcome.REPLAY, retry.outcome());
+        assertEquals(201, retry.response().statusCode());
+        assertArrayEquals(BODY, retry.response().body());
+        verify(idempotencyRecordRepository, times(1)).claim(anyString(), anyString(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should report a concurrent retry as in progress until the first request finishes")
+    void claim_FirstRequestRunning_InProgress() {
+        when(idempotencyRecordRepository.claim(eq(KEY), eq("hash"), any(), any(), any())).thenReturn(1);
+
+        idempotencyService.claim(KEY, "hash");
+
+        assertEquals(IdempotencyService.Outcome.IN_PROGRESS, idempotencyService.claim(KEY, "hash").outcome());
+        assertEquals(IdempotencyService.Outcome.MISMATCH, idempotencyService.claim(KEY, "other").outcome());
+    }
+
+    @Test
+    @DisplayName("Should replay a response stored by another node")
+    void claim_CompletedOnOtherNode_ReplaysFromDatabase() {
+        when(idempotencyRecordRepository.claim(eq(KEY), eq("hash"), any(), any(), any())).thenReturn(0);
+        when(idempotencyRecordRepository.findByIdempotencyKey(KEY)).thenReturn(Optional.of(IdempotencyRecord.builder()
+                .idempotencyKey(KEY)
+                .requestHash("hash")
+                .statusCode(201)
+                .contentType("application/json")
+                .responseBody(new String(BODY, StandardCharsets.UTF_8))
+                .build()));
+
+        IdempotencyService.Claim claim = idempotencyService.claim(KEY, "hash");
+
+        assertEquals(IdempotencyService.Outcome.REPLAY, claim.outcome());
+        assertArrayEquals(BODY, claim.response().body());
+    }
+
+    @Test
+    @DisplayName("Should let a retry run again once the claim is released")
+    void release_FailedRequest_RetryProceeds() {
+        when(idempotencyRecordRepository.claim(eq(KEY), eq("hash"), any(), any(), any())).thenReturn(1);
+
+        idempotencyService.claim(KEY, "hash");
+        idempotencyService.release(KEY);
+
+        assertEquals(IdempotencyService.Outcome.PROCEED, idempotencyService.claim(KEY, "hash").outcome());
+        verify(idempotencyRecordRepository).release(KEY);
+    }
+
+    @Test
+    @DisplayName("Should leave a forgotten claim to the database, which hands it over once its lease lapses")
+    void forget_UnrecordedClaim_RetryAsksDatabase() {
+        when(idempotencyRecordRepository.claim(eq(KEY), eq("hash"), any(), any(), any())).thenReturn(1);
+
+        idempotencyService.claim(KEY, "hash");
+        idempotencyService.forget(KEY);
+
+        assertEquals(IdempotencyService.Outcome.PROCEED, idempotencyService.claim(KEY, "hash").outcome());
+        verify(idempotencyRecordRepository, times(2)).claim(anyString(), anyString(), any(), any(), any());
+        verify(idempotencyRecordRepository, never()).release(anyString());
+    }
+}
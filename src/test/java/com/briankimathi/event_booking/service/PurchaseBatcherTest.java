@@ -0,0 +1,205 @@
+package com.briankimathi.event_booking.service;
+
+import com.briankimathi.event_booking.config.PurchaseConfig;
+import com.briankimathi.event_booking.domain.TicketPurchase;
+import com.briankimathi.event_booking.exception.ServiceUnavailableException;
+import com.briankimathi.event_booking.exception.ValidationException;
+import com.briankimathi.event_booking.repository.TicketPurchaseRepository;
+import com.briankimathi.event_booking.service.inventory.InventoryKey;
+import com.briankimathi.event_booking.service.inventory.TicketInventory;
+import com.briankimathi.event_booking.service.search.EventSearchIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PurchaseBatcher Tests")
+class PurchaseBatcherTest {
+
+    private static final InventoryKey VIP = new InventoryKey(1L, 1L);
+    private static final InventoryKey GENERAL = new InventoryKey(1L, 2L);
+
+    @Mock
+    private TicketPurchaseRepository ticketPurchaseRepository;
+
+    @Mock
+    private TicketInventory ticketInventory;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private PurchaseHoldExpiryService purchaseHoldExpiryService;
+
+    @Mock
+    private EventSearchIndex eventSearchIndex;
+
+    private PurchaseBatcher batcher;
+
+    @BeforeEach
+    void setUp() {
+        PurchaseConfig purchaseConfig = new PurchaseConfig();
+        // Batches are driven directly through process(); no worker threads
+        purchaseConfig.getBatch().setEnabled(false);
+        batcher = new PurchaseBatcher(ticketPurchaseRepository, ticketInventory, transactionTemplate, purchaseHoldExpiryService, eventSearchIndex, purchaseConfig);
+
+        // Lenient: the shutdown test never reaches a transaction
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    @Test
+    @DisplayName("Should reserve once per ticket type and insert the whole batch together")
+    void process_ReservesOncePerTicketType() throws Exception {
+        when(ticketInventory.reserve(any(), anyInt())).thenReturn(true);
+        List<PurchaseBatcher.Command> batch = List.of(command(VIP, 2), command(GENERAL, 1), command(VIP, 3));
+
+        batcher.process(batch);
+
+        verify(ticketInventory).reserve(VIP, 5);
+        verify(ticketInventory).reserve(GENERAL, 1);
+        verify(ticketPurchaseRepository, times(1)).saveAll(anyList());
+        for(PurchaseBatcher.Command command : batch) {
+            assertSame(command.purchase(), command.result().get());
+        }
+        verify(purchaseHoldExpiryService, times(3)).schedule(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should serve buyers in arrival order when the batch outruns the inventory")
+    void process_NotEnoughForEveryone_ServesInArrivalOrder() throws Exception {
+        when(ticketInventory.reserve(VIP, 10)).thenReturn(false);
+        when(ticketInventory.reserve(VIP, 4)).thenReturn(true, false);
+        when(ticketInventory.reserve(VIP, 2)).thenReturn(true);
+        PurchaseBatcher.Command first = command(VIP, 4);
+        PurchaseBatcher.Command second = command(VIP, 4);
+        PurchaseBatcher.Command third = command(VIP, 2);
+
+        batcher.process(List.of(first, second, third));
+
+        assertSame(first.purchase(), first.result().get());
+        assertSame(third.purchase(), third.result().get());
+        ExecutionException soldOut = assertThrows(ExecutionException.class, () -> second.result().get());
+        assertInstanceOf(ValidationException.class, soldOut.getCause());
+        assertEquals(PurchaseBatcher.SOLD_OUT_MESSAGE, soldOut.getCause().getMessage());
+    }
+
+    @Test
+    @DisplayName("Should replay a failed batch one purchase at a time")
+    void process_BatchRollsBack_ReplaysIndividually() throws Exception {
+        when(ticketInventory.reserve(any(), anyInt())).thenReturn(true);
+        PurchaseBatcher.Command good = command(VIP, 1);
+        PurchaseBatcher.Command bad = command(VIP, 1);
+        RuntimeException duplicateCode = new IllegalStateException("duplicate purchase code");
+        when(ticketPurchaseRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<TicketPurchase> purchases = invocation.getArgument(0);
+            if(purchases.contains(bad.purchase())) {
+                throw duplicateCode;
+            }
+            return purchases;
+        });
+
+        batcher.process(List.of(good, bad));
+
+        assertSame(good.purchase(), good.result().get());
+        ExecutionException failed = assertThrows(ExecutionException.class, () -> bad.result().get());
+        assertSame(duplicateCode, failed.getCause());
+    }
+
+    @Test
+    @DisplayName("Should skip purchases withdrawn while they were queued")
+    void process_WithdrawnCommand_Skipped() throws Exception {
+        when(ticketInventory.reserve(any(), anyInt())).thenReturn(true);
+        PurchaseBatcher.Command withdrawn = command(VIP, 4);
+        PurchaseBatcher.Command live = command(VIP, 1);
+        withdrawn.result().cancel(false);
+
+        batcher.process(List.of(withdrawn, live));
+
+        verify(ticketInventory).reserve(VIP, 1);
+        verify(ticketPurchaseRepository).saveAll(List.of(live.purchase()));
+        assertSame(live.purchase(), live.result().get());
+    }
+
+    @Test
+    @DisplayName("Should release a purchase withdrawn while it was being committed")
+    void process_WithdrawnMidCommit_ReleasedNotHeld() {
+        PurchaseBatcher.Command command = command(VIP, 2);
+        command.purchase().setId(42L);
+        when(ticketInventory.reserve(VIP, 2)).thenAnswer(invocation -> command.result().cancel(false));
+
+        batcher.process(List.of(command));
+
+        verify(purchaseHoldExpiryService).expireNow(42L);
+        verify(purchaseHoldExpiryService, never()).schedule(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should mark a ticket type sold out as soon as a purchase takes its last ticket")
+    void process_LastTicketTaken_SoldOutInSearch() {
+        when(ticketInventory.reserve(any(), anyInt())).thenReturn(true);
+        when(ticketInventory.available(VIP)).thenReturn(0);
+        when(ticketInventory.available(GENERAL)).thenReturn(3);
+
+        batcher.process(List.of(command(VIP, 2), command(GENERAL, 1)));
+
+        verify(eventSearchIndex).setAvailable(1L, 1L, false);
+        verify(eventSearchIndex, never()).setAvailable(1L, 2L, false);
+    }
+
+    @Test
+    @DisplayName("Should answer purchases still waiting for a batch with 503 when stopped")
+    void destroy_WaitingPurchases_ServiceUnavailable() throws Exception {
+        PurchaseConfig purchaseConfig = new PurchaseConfig();
+        purchaseConfig.getBatch().setWorkers(1);
+        // The worker keeps collecting until it is interrupted
+        purchaseConfig.getBatch().setMaxDelay(Duration.ofMinutes(1));
+        purchaseConfig.getBatch().setWaitTimeout(Duration.ofMinutes(1));
+        PurchaseBatcher running = new PurchaseBatcher(ticketPurchaseRepository, ticketInventory, transactionTemplate, purchaseHoldExpiryService, eventSearchIndex, purchaseConfig);
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            Future<TicketPurchase> first = callers.submit(() -> running.purchase(VIP, command(VIP, 1).purchase()));
+            Future<TicketPurchase> second = callers.submit(() -> running.purchase(GENERAL, command(GENERAL, 1).purchase()));
+            Thread.sleep(200);
+
+            running.destroy();
+
+            for(Future<TicketPurchase> caller : List.of(first, second)) {
+                ExecutionException ex = assertThrows(ExecutionException.class, () -> caller.get(5, TimeUnit.SECONDS));
+                assertInstanceOf(ServiceUnavailableException.class, ex.getCause());
+            }
+            verifyNoInteractions(ticketInventory, ticketPurchaseRepository);
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    private static PurchaseBatcher.Command command(InventoryKey key, int quantity) {
+        TicketPurchase purchase = TicketPurchase.builder()
+                .quantity(quantity)
+                .purchaseCode("EVT-" + System.nanoTime())
+                .purchaseDate(LocalDateTime.now())
+                .build();
+        return new PurchaseBatcher.Command(key, purchase, new CompletableFuture<>());
+    }
+}
@@ -0,0 +1,85 @@
+package com.briankimathi.event_booking.service;
+
+import com.briankimathi.event_booking.config.PurchaseCodeConfig;
+import com.briankimathi.event_booking.config.QrCodeConfig;
+import com.briankimathi.event_booking.exception.ResourceNotFoundException;
+import com.briankimathi.event_booking.exception.ValidationException;
+import com.briankimathi.event_booking.repository.TicketPurchaseRepository;
+import com.briankimathi.event_booking.util.PurchaseCodeGenerator;
+import com.google.zxing.BinaryBitmap;
+import com.google.zxing.client.j2se.BufferedImageLuminanceSource;
+import com.google.zxing.common.HybridBinarizer;
+import com.google.zxing.qrcode.QRCodeReader;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("QrCodeService Tests")
+class QrCodeServiceTest {
+
+    @Mock
+    private TicketPurchaseRepository ticketPurchaseRepository;
+
+    private PurchaseCodeGenerator purchaseCodeGenerator;
+    private QrCodeService qrCodeService;
+
+    @BeforeEach
+    void setUp() {
+        PurchaseCodeConfig purchaseCodeConfig = new PurchaseCodeConfig();
+        purchaseCodeConfig.setSecret("test-purchase-code-secret");
+        purchaseCodeGenerator = new PurchaseCodeGenerator(purchaseCodeConfig);
+        qrCodeService = new QrCodeService(purchaseCodeGenerator, ticketPurchaseRepository, new QrCodeConfig());
+    }
+
+    @Test
+    @DisplayName("Should render a PNG that scans back to the purchase code, once per code and size")
+    void render_Png_DecodesToPurchaseCode() throws Exception {
+        String code = purchaseCodeGenerator.generate();
+
+        byte[] png = qrCodeService.render(code, QrCodeService.Format.PNG, 256);
+
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(png));
+        assertEquals(256, image.getWidth());
+        BinaryBitmap bitmap = new BinaryBitmap(new HybridBinarizer(new BufferedImageLuminanceSource(image)));
+        assertEquals(code, new QRCodeReader().decode(bitmap).getText());
+        assertSame(png, qrCodeService.render(code, QrCodeService.Format.PNG, 256));
+    }
+
+    @Test
+    @DisplayName("Should render an SVG scaled to the requested size")
+    void render_Svg_Scaled() {
+        String svg = new String(qrCodeService.render(purchaseCodeGenerator.generate(), QrCodeService.Format.SVG, 300),
+                StandardCharsets.US_ASCII);
+
+        assertTrue(svg.startsWith("<svg"));
+        assertTrue(svg.contains("width=\"300\""));
+        assertTrue(svg.endsWith("</svg>"));
+    }
+
+    @Test
+    @DisplayName("Should give an ETag for signed codes without a lookup and reject unknown ones")
+    void etag_SignedOrUnknownCode() {
+        String code = purchaseCodeGenerator.generate();
+
+        assertEquals("\"qr1-png-256-" + code + "\"", qrCodeService.etag(code, QrCodeService.Format.PNG, null));
+        verifyNoInteractions(ticketPurchaseRepository);
+
+        when(ticketPurchaseRepository.existsByPurchaseCode("EVT-K7QM2XHP9A")).thenReturn(false);
+        assertThrows(ResourceNotFoundException.class,
+                () -> qrCodeService.etag("EVT-K7QM2XHP9A", QrCodeService.Format.PNG, null));
+        assertThrows(ValidationException.class,
+                () -> qrCodeService.etag(code, QrCodeService.Format.PNG, 5_000));
+    }
+}
@@ -0,0 +1,101 @@
+package com.briankimathi.event_booking.service;
+
+import com.briankimathi.event_booking.config.CacheConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ResponseBytesCache Tests")
+class ResponseBytesCacheTest {
+
+    private ResponseBytesCache cache;
+    private AtomicInteger renders;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ResponseBytesCache(JsonMapper.builder().build(), new CacheConfig(), new SimpleMeterRegistry());
+        renders = new AtomicInteger();
+    }
+
+    @Test
+    @DisplayName("Should answer a matching If-None-Match with 304 without rendering")
+    void respond_MatchingIfNoneMatch_NotModified() {
+        ResponseEntity<byte[]> response = cache.respond("event:1", "e1-a", "W/\"e1-z\", \"e1-a\"", null, () -> {
+            throw new AssertionError("rendered");
+        });
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertEquals("\"e1-a\"", response.getHeaders().getETag());
+        assertNull(response.getBody());
+    }
+
+    @Test
+    @DisplayName("Should serialize a version once and render again when the version changes")
+    void respond_SameVersion_ReusesBytes() {
+        byte[] first = cache.respond("event:1", "e1-a", null, null, body("one")).getBody();
+        byte[] second = cache.respond("event:1", "e1-a", null, null, body("two")).getBody();
+        byte[] third = cache.respond("event:1", "e1-b", null, null, body("three")).getBody();
+
+        assertSame(first, second);
+        assertEquals("{\"title\":\"three\"}", new String(third));
+        assertEquals(2, renders.get());
+    }
+
+    @Test
+    @DisplayName("Should not keep bytes rendered without a key")
+    void respond_NoKey_RendersEveryTime() {
+        cache.respond(null, "l20-a", null, null, body("one"));
+        cache.respond(null, "l20-a", null, null, body("one"));
+
+        assertEquals(2, renders.get());
+    }
+
+    @Test
+    @DisplayName("Should serve the gzipped bytes, with their own ETag, to clients that accept them")
+    void respond_AcceptsGzip_ServesCompressedBytes() throws IOException {
+        Supplier<Map<String, String>> large = body("x".repeat(2_000));
+
+        ResponseEntity<byte[]> plain = cache.respond("event:1", "e1-a", null, "identity", large);
+        ResponseEntity<byte[]> gzipped = cache.respond("event:1", "e1-a", null, "br;q=1.0, gzip;q=0.8", large);
+        ResponseEntity<byte[]> refused = cache.respond("event:1", "e1-a", null, "gzip;q=0", large);
+
+        assertEquals("\"e1-a-gzip\"", gzipped.getHeaders().getETag());
+        assertEquals("gzip", gzipped.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertTrue(gzipped.getBody().length < plain.getBody().length);
+        try(GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped.getBody()))) {
+            assertArrayEquals(plain.getBody(), in.readAllBytes());
+        }
+        assertNull(refused.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(1, renders.get());
+    }
+
+    @Test
+    @DisplayName("Should leave small responses uncompressed")
+    void respond_SmallBody_NotCompressed() {
+        ResponseEntity<byte[]> response = cache.respond("event:1", "e1-a", null, "gzip", body("short"));
+
+        assertEquals("\"e1-a\"", response.getHeaders().getETag());
+        assertNull(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+    }
+
+    private Supplier<Map<String, String>> body(String title) {
+        return () -> {
+            renders.incrementAndGet();
+            return Map.of("title", title);
+        };
+    }
+}
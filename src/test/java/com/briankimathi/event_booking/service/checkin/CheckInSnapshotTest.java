@@ -0,0 +1,98 @@
+package com.briankimathi.event_booking.service.checkin;
+
+import com.briankimathi.event_booking.repository.TicketPurchaseRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("CheckInSnapshot Tests")
+class CheckInSnapshotTest {
+
+    @Test
+    @DisplayName("Should admit each code once and report repeat scans")
+    void markCheckedIn_SecondScan_Rejected() {
+        CheckInSnapshot snapshot = CheckInSnapshot.build(1L, 9L, rows(1_000, 0));
+
+        int index = snapshot.indexOf("EVT-CODE-500");
+
+        assertTrue(index >= 0);
+        assertEquals(500L, snapshot.purchaseId(index));
+        assertTrue(snapshot.markCheckedIn(index));
+        assertFalse(snapshot.markCheckedIn(index));
+        assertEquals(-1, snapshot.indexOf("EVT-CODE-1000"));
+    }
+
+    @Test
+    @DisplayName("Should keep check-ins already recorded in the database")
+    void build_CheckedInRows_AlreadyMarked() {
+        CheckInSnapshot snapshot = CheckInSnapshot.build(1L, 9L, rows(100, 10));
+
+        assertTrue(snapshot.isCheckedIn(snapshot.indexOf("EVT-CODE-3")));
+        assertFalse(snapshot.isCheckedIn(snapshot.indexOf("EVT-CODE-50")));
+        assertFalse(snapshot.markCheckedIn(snapshot.indexOf("EVT-CODE-3")));
+    }
+
+    @Test
+    @DisplayName("Should export sorted hashes and the check-in bitmap")
+    void writeTo_ExportsSortedHashesAndBitmap() throws Exception {
+        CheckInSnapshot snapshot = CheckInSnapshot.build(42L, 9L, rows(70, 0));
+        int checkedIn = snapshot.indexOf("EVT-CODE-7");
+        snapshot.markCheckedIn(checkedIn);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        snapshot.writeTo(out, 1_700_000_000_000L);
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals("EVCK", new String(in.readNBytes(4)));
+        assertEquals(CheckInSnapshot.FORMAT_VERSION, in.readInt());
+        assertEquals(42L, in.readLong());
+        assertEquals(1_700_000_000_000L, in.readLong());
+        assertEquals(70, in.readInt());
+
+        long previous = Long.MIN_VALUE;
+        for(int i = 0; i < 70; i++) {
+            long hash = in.readLong();
+            assertTrue(hash > previous);
+            previous = hash;
+        }
+        byte[] bitmap = in.readNBytes(9);
+        for(int i = 0; i < 70; i++) {
+            boolean set = (bitmap[i >>> 3] >>> (i & 7) & 1) == 1;
+            assertEquals(i == checkedIn, set);
+        }
+        assertEquals(-1, in.read());
+    }
+
+    // Purchase ids 0..count-1; the first checkedIn of them are already checked in
+    private static List<TicketPurchaseRepository.CheckInView> rows(int count, int checkedIn) {
+        List<TicketPurchaseRepository.CheckInView> rows = new ArrayList<>();
+        for(int i = 0; i < count; i++) {
+            rows.add(new Row((long) i, "EVT-CODE-" + i, i < checkedIn));
+        }
+        return rows;
+    }
+
+    private record Row(Long id, String purchaseCode, Boolean checkedIn) implements TicketPurchaseRepository.CheckInView {
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public String getPurchaseCode() {
+            return purchaseCode;
+        }
+
+        @Override
+        public Boolean getCheckedIn() {
+            return checkedIn;
+        }
+    }
+}
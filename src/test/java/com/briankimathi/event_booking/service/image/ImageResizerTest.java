@@ -0,0 +1,78 @@
+package com.briankimathi.event_booking.service.image;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ImageResizer Tests")
+class ImageResizerTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("Should read format and size from the header of a PNG")
+    void header_Png_ReturnsFormatAndSize() throws IOException {
+        Path file = png(3_000, 2_000);
+
+        assertEquals(new ImageResizer.Header("png", 3_000, 2_000), ImageResizer.header(file));
+    }
+
+    @Test
+    @DisplayName("Should not accept files that are not JPEG or PNG")
+    void header_NotAnImage_ReturnsNull() throws IOException {
+        Path file = dir.resolve("upload");
+        Files.writeString(file, "<svg xmlns=\"http://www.w3.org/2000/svg\"/>");
+
+        assertNull(ImageResizer.header(file));
+    }
+
+    @Test
+    @DisplayName("Should decode large images subsampled to about twice the widest variant")
+    void decode_LargeImage_Subsampled() throws IOException {
+        BufferedImage image = ImageResizer.decode(png(6_000, 3_000), 1_000);
+
+        assertEquals(2_000, image.getWidth());
+        assertEquals(1_000, image.getHeight());
+    }
+
+    @Test
+    @DisplayName("Should scale down keeping the aspect ratio, and never scale up")
+    void scale_KeepsAspectRatio_NeverUpscales() {
+        BufferedImage source = new BufferedImage(1_000, 500, BufferedImage.TYPE_INT_ARGB);
+
+        BufferedImage card = ImageResizer.scale(source, 480);
+        BufferedImage wide = ImageResizer.scale(source, 1_280);
+
+        assertEquals(480, card.getWidth());
+        assertEquals(240, card.getHeight());
+        assertEquals(1_000, wide.getWidth());
+        assertEquals(500, wide.getHeight());
+        // Transparent pixels are flattened onto white for JPEG
+        assertEquals(0xFFFFFF, card.getRGB(0, 0) & 0xFFFFFF);
+    }
+
+    @Test
+    @DisplayName("Should write a JPEG that decodes to the same size")
+    void writeJpeg_ScaledImage_Decodes() throws IOException {
+        Path file = dir.resolve("card.jpg");
+
+        ImageResizer.writeJpeg(ImageResizer.scale(new BufferedImage(800, 600, BufferedImage.TYPE_INT_RGB), 480), file, 0.85f);
+
+        assertEquals(new ImageResizer.Header("jpeg", 480, 360), ImageResizer.header(file));
+    }
+
+    private Path png(int width, int height) throws IOException {
+        Path file = dir.resolve("upload-" + width + "x" + height);
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "png", file.toFile());
+        return file;
+    }
+}
@@ -0,0 +1,132 @@
+package com.briankimathi.event_booking.service.inventory;
+
+import com.briankimathi.event_booking.config.InventoryConfig;
+import com.briankimathi.event_booking.repository.EventRepository;
+import com.briankimathi.event_booking.repository.EventTicketTypeRepository;
+import com.briankimathi.event_booking.repository.TicketPurchaseRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("InMemoryTicketInventory Tests")
+class InMemoryTicketInventoryTest {
+
+    private static final InventoryKey KEY = new InventoryKey(1L, 2L);
+
+    @Mock
+    private EventTicketTypeRepository eventTicketTypeRepository;
+
+    @Mock
+    private EventRepository eventRepository;
+
+    @Mock
+    private TicketPurchaseRepository ticketPurchaseRepository;
+
+    private InMemoryTicketInventory inventory;
+
+    @BeforeEach
+    void setUp() {
+        inventory = new InMemoryTicketInventory(eventTicketTypeRepository, eventRepository, ticketPurchaseRepository, new InventoryConfig());
+    }
+
+    @Test
+    @DisplayName("Should never oversell under concurrent reservations")
+    void reserve_Concurrent_NeverOversells() throws Exception {
+        stubAvailable(KEY, 500);
+
+        int threads = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger sold = new AtomicInteger();
+
+        for(int t = 0; t < threads; t++) {
+            executor.submit(() -> {
+                start.await();
+                for(int i = 0; i < 200; i++) {
+                    if(inventory.reserve(KEY, 1 + i % 3)) {
+                        sold.addAndGet(1 + i % 3);
+                    }
+                }
+                return null;
+            });
+        }
+
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(500, sold.get() + inventory.available(KEY));
+        assertTrue(inventory.available(KEY) < 3);
+    }
+
+    @Test
+    @DisplayName("Should return reserved tickets when the purchase transaction rolls back")
+    void reserve_RolledBack_ReturnsTickets() {
+        stubAvailable(KEY, 10);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            assertTrue(inventory.reserve(KEY, 4));
+            assertEquals(6, inventory.available(KEY));
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(10, inventory.available(KEY));
+    }
+
+    @Test
+    @DisplayName("Should fold unsynced purchases into one update per ticket type and event")
+    void flush_AggregatesDeltas() {
+        List<TicketPurchaseRepository.UnsyncedInventoryView> rows = List.of(
+                unsynced(1L, 1L, 2L, 3, "PENDING"),
+                unsynced(2L, 1L, 2L, 2, "COMPLETED"),
+                unsynced(3L, 1L, 2L, 1, "CANCELLED"),
+                unsynced(4L, 1L, 5L, 4, "PENDING")
+        );
+        when(ticketPurchaseRepository.lockUnsyncedInventory(anyInt())).thenReturn(rows);
+
+        inventory.flush();
+
+        verify(eventTicketTypeRepository).adjustAvailableQuantity(1L, 2L, -4);
+        verify(eventTicketTypeRepository).adjustAvailableQuantity(1L, 5L, -4);
+        verify(eventRepository).adjustAvailableTickets(1L, -8);
+        verify(ticketPurchaseRepository).markInventorySynced(List.of(1L, 2L, 3L, 4L));
+    }
+
+    private void stubAvailable(InventoryKey key, int available) {
+        EventTicketTypeRepository.InventoryView view = mock(EventTicketTypeRepository.InventoryView.class);
+        when(view.getAvailable()).thenReturn(available);
+        when(eventTicketTypeRepository.findInventory(key.eventId(), key.ticketTypeId())).thenReturn(Optional.of(view));
+    }
+
+    private TicketPurchaseRepository.UnsyncedInventoryView unsynced(Long id, Long eventId, Long ticketTypeId, int quantity, String status) {
+        TicketPurchaseRepository.UnsyncedInventoryView view = mock(TicketPurchaseRepository.UnsyncedInventoryView.class);
+        when(view.getId()).thenReturn(id);
+        when(view.getEventId()).thenReturn(eventId);
+        when(view.getTicketTypeId()).thenReturn(ticketTypeId);
+        when(view.getQuantity()).thenReturn(quantity);
+        when(view.getStatus()).thenReturn(status);
+        return view;
+    }
+}
@@ -0,0 +1,66 @@
+package com.briankimathi.event_booking.service.receipt;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ReceiptPdfWriter Tests")
+class ReceiptPdfWriterTest {
+
+    @Test
+    @DisplayName("Should write a PDF whose cross-reference table points at every object")
+    void write_XrefOffsetsMatchObjects() throws Exception {
+        String pdf = render("Summer Music Festival");
+
+        assertTrue(pdf.startsWith("%PDF-1.4\n"));
+        assertTrue(pdf.endsWith("%%EOF\n"));
+
+        Matcher startXref = Pattern.compile("startxref\n(\\d+)\n").matcher(pdf);
+        assertTrue(startXref.find());
+        int xref = Integer.parseInt(startXref.group(1));
+        assertTrue(pdf.startsWith("xref\n0 8\n", xref));
+
+        String[] entries = pdf.substring(xref).split("\n");
+        for(int object = 1; object <= 7; object++) {
+            int offset = Integer.parseInt(entries[2 + object].substring(0, 10));
+            assertTrue(pdf.startsWith(object + " 0 obj\n", offset), "object " + object);
+        }
+    }
+
+    @Test
+    @DisplayName("Should declare the content stream's real length")
+    void write_StreamLengthMatches() throws Exception {
+        String pdf = render("Summer Music Festival");
+
+        int start = pdf.indexOf("stream\n") + "stream\n".length();
+        int end = pdf.indexOf("\nendstream");
+        Matcher length = Pattern.compile("7 0 obj\n(\\d+)\nendobj").matcher(pdf);
+        assertTrue(length.find());
+        assertEquals(end - start, Integer.parseInt(length.group(1)));
+    }
+
+    @Test
+    @DisplayName("Should escape values so they cannot end the PDF string")
+    void write_EscapesValues() throws Exception {
+        String pdf = render("Jazz (Live) \\ Night \u2603");
+
+        assertTrue(pdf.contains("(Event: Jazz \\(Live\\) \\\\ Night ?) Tj"));
+    }
+
+    private static String render(String eventTitle) throws Exception {
+        String[] values = new String[ReceiptTemplate.Field.values().length];
+        Arrays.fill(values, "x");
+        values[ReceiptTemplate.Field.EVENT_TITLE.ordinal()] = eventTitle;
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ReceiptPdfWriter.write(out, values);
+        return out.toString(StandardCharsets.ISO_8859_1);
+    }
+}
@@ -0,0 +1,103 @@
+package com.briankimathi.event_booking.service.search;
+
+import com.briankimathi.event_booking.dto.response.EventResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("FacetIndex Tests")
+class FacetIndexTest {
+
+    // A Wednesday
+    private static final LocalDateTime NOW = LocalDateTime.of(2030, 1, 2, 12, 0);
+
+    private InvertedIndex text;
+    private FacetIndex facets;
+
+    @BeforeEach
+    void setUp() {
+        text = new InvertedIndex(50);
+        facets = new FacetIndex(text, List.of(new BigDecimal("1000"), new BigDecimal("5000")), Duration.ofMinutes(1).toNanos());
+        put(1, "Music", NOW.plusDays(2), ticketType(11, "500", true));
+        put(2, "Music", NOW.plusDays(10), ticketType(21, "2000", true), ticketType(22, "8000", true));
+        put(3, "Business", NOW.plusDays(60), ticketType(31, "0", true));
+        put(4, "Music", NOW.plusDays(60), ticketType(41, "9000", false));
+    }
+
+    @Test
+    @DisplayName("Should count events per category, date bucket, price band and availability")
+    void counts_NoFilter_CountsEveryFacet() {
+        Map<String, Map<String, Integer>> counts = facets.counts(EventFilter.NONE, NOW);
+
+        assertEquals(Map.of("Business", 1, "Music", 3), counts.get(FacetIndex.CATEGORY));
+        assertEquals(Map.of("this-week", 1, "this-month", 2, "later", 2), counts.get(FacetIndex.DATE));
+        assertEquals(Map.of("free", 1, "under-1000", 1, "1000-5000", 1, "5000-plus", 1), counts.get(FacetIndex.PRICE));
+        assertEquals(Map.of("available", 3, "sold-out", 1), counts.get(FacetIndex.AVAILABILITY));
+    }
+
+    @Test
+    @DisplayName("Should count each facet against the other facets' selections only")
+    void counts_CategorySelected_OtherCategoriesStillCounted() {
+        EventFilter music = new EventFilter("music", null, null, true);
+
+        Map<String, Map<String, Integer>> counts = facets.counts(music, NOW);
+
+        assertEquals(Map.of("Business", 1, "Music", 2), counts.get(FacetIndex.CATEGORY));
+        assertEquals(Map.of("available", 2, "sold-out", 1), counts.get(FacetIndex.AVAILABILITY));
+        assertEquals(List.of(text.docOf(1L), text.docOf(2L)), docs(facets.filter(music, NOW)));
+    }
+
+    @Test
+    @DisplayName("Should move an event to sold out once none of its ticket types are left")
+    void setAvailable_LastTicketTypeSellsOut_EventSoldOut() {
+        int doc = text.docOf(2L);
+        EventFilter soldOut = new EventFilter(null, null, null, false);
+
+        facets.setAvailable(doc, 21L, false);
+        assertFalse(facets.filter(soldOut, NOW).get(doc));
+
+        facets.setAvailable(doc, 22L, false);
+        assertTrue(facets.filter(soldOut, NOW).get(doc));
+
+        facets.setAvailable(doc, 22L, true);
+        assertFalse(facets.filter(soldOut, NOW).get(doc));
+    }
+
+    @Test
+    @DisplayName("Should drop removed and already started events from filters and counts")
+    void filter_RemovedAndPastEvents_Excluded() {
+        facets.remove(text.remove(3L));
+
+        EventFilter later = new EventFilter(null, EventFilter.DateBucket.LATER, null, null);
+        assertEquals(List.of(text.docOf(4L)), docs(facets.filter(later, NOW)));
+        assertFalse(facets.counts(EventFilter.NONE, NOW).get(FacetIndex.CATEGORY).containsKey("Business"));
+        assertEquals(2, facets.filter(EventFilter.NONE, NOW.plusDays(5)).cardinality());
+    }
+
+    private void put(long id, String category, LocalDateTime startDate, EventSearchIndex.TicketTypeFacet... ticketTypes) {
+        EventResponse event = EventResponse.builder()
+                .id(id)
+                .title("Event " + id)
+                .category(category)
+                .eventDate(startDate)
+                .build();
+        facets.put(text.put(event, null), category, List.of(ticketTypes));
+    }
+
+    private static EventSearchIndex.TicketTypeFacet ticketType(long id, String price, boolean available) {
+        return new EventSearchIndex.TicketTypeFacet(id, new BigDecimal(price), available);
+    }
+
+    private static List<Integer> docs(BitSet bits) {
+        return bits.stream().boxed().toList();
+    }
+}
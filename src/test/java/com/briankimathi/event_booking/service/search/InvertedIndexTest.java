@@ -0,0 +1,98 @@
+package com.briankimathi.event_booking.service.search;
+
+import com.briankimathi.event_booking.dto.response.EventResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("InvertedIndex Tests")
+class InvertedIndexTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    private InvertedIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new InvertedIndex(50);
+        index.put(event(1, "Nairobi Jazz Festival", "Music", "Carnivore Grounds", 10), "Three nights of live jazz");
+        index.put(event(2, "Rock the Park", "Music", "Uhuru Gardens", 20), "Rock bands and a jazz tent");
+        index.put(event(3, "Startup Pitch Night", "Business", "iHub", 30), "Founders pitch to investors");
+    }
+
+    @Test
+    @DisplayName("Should rank a title match above a description match")
+    void search_TitleAndDescriptionMatches_TitleFirst() {
+        InvertedIndex.Result result = index.search("jazz", null, NOW, 0, 10);
+
+        assertEquals(List.of(1L, 2L), ids(result));
+        assertEquals(2, result.total());
+    }
+
+    @Test
+    @DisplayName("Should match every word of the query, the last one as a prefix")
+    void search_PrefixWord_MatchesLongerTerms() {
+        assertEquals(List.of(3L), ids(index.search("startup pit", null, NOW, 0, 10)));
+        assertEquals(List.of(), ids(index.search("startup jazz", null, NOW, 0, 10)));
+    }
+
+    @Test
+    @DisplayName("Should ignore case, accents and stop words")
+    void search_FoldedQuery_Matches() {
+        assertEquals(List.of(2L), ids(index.search("THE R\u00f6ck", null, NOW, 0, 10)));
+    }
+
+    @Test
+    @DisplayName("Should stop returning an event once it is removed or replaced")
+    void search_RemovedAndReplacedEvents_ReflectLatestVersion() {
+        index.remove(1L);
+        index.put(event(3, "Startup Jazz Brunch", "Business", "iHub", 30), null);
+
+        assertEquals(List.of(3L, 2L), ids(index.search("jazz", null, NOW, 0, 10)));
+        assertEquals(List.of(), ids(index.search("pitch", null, NOW, 0, 10)));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    @DisplayName("Should leave out events that have already started")
+    void search_PastEvent_Excluded() {
+        assertEquals(List.of(2L), ids(index.search("music", null, NOW.plusDays(15), 0, 10)));
+    }
+
+    @Test
+    @DisplayName("Should page through ranked results and report the full match count")
+    void search_Offset_ReturnsNextPage() {
+        for(int i = 10; i < 40; i++) {
+            index.put(event(i, "Comedy Night " + i, "Comedy", "Alliance", i), null);
+        }
+
+        InvertedIndex.Result first = index.search("comedy", null, NOW, 0, 20);
+        InvertedIndex.Result second = index.search("comedy", null, NOW, 20, 20);
+
+        assertEquals(30, first.total());
+        assertEquals(20, first.events().size());
+        assertEquals(10, second.events().size());
+        // Equal scores fall back to start date
+        assertEquals(10L, first.events().get(0).getId());
+        assertEquals(39L, second.events().get(9).getId());
+    }
+
+    private static EventResponse event(long id, String title, String category, String venue, int daysFromNow) {
+        return EventResponse.builder()
+                .id(id)
+                .title(title)
+                .category(category)
+                .venueName(venue)
+                .eventDate(NOW.plusDays(daysFromNow))
+                .build();
+    }
+
+    private static List<Long> ids(InvertedIndex.Result result) {
+        return result.events().stream().map(EventResponse::getId).toList();
+    }
+}
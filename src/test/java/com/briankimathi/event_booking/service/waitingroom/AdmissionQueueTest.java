@@ -0,0 +1,98 @@
+package com.briankimathi.event_booking.service.waitingroom;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("AdmissionQueue Tests")
+class AdmissionQueueTest {
+
+    private static final long OPENED_AT = 1_000_000L;
+
+    @Test
+    @DisplayName("Should admit positions at the configured rate")
+    void admitsAtTheConfiguredRate() {
+        AdmissionQueue queue = new AdmissionQueue(10, OPENED_AT);
+
+        long first = queue.join(OPENED_AT);
+        long last = first;
+        for(int i = 0; i < 29; i++) {
+            last = queue.join(OPENED_AT);
+        }
+
+        assertEquals(1, first);
+        assertEquals(30, last);
+        assertFalse(queue.isAdmitted(first, OPENED_AT));
+        assertTrue(queue.isAdmitted(10, OPENED_AT + 1_000));
+        assertFalse(queue.isAdmitted(11, OPENED_AT + 1_000));
+        assertEquals(2, queue.estimatedWaitSeconds(last, OPENED_AT + 1_000));
+        assertTrue(queue.isAdmitted(last, OPENED_AT + 3_000));
+    }
+
+    @Test
+    @DisplayName("Should line a late arrival up behind the frontier after a quiet spell")
+    void lateArrivalQueuesBehindTheFrontier() {
+        AdmissionQueue queue = new AdmissionQueue(5, OPENED_AT);
+        long later = OPENED_AT + 60_000;
+
+        long position = queue.join(later);
+
+        assertEquals(301, position);
+        assertFalse(queue.isAdmitted(position, later));
+        assertEquals(1, queue.ahead(position, later));
+        assertTrue(queue.isAdmitted(position, later + 200));
+    }
+
+    @Test
+    @DisplayName("Should keep the frontier and issued positions when the rate changes")
+    void rateChangeKeepsTheFrontier() {
+        AdmissionQueue queue = new AdmissionQueue(10, OPENED_AT);
+        long now = OPENED_AT + 5_000;
+        for(int i = 0; i < 100; i++) {
+            queue.join(now);
+        }
+
+        AdmissionQueue faster = queue.withRate(50, now);
+
+        assertEquals(50, faster.frontier(now));
+        assertEquals(100, faster.frontier(now + 1_000));
+        assertEquals(151, faster.join(now));
+    }
+
+    @Test
+    @DisplayName("Should reject forged, swapped and other events' waiting room tokens")
+    void rejectsForgedSwappedAndOtherEventsTokens() {
+        WaitingRoomTokens tokens = new WaitingRoomTokens("test-waiting-room-secret");
+        long buyer = WaitingRoomTokens.buyer("buyer@example.com");
+        String ticket = tokens.queueTicket(7, 42, buyer);
+        String admission = tokens.admissionToken(7, 42, buyer, OPENED_AT + 60_000);
+
+        assertEquals(new WaitingRoomTokens.QueueTicket(42, buyer), tokens.readQueueTicket(ticket, 7));
+        assertNull(tokens.readQueueTicket(ticket, 8));
+        assertNull(tokens.readQueueTicket(ticket.replace("7.42.", "7.1."), 7));
+        assertNull(tokens.readQueueTicket(admission, 7));
+
+        WaitingRoomTokens.Admission read = tokens.readAdmissionToken(admission, 7);
+        assertNotNull(read);
+        assertEquals(42, read.position());
+        assertEquals(buyer, read.buyer());
+        assertEquals(OPENED_AT + 60_000, read.expiresAtMs());
+        assertNull(tokens.readAdmissionToken(admission, 8));
+        assertNull(tokens.readAdmissionToken(admission.replace("." + (OPENED_AT + 60_000) + ".", "." + (OPENED_AT + 120_000) + "."), 7));
+        assertNull(tokens.readAdmissionToken(ticket, 7));
+        assertNull(tokens.readAdmissionToken(null, 7));
+    }
+
+    @Test
+    @DisplayName("Should bind tokens to the buyer's email, ignoring case and surrounding space")
+    void buyerIgnoresCaseAndSpace() {
+        assertEquals(WaitingRoomTokens.buyer("buyer@example.com"), WaitingRoomTokens.buyer("  Buyer@Example.COM "));
+        assertNotEquals(WaitingRoomTokens.buyer("buyer@example.com"), WaitingRoomTokens.buyer("other@example.com"));
+    }
+}
@@ -0,0 +1,108 @@
+package com.briankimathi.event_booking.service.waitingroom;
+
+import com.briankimathi.event_booking.config.WaitingRoomConfig;
+import com.briankimathi.event_booking.dto.response.QueueStatusResponse;
+import com.briankimathi.event_booking.exception.AdmissionRequiredException;
+import com.briankimathi.event_booking.exception.ValidationException;
+import com.briankimathi.event_booking.repository.EventRepository;
+import com.briankimathi.event_booking.repository.UsedAdmissionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("WaitingRoomService Tests")
+class WaitingRoomServiceTest {
+
+    private static final String SECRET = "test-waiting-room-secret";
+    private static final long EVENT_ID = 7L;
+
+    @Mock
+    private EventRepository eventRepository;
+
+    @Mock
+    private UsedAdmissionRepository usedAdmissionRepository;
+
+    @Mock
+    private EventRepository.WaitingRoomView room;
+
+    private WaitingRoomService service;
+    private WaitingRoomTokens tokens;
+    private long openedAtMs;
+
+    @BeforeEach
+    void setUp() {
+        WaitingRoomConfig config = new WaitingRoomConfig();
+        config.setSecret(SECRET);
+        service = new WaitingRoomService(eventRepository, usedAdmissionRepository, config);
+        tokens = new WaitingRoomTokens(SECRET);
+
+        // One place a second for the last hour
+        LocalDateTime openedAt = LocalDateTime.now().minusHours(1).truncatedTo(ChronoUnit.SECONDS);
+        openedAtMs = openedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        when(room.getId()).thenReturn(EVENT_ID);
+        when(room.getRate()).thenReturn(1);
+        when(room.getOpenedAt()).thenReturn(openedAt);
+        when(eventRepository.findWaitingRooms()).thenReturn(List.of(room));
+        service.refresh();
+    }
+
+    @Test
+    @DisplayName("Should time the admission window from admission, not from the poll")
+    void status_Admitted_WindowFixedFromAdmission() {
+        long buyer = WaitingRoomTokens.buyer("buyer@example.com");
+        String recent = tokens.queueTicket(EVENT_ID, 3_590, buyer);
+        String early = tokens.queueTicket(EVENT_ID, 1, buyer);
+
+        QueueStatusResponse first = service.status(EVENT_ID, recent);
+        QueueStatusResponse second = service.status(EVENT_ID, recent);
+
+        assertTrue(first.isAdmitted());
+        assertEquals(Instant.ofEpochMilli(openedAtMs + 3_590_000 + 600_000), first.getAdmissionExpiresAt());
+        assertEquals(first.getAdmissionToken(), second.getAdmissionToken());
+        // Admitted an hour ago: the ten minute window closed long since
+        assertThrows(ValidationException.class, () -> service.status(EVENT_ID, early));
+    }
+
+    @Test
+    @DisplayName("Should only accept an admission token from the buyer it was issued to")
+    void admit_OtherBuyer_Refused() {
+        String ticket = tokens.queueTicket(EVENT_ID, 3_590, WaitingRoomTokens.buyer("buyer@example.com"));
+        String token = service.status(EVENT_ID, ticket).getAdmissionToken();
+
+        assertThrows(AdmissionRequiredException.class, () -> service.admit(EVENT_ID, token, "someone-else@example.com"));
+        verify(usedAdmissionRepository, never()).markUsed(anyString(), any());
+    }
+
+    @Test
+    @DisplayName("Should spend an admission token once and refuse it after that")
+    void admit_SpentToken_Refused() {
+        String ticket = tokens.queueTicket(EVENT_ID, 3_590, WaitingRoomTokens.buyer("buyer@example.com"));
+        String token = service.status(EVENT_ID, ticket).getAdmissionToken();
+        when(usedAdmissionRepository.markUsed(anyString(), any())).thenReturn(1, 0);
+
+        assertNotNull(service.admit(EVENT_ID, token, " Buyer@Example.com"));
+        assertThrows(AdmissionRequiredException.class, () -> service.admit(EVENT_ID, token, "buyer@example.com"));
+    }
+
+    @Test
+    @DisplayName("Should let purchases through without a token when the event has no waiting room")
+    void admit_NoRoom_NothingSpent() {
+        assertNull(service.admit(99L, null, "buyer@example.com"));
+        verifyNoInteractions(usedAdmissionRepository);
+    }
+}
@@ -0,0 +1,43 @@
+package com.briankimathi.event_booking.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("BloomFilter Tests")
+class BloomFilterTest {
+
+    @Test
+    @DisplayName("Should never report an inserted key as absent")
+    void mightContain_InsertedKeys_AlwaysTrue() {
+        BloomFilter filter = BloomFilter.create(10_000, 0.001);
+
+        for(int i = 0; i < 10_000; i++) {
+            filter.put("jti:" + i);
+        }
+
+        for(int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain("jti:" + i));
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep the false positive rate near the configured target")
+    void mightContain_UnknownKeys_RarelyTrue() {
+        BloomFilter filter = BloomFilter.create(10_000, 0.01);
+
+        for(int i = 0; i < 10_000; i++) {
+            filter.put("user:" + i + ":0");
+        }
+
+        int falsePositives = 0;
+        for(int i = 0; i < 100_000; i++) {
+            if(filter.mightContain("user:" + i + ":1")) {
+                falsePositives++;
+            }
+        }
+
+        assertTrue(falsePositives < 2_000, "false positives: " + falsePositives);
+    }
+}
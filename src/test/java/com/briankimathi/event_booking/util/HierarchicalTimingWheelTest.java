@@ -0,0 +1,99 @@
+package com.briankimathi.event_booking.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("HierarchicalTimingWheel Tests")
+class HierarchicalTimingWheelTest {
+
+    private static final long TICK_MS = 1_000;
+    private static final long START_MS = 1_700_000_000_000L;
+
+    @Test
+    @DisplayName("Should fire every entry at its deadline tick, never earlier")
+    void advance_FiresEachEntryOnTime() {
+        HierarchicalTimingWheel wheel = new HierarchicalTimingWheel(TICK_MS, 3, START_MS);
+        Random random = new Random(42);
+        Map<Long, Long> deadlines = new HashMap<>();
+
+        // Spans all three levels (64 s, ~68 min, ~3 days) and the overflow bucket
+        for(long id = 0; id < 200_000; id++) {
+            long deadline = START_MS + (long) (random.nextDouble() * 5 * 24 * 3600 * 1000L);
+            deadlines.put(id, deadline);
+            wheel.schedule(id, deadline);
+        }
+        assertEquals(200_000, wheel.size());
+
+        long[] now = {START_MS};
+        List<Long> fired = new ArrayList<>();
+        while(now[0] < START_MS + 5 * 24 * 3600 * 1000L + TICK_MS) {
+            now[0] += 60 * TICK_MS;
+            wheel.advance(now[0], id -> {
+                long deadline = deadlines.get(id);
+                assertTrue(deadline <= now[0], "fired early");
+                assertTrue(deadline > now[0] - 61 * TICK_MS, "fired late");
+                fired.add(id);
+            });
+        }
+
+        assertEquals(200_000, fired.size());
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    @DisplayName("Should fire overdue entries on the next advance")
+    void schedule_PastDeadline_FiresImmediately() {
+        HierarchicalTimingWheel wheel = new HierarchicalTimingWheel(TICK_MS, 2, START_MS);
+        wheel.schedule(7L, START_MS - 5_000);
+
+        List<Long> fired = new ArrayList<>();
+        wheel.advance(START_MS, fired::add);
+
+        assertEquals(List.of(7L), fired);
+    }
+
+    @Test
+    @DisplayName("Should fire entries one tick apart in deadline order")
+    void advance_TickByTick_FiresInOrder() {
+        HierarchicalTimingWheel wheel = new HierarchicalTimingWheel(TICK_MS, 2, START_MS);
+        for(long id = 300; id > 0; id--) {
+            wheel.schedule(id, START_MS + id * TICK_MS);
+        }
+
+        List<Long> fired = new ArrayList<>();
+        for(long tick = 1; tick <= 300; tick++) {
+            wheel.advance(START_MS + tick * TICK_MS, fired::add);
+            assertEquals(tick, fired.size());
+            assertEquals(tick, fired.get((int) tick - 1));
+        }
+    }
+
+    @Test
+    @DisplayName("Should list every waiting id across levels, overflow and overdue entries")
+    void forEachId_ListsWaitingIds() {
+        HierarchicalTimingWheel wheel = new HierarchicalTimingWheel(TICK_MS, 2, START_MS);
+        wheel.schedule(1L, START_MS - 1_000);
+        wheel.schedule(2L, START_MS + 10 * TICK_MS);
+        wheel.schedule(3L, START_MS + 1_000 * TICK_MS);
+        wheel.schedule(4L, START_MS + 100_000 * TICK_MS);
+
+        List<Long> waiting = new ArrayList<>();
+        wheel.forEachId(waiting::add);
+        waiting.sort(null);
+        assertEquals(List.of(1L, 2L, 3L, 4L), waiting);
+
+        wheel.advance(START_MS + 10 * TICK_MS, id -> {});
+        waiting.clear();
+        wheel.forEachId(waiting::add);
+        waiting.sort(null);
+        assertEquals(List.of(3L, 4L), waiting);
+    }
+}
@@ -0,0 +1,117 @@
+package com.briankimathi.event_booking.util;
+
+import com.briankimathi.event_booking.config.PurchaseCodeConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("PurchaseCodeGenerator Tests")
+class PurchaseCodeGeneratorTest {
+
+    private static final String ALPHABET = "ABCDEFGHJKLMNPQRSTUVWXYZ23456789";
+
+    private PurchaseCodeConfig config;
+
+    @BeforeEach
+    void setUp() {
+        config = new PurchaseCodeConfig();
+        config.setSecret("test-purchase-code-secret");
+        config.setNodeId(5);
+    }
+
+    @Test
+    @DisplayName("Should issue unique, authentic codes across concurrent threads")
+    void generate_ConcurrentThreads_UniqueAndAuthentic() throws Exception {
+        PurchaseCodeGenerator generator = new PurchaseCodeGenerator(config);
+        int threads = 8;
+        int perThread = 20_000;
+        Set<String> codes = ConcurrentHashMap.newKeySet();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        List<Future<?>> futures = new ArrayList<>();
+        for(int t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for(int i = 0; i < perThread; i++) {
+                    String code = generator.generate();
+                    assertTrue(generator.isAuthentic(code), code);
+                    codes.add(code);
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for(Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        assertEquals(threads * perThread, codes.size());
+    }
+
+    @Test
+    @DisplayName("Should stay unique when a burst outruns one second's sequence")
+    void generate_FrozenClock_BorrowsFromNextSecond() {
+        PurchaseCodeGenerator generator = new PurchaseCodeGenerator(config, () -> 1_760_000_000_000L);
+        Set<String> codes = new HashSet<>();
+
+        // 14 sequence bits with the defaults, so this spans several seconds
+        for(int i = 0; i < 100_000; i++) {
+            assertTrue(codes.add(generator.generate()));
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject codes with a mistyped character")
+    void isAuthentic_SingleCharacterChanged_False() {
+        PurchaseCodeGenerator generator = new PurchaseCodeGenerator(config);
+        String code = generator.generate();
+
+        for(int i = config.getPrefix().length(); i < code.length(); i++) {
+            for(char replacement : ALPHABET.toCharArray()) {
+                if(replacement != code.charAt(i)) {
+                    String mistyped = code.substring(0, i) + replacement + code.substring(i + 1);
+                    assertFalse(generator.isAuthentic(mistyped), mistyped);
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject codes signed with another secret")
+    void isAuthentic_OtherSecret_False() {
+        PurchaseCodeConfig other = new PurchaseCodeConfig();
+        other.setSecret("another-secret");
+        String forged = new PurchaseCodeGenerator(other).generate();
+
+        PurchaseCodeGenerator generator = new PurchaseCodeGenerator(config);
+
+        assertFalse(generator.isAuthentic(forged));
+        assertFalse(generator.isAuthentic(null));
+        assertFalse(generator.isAuthentic("EVT-"));
+    }
+
+    @Test
+    @DisplayName("Should still accept the shape of codes issued before signing")
+    void mayExist_LegacyRandomCode_True() {
+        PurchaseCodeGenerator generator = new PurchaseCodeGenerator(config);
+
+        assertTrue(generator.mayExist("EVT-K7QM2XHP9A"));
+        assertFalse(generator.mayExist("EVT-K7QM2XHP9"));
+        assertFalse(generator.mayExist("EVT-K7QM2XHP0A"));
+        assertFalse(generator.mayExist("' OR 1=1 --"));
+    }
+}